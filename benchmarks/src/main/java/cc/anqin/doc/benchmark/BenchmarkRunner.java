@@ -0,0 +1,41 @@
+package cc.anqin.doc.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ * <p>
+ * 默认运行全部基准并启用GC分析器，报告中的 {@code gc.alloc.rate.norm} 即每次操作分配的字节数。
+ * 结果同时写入 {@code jmh-result.json}，便于升级前后对比。
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * java -jar target/benchmarks.jar                       // 全部基准
+ * java -jar target/benchmarks.jar FillTemplateBenchmark // 只运行匹配的基准
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json");
+        if (args.length == 0) {
+            options.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+        }
+        for (String include : args) {
+            options.include(include);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,56 @@
+package cc.anqin.doc.benchmark;
+
+import cc.anqin.doc.benchmark.entity.RowEntity;
+import cc.anqin.doc.convert.CF;
+import cc.anqin.doc.convert.DocumentFormat;
+import cc.anqin.doc.utils.FileUtils;
+import cc.anqin.doc.utils.Pair;
+import cc.anqin.doc.word.PlaceholderFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 格式转换基准
+ * <p>
+ * 输入为填充了100行明细的DOCX，测量 {@link CF} 转换到 PDF/PNG 的耗时。
+ * 转换缓存被显式关闭，保证每次都执行真实转换。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConvertBenchmark {
+
+    @Param({"PDF", "PNG"})
+    public DocumentFormat format;
+
+    private File input;
+
+    @Setup
+    public void setup() throws Exception {
+        RowEntity entity = TemplateGenerator.rowEntity(100);
+        Pair<File, File> filled = PlaceholderFactory.fillTemplate(entity, TemplateGenerator.rowTemplate(), DocumentFormat.DOCX);
+        FileUtils.deleteFileSafely(filled.getKey());
+        input = filled.getValue();
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileUtils.deleteFileSafely(input);
+    }
+
+    @Benchmark
+    public File convert() {
+        File output = CF.create(input).setCache(null).toFile(format);
+        FileUtils.deleteFileSafely(output);
+        return output;
+    }
+}
@@ -0,0 +1,47 @@
+package cc.anqin.doc.benchmark;
+
+import cc.anqin.doc.FT;
+import cc.anqin.doc.benchmark.entity.TextEntity50;
+import cc.anqin.doc.convert.DocumentFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端到端基准
+ * <p>
+ * 测量 {@link FT#fer()} 从模板填充到生成目标格式的完整耗时，模板包含50个文本占位符。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EndToEndBenchmark {
+
+    @Param({"DOCX", "PDF"})
+    public DocumentFormat format;
+
+    private TextEntity50 entity;
+
+    private File template;
+
+    @Setup
+    public void setup() throws Exception {
+        template = TemplateGenerator.textTemplate(50);
+        entity = TemplateGenerator.textEntity(TextEntity50.class);
+    }
+
+    @Benchmark
+    public File fer() {
+        FT<TextEntity50> ft = FT.of(entity, template, format).fer();
+        ft.clearAll();
+        return ft.getCurrentFile();
+    }
+}
@@ -0,0 +1,109 @@
+package cc.anqin.doc.benchmark;
+
+import cc.anqin.doc.benchmark.entity.ImageEntity;
+import cc.anqin.doc.benchmark.entity.RowEntity;
+import cc.anqin.doc.benchmark.entity.TextEntity10;
+import cc.anqin.doc.benchmark.entity.TextEntity200;
+import cc.anqin.doc.benchmark.entity.TextEntity50;
+import cc.anqin.doc.convert.DocumentFormat;
+import cc.anqin.doc.entity.TemplateInterface;
+import cc.anqin.doc.utils.FileUtils;
+import cc.anqin.doc.utils.Pair;
+import cc.anqin.doc.word.PlaceholderFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模板填充基准
+ * <p>
+ * 分别测量 {@link PlaceholderFactory#fillTemplate(TemplateInterface, File, DocumentFormat)} 在
+ * 不同文本字段数、动态行数和图片数下的耗时，输出为 DOCX，不包含格式转换。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FillTemplateBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class TextState {
+
+        @Param({"10", "50", "200"})
+        public int fieldCount;
+
+        TemplateInterface entity;
+
+        File template;
+
+        @Setup
+        public void setup() throws Exception {
+            template = TemplateGenerator.textTemplate(fieldCount);
+            Class<? extends TemplateInterface> type = fieldCount == 10 ? TextEntity10.class
+                    : fieldCount == 50 ? TextEntity50.class : TextEntity200.class;
+            entity = TemplateGenerator.textEntity(type);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RowState {
+
+        @Param({"10", "100", "1000"})
+        public int rowCount;
+
+        RowEntity entity;
+
+        File template;
+
+        @Setup
+        public void setup() throws Exception {
+            template = TemplateGenerator.rowTemplate();
+            entity = TemplateGenerator.rowEntity(rowCount);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ImageState {
+
+        @Param({"1", "4", "8"})
+        public int imageCount;
+
+        ImageEntity entity;
+
+        File template;
+
+        @Setup
+        public void setup() throws Exception {
+            template = TemplateGenerator.imageTemplate(imageCount);
+            entity = TemplateGenerator.imageEntity(imageCount);
+        }
+    }
+
+    @Benchmark
+    public File textFields(TextState state) {
+        return fill(state.entity, state.template);
+    }
+
+    @Benchmark
+    public File dynamicRows(RowState state) {
+        return fill(state.entity, state.template);
+    }
+
+    @Benchmark
+    public File images(ImageState state) {
+        return fill(state.entity, state.template);
+    }
+
+    private static File fill(TemplateInterface entity, File template) {
+        Pair<File, File> result = PlaceholderFactory.fillTemplate(entity, template, DocumentFormat.DOCX);
+        FileUtils.deleteFileSafely(result.getKey());
+        FileUtils.deleteFileSafely(result.getValue());
+        return result.getValue();
+    }
+}
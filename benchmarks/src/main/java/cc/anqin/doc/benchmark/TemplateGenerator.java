@@ -0,0 +1,176 @@
+package cc.anqin.doc.benchmark;
+
+import cc.anqin.doc.benchmark.entity.ImageEntity;
+import cc.anqin.doc.benchmark.entity.RowEntity;
+import cn.hutool.core.util.ReflectUtil;
+import com.aspose.words.Document;
+import com.aspose.words.DocumentBuilder;
+import com.aspose.words.SaveFormat;
+import lombok.experimental.UtilityClass;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 合成模板与实体生成器
+ * <p>
+ * 基准测试不依赖仓库外的模板文件和网络图片，所有模板都由 Aspose DocumentBuilder 现场生成，
+ * 保证每次运行的输入完全一致：
+ * <ul>
+ *   <li>文本模板 - 每行一个 ${fieldN} 占位符</li>
+ *   <li>图片模板 - 每行一个 ${imageN} 占位符，图片为内存中绘制的PNG</li>
+ *   <li>动态行模板 - 一个表头行加一个模板行的表格</li>
+ * </ul>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+@UtilityClass
+public class TemplateGenerator {
+
+    /**
+     * 生成文本占位符模板
+     *
+     * @param fieldCount 占位符数量
+     * @return DOCX 模板文件
+     */
+    public File textTemplate(int fieldCount) throws Exception {
+        Document doc = new Document();
+        DocumentBuilder builder = new DocumentBuilder(doc);
+        builder.writeln("文本占位符基准模板");
+        for (int i = 0; i < fieldCount; i++) {
+            builder.writeln("字段" + i + "：${field" + i + "}");
+        }
+        return save(doc, "text-" + fieldCount);
+    }
+
+    /**
+     * 生成图片占位符模板
+     *
+     * @param imageCount 图片数量，不超过 {@link ImageEntity#MAX_IMAGES}
+     * @return DOCX 模板文件
+     */
+    public File imageTemplate(int imageCount) throws Exception {
+        Document doc = new Document();
+        DocumentBuilder builder = new DocumentBuilder(doc);
+        builder.writeln("${title}");
+        for (int i = 0; i < imageCount; i++) {
+            builder.writeln("图片" + i + "：${image" + i + "}");
+        }
+        return save(doc, "image-" + imageCount);
+    }
+
+    /**
+     * 生成动态行模板
+     *
+     * @return DOCX 模板文件
+     */
+    public File rowTemplate() throws Exception {
+        Document doc = new Document();
+        DocumentBuilder builder = new DocumentBuilder(doc);
+        builder.writeln("${title}");
+        builder.startTable();
+        for (String header : new String[]{"名称", "数量", "金额", "备注"}) {
+            builder.insertCell();
+            builder.write(header);
+        }
+        builder.endRow();
+        for (String field : new String[]{"itemName", "quantity", "amount", "remark"}) {
+            builder.insertCell();
+            builder.write("${" + field + "}");
+        }
+        builder.endRow();
+        builder.endTable();
+        return save(doc, "row");
+    }
+
+    /**
+     * 创建文本实体并为 field0 ~ fieldN 赋值
+     *
+     * @param type 实体类型
+     * @return 实体
+     */
+    public <T> T textEntity(Class<T> type) {
+        T entity = ReflectUtil.newInstance(type);
+        for (Field field : ReflectUtil.getFields(type)) {
+            if (field.getName().startsWith("field")) {
+                ReflectUtil.setFieldValue(entity, field, "值-" + field.getName());
+            }
+        }
+        return entity;
+    }
+
+    /**
+     * 创建图片实体
+     *
+     * @param imageCount 图片数量
+     * @return {@link ImageEntity }
+     */
+    public ImageEntity imageEntity(int imageCount) throws IOException {
+        ImageEntity entity = new ImageEntity();
+        entity.setTitle("图片占位符基准");
+        for (int i = 0; i < imageCount; i++) {
+            ReflectUtil.setFieldValue(entity, "image" + i, png(400, 300, i));
+        }
+        return entity;
+    }
+
+    /**
+     * 创建动态行实体
+     *
+     * @param rowCount 行数
+     * @return {@link RowEntity }
+     */
+    public RowEntity rowEntity(int rowCount) {
+        List<RowEntity.Item> items = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            items.add(new RowEntity.Item("商品" + i, String.valueOf(i % 10 + 1), String.valueOf(i * 3.5), "备注" + i));
+        }
+        RowEntity entity = new RowEntity();
+        entity.setTitle("动态行基准");
+        entity.setItems(items);
+        return entity;
+    }
+
+    /**
+     * 绘制一张PNG图片
+     *
+     * @param width  宽度
+     * @param height 高度
+     * @param seed   决定颜色，使每张图片内容不同
+     * @return PNG 字节
+     */
+    public byte[] png(int width, int height, int seed) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(new Color(Color.HSBtoRGB(seed / 8f, 0.6f, 0.9f)));
+            graphics.fillRect(0, 0, width, height);
+            graphics.setColor(Color.DARK_GRAY);
+            for (int i = 0; i < width; i += 20) {
+                graphics.drawLine(i, 0, width - i, height);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private File save(Document doc, String name) throws Exception {
+        File file = Files.createTempFile("smart-doc-bench-" + name + "-", ".docx").toFile();
+        file.deleteOnExit();
+        doc.save(file.getAbsolutePath(), SaveFormat.DOCX);
+        return file;
+    }
+}
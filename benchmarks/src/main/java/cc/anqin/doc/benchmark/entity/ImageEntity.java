@@ -0,0 +1,53 @@
+package cc.anqin.doc.benchmark.entity;
+
+import cc.anqin.doc.entity.Template;
+import cc.anqin.doc.word.annotation.Placeholder;
+import cc.anqin.doc.word.enums.PlaceholderType;
+import cc.anqin.processor.annotation.AutoToMap;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 图片占位符基准实体
+ * <p>
+ * 最多 8 张图片，字段名依次为 image0 ~ image7。未使用的字段保持为 null，
+ * 与模板中实际出现的图片占位符数量一致。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@AutoToMap
+public class ImageEntity extends Template {
+
+    /** 最大图片数 */
+    public static final int MAX_IMAGES = 8;
+
+    private String title;
+
+    @Placeholder(value = PlaceholderType.PIC, pic = @Placeholder.PicWord(width = 120, height = 90))
+    private byte[] image0;
+
+    @Placeholder(value = PlaceholderType.PIC, pic = @Placeholder.PicWord(width = 120, height = 90))
+    private byte[] image1;
+
+    @Placeholder(value = PlaceholderType.PIC, pic = @Placeholder.PicWord(width = 120, height = 90))
+    private byte[] image2;
+
+    @Placeholder(value = PlaceholderType.PIC, pic = @Placeholder.PicWord(width = 120, height = 90))
+    private byte[] image3;
+
+    @Placeholder(value = PlaceholderType.PIC, pic = @Placeholder.PicWord(width = 120, height = 90))
+    private byte[] image4;
+
+    @Placeholder(value = PlaceholderType.PIC, pic = @Placeholder.PicWord(width = 120, height = 90))
+    private byte[] image5;
+
+    @Placeholder(value = PlaceholderType.PIC, pic = @Placeholder.PicWord(width = 120, height = 90))
+    private byte[] image6;
+
+    @Placeholder(value = PlaceholderType.PIC, pic = @Placeholder.PicWord(width = 120, height = 90))
+    private byte[] image7;
+}
@@ -0,0 +1,48 @@
+package cc.anqin.doc.benchmark.entity;
+
+import cc.anqin.doc.entity.Template;
+import cc.anqin.doc.word.annotation.Placeholder;
+import cc.anqin.doc.word.enums.PlaceholderType;
+import cc.anqin.processor.annotation.AutoToMap;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 动态行基准实体
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@AutoToMap
+public class RowEntity extends Template {
+
+    private String title;
+
+    @Placeholder(value = PlaceholderType.DYNAMIC_ROW, dynamicRow = @Placeholder.DynamicRow(Item.class))
+    private List<Item> items;
+
+    /**
+     * 明细行
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @AutoToMap
+    public static class Item implements Serializable {
+
+        private String itemName;
+
+        private String quantity;
+
+        private String amount;
+
+        private String remark;
+    }
+}
@@ -0,0 +1,41 @@
+package cc.anqin.doc.benchmark.entity;
+
+import cc.anqin.doc.entity.Template;
+import cc.anqin.processor.annotation.AutoToMap;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 10 个文本占位符的基准实体
+ * <p>
+ * 字段名依次为 field0 ~ field9，与 {@link cc.anqin.doc.benchmark.TemplateGenerator} 生成的模板对应。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@AutoToMap
+public class TextEntity10 extends Template {
+
+    private String field0;
+
+    private String field1;
+
+    private String field2;
+
+    private String field3;
+
+    private String field4;
+
+    private String field5;
+
+    private String field6;
+
+    private String field7;
+
+    private String field8;
+
+    private String field9;
+}
@@ -0,0 +1,421 @@
+package cc.anqin.doc.benchmark.entity;
+
+import cc.anqin.doc.entity.Template;
+import cc.anqin.processor.annotation.AutoToMap;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 200 个文本占位符的基准实体
+ * <p>
+ * 字段名依次为 field0 ~ field199，与 {@link cc.anqin.doc.benchmark.TemplateGenerator} 生成的模板对应。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@AutoToMap
+public class TextEntity200 extends Template {
+
+    private String field0;
+
+    private String field1;
+
+    private String field2;
+
+    private String field3;
+
+    private String field4;
+
+    private String field5;
+
+    private String field6;
+
+    private String field7;
+
+    private String field8;
+
+    private String field9;
+
+    private String field10;
+
+    private String field11;
+
+    private String field12;
+
+    private String field13;
+
+    private String field14;
+
+    private String field15;
+
+    private String field16;
+
+    private String field17;
+
+    private String field18;
+
+    private String field19;
+
+    private String field20;
+
+    private String field21;
+
+    private String field22;
+
+    private String field23;
+
+    private String field24;
+
+    private String field25;
+
+    private String field26;
+
+    private String field27;
+
+    private String field28;
+
+    private String field29;
+
+    private String field30;
+
+    private String field31;
+
+    private String field32;
+
+    private String field33;
+
+    private String field34;
+
+    private String field35;
+
+    private String field36;
+
+    private String field37;
+
+    private String field38;
+
+    private String field39;
+
+    private String field40;
+
+    private String field41;
+
+    private String field42;
+
+    private String field43;
+
+    private String field44;
+
+    private String field45;
+
+    private String field46;
+
+    private String field47;
+
+    private String field48;
+
+    private String field49;
+
+    private String field50;
+
+    private String field51;
+
+    private String field52;
+
+    private String field53;
+
+    private String field54;
+
+    private String field55;
+
+    private String field56;
+
+    private String field57;
+
+    private String field58;
+
+    private String field59;
+
+    private String field60;
+
+    private String field61;
+
+    private String field62;
+
+    private String field63;
+
+    private String field64;
+
+    private String field65;
+
+    private String field66;
+
+    private String field67;
+
+    private String field68;
+
+    private String field69;
+
+    private String field70;
+
+    private String field71;
+
+    private String field72;
+
+    private String field73;
+
+    private String field74;
+
+    private String field75;
+
+    private String field76;
+
+    private String field77;
+
+    private String field78;
+
+    private String field79;
+
+    private String field80;
+
+    private String field81;
+
+    private String field82;
+
+    private String field83;
+
+    private String field84;
+
+    private String field85;
+
+    private String field86;
+
+    private String field87;
+
+    private String field88;
+
+    private String field89;
+
+    private String field90;
+
+    private String field91;
+
+    private String field92;
+
+    private String field93;
+
+    private String field94;
+
+    private String field95;
+
+    private String field96;
+
+    private String field97;
+
+    private String field98;
+
+    private String field99;
+
+    private String field100;
+
+    private String field101;
+
+    private String field102;
+
+    private String field103;
+
+    private String field104;
+
+    private String field105;
+
+    private String field106;
+
+    private String field107;
+
+    private String field108;
+
+    private String field109;
+
+    private String field110;
+
+    private String field111;
+
+    private String field112;
+
+    private String field113;
+
+    private String field114;
+
+    private String field115;
+
+    private String field116;
+
+    private String field117;
+
+    private String field118;
+
+    private String field119;
+
+    private String field120;
+
+    private String field121;
+
+    private String field122;
+
+    private String field123;
+
+    private String field124;
+
+    private String field125;
+
+    private String field126;
+
+    private String field127;
+
+    private String field128;
+
+    private String field129;
+
+    private String field130;
+
+    private String field131;
+
+    private String field132;
+
+    private String field133;
+
+    private String field134;
+
+    private String field135;
+
+    private String field136;
+
+    private String field137;
+
+    private String field138;
+
+    private String field139;
+
+    private String field140;
+
+    private String field141;
+
+    private String field142;
+
+    private String field143;
+
+    private String field144;
+
+    private String field145;
+
+    private String field146;
+
+    private String field147;
+
+    private String field148;
+
+    private String field149;
+
+    private String field150;
+
+    private String field151;
+
+    private String field152;
+
+    private String field153;
+
+    private String field154;
+
+    private String field155;
+
+    private String field156;
+
+    private String field157;
+
+    private String field158;
+
+    private String field159;
+
+    private String field160;
+
+    private String field161;
+
+    private String field162;
+
+    private String field163;
+
+    private String field164;
+
+    private String field165;
+
+    private String field166;
+
+    private String field167;
+
+    private String field168;
+
+    private String field169;
+
+    private String field170;
+
+    private String field171;
+
+    private String field172;
+
+    private String field173;
+
+    private String field174;
+
+    private String field175;
+
+    private String field176;
+
+    private String field177;
+
+    private String field178;
+
+    private String field179;
+
+    private String field180;
+
+    private String field181;
+
+    private String field182;
+
+    private String field183;
+
+    private String field184;
+
+    private String field185;
+
+    private String field186;
+
+    private String field187;
+
+    private String field188;
+
+    private String field189;
+
+    private String field190;
+
+    private String field191;
+
+    private String field192;
+
+    private String field193;
+
+    private String field194;
+
+    private String field195;
+
+    private String field196;
+
+    private String field197;
+
+    private String field198;
+
+    private String field199;
+}
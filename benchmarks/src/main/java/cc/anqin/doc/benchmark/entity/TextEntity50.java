@@ -0,0 +1,121 @@
+package cc.anqin.doc.benchmark.entity;
+
+import cc.anqin.doc.entity.Template;
+import cc.anqin.processor.annotation.AutoToMap;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 50 个文本占位符的基准实体
+ * <p>
+ * 字段名依次为 field0 ~ field49，与 {@link cc.anqin.doc.benchmark.TemplateGenerator} 生成的模板对应。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@AutoToMap
+public class TextEntity50 extends Template {
+
+    private String field0;
+
+    private String field1;
+
+    private String field2;
+
+    private String field3;
+
+    private String field4;
+
+    private String field5;
+
+    private String field6;
+
+    private String field7;
+
+    private String field8;
+
+    private String field9;
+
+    private String field10;
+
+    private String field11;
+
+    private String field12;
+
+    private String field13;
+
+    private String field14;
+
+    private String field15;
+
+    private String field16;
+
+    private String field17;
+
+    private String field18;
+
+    private String field19;
+
+    private String field20;
+
+    private String field21;
+
+    private String field22;
+
+    private String field23;
+
+    private String field24;
+
+    private String field25;
+
+    private String field26;
+
+    private String field27;
+
+    private String field28;
+
+    private String field29;
+
+    private String field30;
+
+    private String field31;
+
+    private String field32;
+
+    private String field33;
+
+    private String field34;
+
+    private String field35;
+
+    private String field36;
+
+    private String field37;
+
+    private String field38;
+
+    private String field39;
+
+    private String field40;
+
+    private String field41;
+
+    private String field42;
+
+    private String field43;
+
+    private String field44;
+
+    private String field45;
+
+    private String field46;
+
+    private String field47;
+
+    private String field48;
+
+    private String field49;
+}
@@ -0,0 +1,281 @@
+package cc.anqin.doc.cli;
+
+import cc.anqin.doc.FT;
+import cc.anqin.doc.convert.DocumentFormat;
+import cc.anqin.doc.convert.OutputProfile;
+import cc.anqin.doc.entity.MapEntity;
+import cc.anqin.doc.entity.TemplateInterface;
+import cc.anqin.doc.utils.FileUtils;
+import cc.anqin.doc.word.schema.PlaceholderSchema;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.thread.ExecutorBuilder;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.ClassUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.json.JSONConfig;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * JSON Lines 批量渲染命令行
+ * <p>
+ * 输入文件每行一个实体JSON，按实体类型绑定（或按占位符声明作为 {@link MapEntity}）后通过 {@link FT} 完整渲染流程（填充、清除、转换）并行渲染，
+ * 输出到目录或zip文件，结束后打印吞吐量与延迟百分位。适用于数据回补，也可以作为可重复的压测工具。
+ * </p>
+ * <p>
+ * 执行规则：
+ * <ul>
+ *   <li>逐行读取 - 输入不会一次性加载，工作线程与队列占满时由读取线程直接渲染，形成反压</li>
+ *   <li>失败隔离 - 单条记录失败只记录行号与原因，不影响其它记录，存在失败时退出码为1</li>
+ *   <li>输出命名 - 指定 name-field 时取该字段值作为文件名，否则使用6位行号；字段值重复（不区分大小写）时，
+ *   第一次出现的记录使用原名，之后的记录在原名后追加 -行号，不会覆盖已有输出，也不会产生重复的zip条目</li>
+ *   <li>zip输出 - 输出路径以 .zip 结尾时写入同一个压缩包，条目按完成顺序写入</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 参数：
+ * <pre>
+ * --template=/data/letter.docx    模板文件（必填）
+ * --input=/data/letters.jsonl     JSON Lines 输入文件（必填）
+ * --output=/data/out              输出目录，或以 .zip 结尾的压缩包（必填）
+ * --entity=com.acme.Letter        实体类型，须实现 TemplateInterface（与 schema 二选一）
+ * --schema=/data/letter.schema.properties  占位符声明，每行JSON直接作为 Map 实体渲染（与 entity 二选一）
+ * --format=pdf                    输出格式，默认pdf
+ * --threads=8                     并行线程数，默认CPU核数
+ * --timeout=30000                 单条记录超时毫秒数，默认不限时
+ * --profile=COMPACT               输出配置档位（DEFAULT/FAST/COMPACT/ARCHIVAL），默认不指定
+ * --name-field=id                 作为输出文件名的字段，默认使用行号
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see FT 模板填充工具类
+ */
+@Slf4j
+@Data
+@Accessors(chain = true)
+public class BatchRenderer {
+
+    /** 模板文件 */
+    private File template;
+
+    /** JSON Lines 输入文件 */
+    private File input;
+
+    /** 输出目录或zip文件 */
+    private File output;
+
+    /** 实体类型 */
+    private Class<? extends TemplateInterface> entityType;
+
+    /** 占位符声明，未指定实体类型时每行JSON作为 Map 实体渲染 */
+    private PlaceholderSchema schema;
+
+    /** 输出格式 */
+    private DocumentFormat format = DocumentFormat.PDF;
+
+    /** 并行线程数 */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** 单条记录超时，为null时不限时 */
+    private Duration timeout;
+
+    /** 输出配置档位 */
+    private OutputProfile profile;
+
+    /** 作为输出文件名的字段 */
+    private String nameField;
+
+    /**
+     * 执行批量渲染
+     *
+     * @return 失败的记录数
+     * @throws Exception 读取输入或写出zip失败
+     */
+    public int run() throws Exception {
+        if (!FileUtil.isFile(template) || !FileUtil.isFile(input) || output == null
+                || (entityType == null && schema == null)) {
+            throw new IllegalArgumentException("模板、输入、输出与实体类型（或占位符声明）必须指定");
+        }
+        boolean zip = "zip".equalsIgnoreCase(FileUtil.getSuffix(output));
+        if (zip) {
+            FileUtil.mkParentDirs(output);
+        } else {
+            FileUtil.mkdir(output);
+        }
+
+        ExecutorService pool = ExecutorBuilder.create()
+                .setCorePoolSize(threads)
+                .setMaxPoolSize(threads)
+                .setWorkQueue(new LinkedBlockingQueue<>(threads * 4))
+                .setThreadFactory(new NamedThreadFactory("smart-doc-batch-", true))
+                .setHandler(new ThreadPoolExecutor.CallerRunsPolicy())
+                .build();
+        LatencyStats stats = new LatencyStats();
+        AtomicInteger failed = new AtomicInteger();
+        Set<String> names = new HashSet<>();
+        long start = System.nanoTime();
+
+        try (ZipOutputStream zipOut = zip ? new ZipOutputStream(FileUtil.getOutputStream(output)) : null;
+             BufferedReader reader = FileUtil.getUtf8Reader(input)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (StrUtil.isBlank(line)) {
+                    continue;
+                }
+                int number = lineNumber;
+                JSONObject object;
+                String name;
+                try {
+                    // 忽略null值，避免 JSONNull 作为文本写入文档
+                    object = JSONUtil.parseObj(line, JSONConfig.create().setIgnoreNullValue(true));
+                    // 在读取线程中按行号顺序分配文件名，重名时的处理结果与并行顺序无关
+                    name = claimName(object, number, names);
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    log.error("第 {} 行解析失败：{}", number, e.getMessage(), e);
+                    continue;
+                }
+                pool.execute(() -> {
+                    long begin = System.nanoTime();
+                    try {
+                        render(object, name, zipOut);
+                        stats.record(System.nanoTime() - begin);
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        log.error("第 {} 行渲染失败：{}", number, e.getMessage(), e);
+                    }
+                });
+            }
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        System.out.println(stats.report(System.nanoTime() - start, failed.get()));
+        return failed.get();
+    }
+
+    /**
+     * 分配输出文件名（不含扩展名），与已分配的名称重复时追加行号
+     *
+     * @param object     实体JSON
+     * @param lineNumber 行号
+     * @param names      已分配的名称（小写），只在读取线程中访问
+     * @return 文件名
+     */
+    private String claimName(JSONObject object, int lineNumber, Set<String> names) {
+        String line = String.format("%06d", lineNumber);
+        String name = StrUtil.isBlank(nameField) || StrUtil.isBlank(FileUtil.cleanInvalid(object.getStr(nameField)))
+                ? line
+                : FileUtil.cleanInvalid(object.getStr(nameField));
+        String claimed = name;
+        while (!names.add(claimed.toLowerCase())) {
+            claimed = claimed + "-" + line;
+        }
+        if (!claimed.equals(name)) {
+            log.warn("第 {} 行的文件名 {} 已被使用，改为 {}", lineNumber, name, claimed);
+        }
+        return claimed;
+    }
+
+    /**
+     * 渲染一条记录并写入输出
+     *
+     * @param object 实体JSON
+     * @param name   输出文件名（不含扩展名）
+     * @param zipOut zip输出流，输出到目录时为null
+     */
+    private void render(JSONObject object, String name, ZipOutputStream zipOut) throws Exception {
+        TemplateInterface entity = entityType == null ? MapEntity.of(object, schema) : object.toBean(entityType);
+
+        FT<TemplateInterface> ft = FT.of(entity, template).setTimeout(timeout).setProfile(profile).fer();
+        File rendered = ft.getGenerateFileType() == format ? ft.getCurrentFile() : ft.convertNewFile(format);
+        try {
+            String fileName = name + format.getExtensionWithDot();
+            if (zipOut == null) {
+                FileUtil.copy(rendered, new File(output, fileName), true);
+            } else {
+                synchronized (zipOut) {
+                    zipOut.putNextEntry(new ZipEntry(fileName));
+                    FileUtil.writeToStream(rendered, zipOut);
+                    zipOut.closeEntry();
+                }
+            }
+        } finally {
+            if (rendered != ft.getCurrentFile()) {
+                FileUtils.deleteFileSafely(rendered);
+            }
+            ft.clearAll();
+        }
+    }
+
+    /**
+     * 命令行入口
+     *
+     * @param args 参数，见类说明
+     * @throws Exception 执行失败
+     */
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("无效参数：" + arg + "，格式应为 --name=value");
+            }
+            options.put(StrUtil.subBetween(arg, "--", "="), StrUtil.subAfter(arg, "=", false));
+        }
+
+        BatchRenderer renderer = new BatchRenderer()
+                .setTemplate(FileUtil.file(options.get("template")))
+                .setInput(FileUtil.file(options.get("input")))
+                .setOutput(FileUtil.file(options.get("output")))
+                .setNameField(options.get("name-field"));
+        if (options.containsKey("entity")) {
+            Class<?> type = ClassUtil.loadClass(options.get("entity"));
+            if (!TemplateInterface.class.isAssignableFrom(type)) {
+                throw new IllegalArgumentException("实体类型未实现 TemplateInterface：" + type.getName());
+            }
+            renderer.setEntityType((Class<? extends TemplateInterface>) type);
+        }
+        if (options.containsKey("schema")) {
+            renderer.setSchema(PlaceholderSchema.load(FileUtil.file(options.get("schema"))));
+        }
+        if (options.containsKey("format")) {
+            renderer.setFormat(DocumentFormat.fromExtension(options.get("format")));
+        }
+        if (options.containsKey("threads")) {
+            renderer.setThreads(Integer.parseInt(options.get("threads")));
+        }
+        if (options.containsKey("timeout")) {
+            renderer.setTimeout(Duration.ofMillis(Long.parseLong(options.get("timeout"))));
+        }
+        if (options.containsKey("profile")) {
+            renderer.setProfile(OutputProfile.valueOf(options.get("profile").toUpperCase()));
+        }
+
+        System.exit(renderer.run() > 0 ? 1 : 0);
+    }
+}
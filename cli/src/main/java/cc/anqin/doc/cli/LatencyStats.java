@@ -0,0 +1,63 @@
+package cc.anqin.doc.cli;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延迟统计
+ * <p>
+ * 记录每条记录的渲染耗时（纳秒），结束后计算吞吐量与百分位。样本按需扩容保存在数组中，
+ * 百万级记录也只占用数MB内存，百分位按排序后取最近秩计算，结果精确。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+final class LatencyStats {
+
+    /** 耗时样本 */
+    private long[] samples = new long[1024];
+
+    /** 样本数 */
+    private int count;
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时纳秒
+     */
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    /**
+     * 生成报告
+     *
+     * @param wallNanos 批次总耗时纳秒
+     * @param failed    失败记录数
+     * @return 多行文本报告
+     */
+    synchronized String report(long wallNanos, int failed) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        double seconds = wallNanos / 1_000_000_000d;
+        StringBuilder report = new StringBuilder()
+                .append(String.format("记录数: %d，失败: %d，总耗时: %.2f s，吞吐量: %.2f 份/s%n",
+                        count + failed, failed, seconds, seconds == 0 ? 0 : count / seconds));
+        if (count > 0) {
+            report.append(String.format("延迟(ms) p50: %d  p90: %d  p95: %d  p99: %d  max: %d  mean: %d",
+                    millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.95), millis(sorted, 0.99),
+                    TimeUnit.NANOSECONDS.toMillis(sorted[count - 1]),
+                    TimeUnit.NANOSECONDS.toMillis(Arrays.stream(sorted).sum() / count)));
+        }
+        return report.toString();
+    }
+
+    private static long millis(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(rank, 0)]);
+    }
+}
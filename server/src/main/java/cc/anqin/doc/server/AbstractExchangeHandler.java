@@ -0,0 +1,282 @@
+package cc.anqin.doc.server;
+
+import cc.anqin.doc.concurrent.Deadline;
+import cc.anqin.doc.concurrent.RenderExecutor;
+import cc.anqin.doc.convert.DocumentFormat;
+import cc.anqin.doc.convert.OutputProfile;
+import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.ex.RenderTimeoutException;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.net.url.UrlQuery;
+import cn.hutool.core.util.CharsetUtil;
+import cn.hutool.core.util.StrUtil;
+import com.aspose.words.Document;
+import com.aspose.words.SaveOptions;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 请求处理基类
+ * <p>
+ * 统一处理过载拒绝、请求方法校验、请求体上限、超时执行与异常到状态码的映射：
+ * <ul>
+ *   <li>{@link IllegalArgumentException} - 400</li>
+ *   <li>{@link RenderTimeoutException} - 504</li>
+ *   <li>渲染队列已满 - 503</li>
+ *   <li>其它异常 - 500</li>
+ * </ul>
+ * 响应头已经发出后（已开始流式写出）再发生异常时只能结束响应并记录日志，客户端收到的内容不完整。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see RenderServer 内嵌渲染服务
+ */
+@Slf4j
+abstract class AbstractExchangeHandler implements HttpHandler {
+
+    /** 当前请求是否因线程池占满而在接收线程上执行 */
+    private static final ThreadLocal<Boolean> REJECTED = new ThreadLocal<>();
+
+    /** 所属服务 */
+    protected final RenderServer server;
+
+    protected AbstractExchangeHandler(RenderServer server) {
+        this.server = server;
+    }
+
+    /**
+     * 在接收线程上执行被线程池拒绝的请求，处理器直接返回 503
+     *
+     * @param command 请求任务
+     */
+    static void rejected(Runnable command) {
+        REJECTED.set(Boolean.TRUE);
+        try {
+            command.run();
+        } finally {
+            REJECTED.remove();
+        }
+    }
+
+    @Override
+    public final void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (Boolean.TRUE.equals(REJECTED.get())) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                text(exchange, 503, "服务繁忙，请稍后重试");
+                return;
+            }
+            if (!method().equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", method());
+                text(exchange, 405, "不支持的请求方法：" + exchange.getRequestMethod());
+                return;
+            }
+            long length = StrUtil.isBlank(exchange.getRequestHeaders().getFirst("Content-Length")) ? -1
+                    : Long.parseLong(exchange.getRequestHeaders().getFirst("Content-Length"));
+            if (length > server.getMaxBodyBytes()) {
+                text(exchange, 413, "请求体超过上限：" + server.getMaxBodyBytes() + " 字节");
+                return;
+            }
+            serve(exchange);
+        } catch (Exception e) {
+            fail(exchange, e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 允许的请求方法
+     *
+     * @return {@link String }
+     */
+    protected String method() {
+        return "POST";
+    }
+
+    /**
+     * 处理请求，响应在返回后由基类关闭
+     *
+     * @param exchange 请求
+     * @throws Exception 处理失败，由基类映射为状态码
+     */
+    protected abstract void serve(HttpExchange exchange) throws Exception;
+
+    /**
+     * 在请求超时内执行任务
+     * <p>
+     * 任务会写入响应流，超时后等待已开始的任务退出再返回，避免基类关闭响应后仍有被放弃的任务写入。
+     * </p>
+     *
+     * @param task 任务描述
+     * @param job  任务
+     */
+    protected <R> R withTimeout(String task, Callable<R> job) {
+        return RenderExecutor.callAndJoin(Deadline.after(server.getTimeout()), task, job);
+    }
+
+    /**
+     * 读取查询参数
+     *
+     * @param exchange     请求
+     * @param name         参数名
+     * @param defaultValue 默认值
+     * @return {@link String }
+     */
+    protected static String query(HttpExchange exchange, String name, String defaultValue) {
+        CharSequence value = UrlQuery.of(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8).get(name);
+        return StrUtil.isBlank(value) ? defaultValue : value.toString();
+    }
+
+    /**
+     * 读取目标格式参数 format，默认PDF
+     *
+     * @param exchange 请求
+     * @return {@link DocumentFormat }
+     */
+    protected static DocumentFormat format(HttpExchange exchange) {
+        return DocumentFormat.fromExtension(query(exchange, "format", DocumentFormat.PDF.getExtension()));
+    }
+
+    /**
+     * 读取请求体文本，超过上限时抛出 {@link IllegalArgumentException}
+     *
+     * @param exchange 请求
+     * @return {@link String }
+     */
+    protected String body(HttpExchange exchange) throws IOException {
+        InputStream in = exchange.getRequestBody();
+        byte[] bytes = IoUtil.readBytes(in, (int) Math.min(server.getMaxBodyBytes() + 1, Integer.MAX_VALUE));
+        if (bytes.length > server.getMaxBodyBytes()) {
+            throw new IllegalArgumentException("请求体超过上限：" + server.getMaxBodyBytes() + " 字节");
+        }
+        return new String(bytes, CharsetUtil.CHARSET_UTF_8);
+    }
+
+    /**
+     * 以分块传输把文档直接保存到响应流
+     *
+     * @param exchange 请求
+     * @param doc      文档
+     * @param format   目标格式
+     * @param name     下载文件名（不含扩展名）
+     */
+    protected static void stream(HttpExchange exchange, Document doc, DocumentFormat format, String name) throws Exception {
+        exchange.getResponseHeaders().set("Content-Type",
+                StrUtil.blankToDefault(FileUtil.getMimeType("x" + format.getExtensionWithDot()), "application/octet-stream"));
+        exchange.getResponseHeaders().set("Content-Disposition", contentDisposition(name + format.getExtensionWithDot()));
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            SaveOptions options = OutputProfile.DEFAULT.saveOptions(format);
+            if (options == null) {
+                doc.save(out, format.getValue());
+            } else {
+                doc.save(out, options);
+            }
+        }
+    }
+
+    /**
+     * 生成附件下载的 Content-Disposition
+     * <p>
+     * 文件名来自请求参数或路径，先去除路径分隔符、引号、控制字符等不能出现在文件名或响应头中的字符；
+     * filename 只保留 ASCII 字符，完整的文件名按 RFC 5987 以 UTF-8 编码放入 filename*。
+     * </p>
+     *
+     * @param fileName 文件名
+     * @return 响应头的值
+     */
+    static String contentDisposition(String fileName) {
+        StringBuilder cleaned = new StringBuilder();
+        for (char c : FileUtil.cleanInvalid(StrUtil.nullToEmpty(fileName)).toCharArray()) {
+            if (!Character.isISOControl(c) && c != '"' && c != ';' && c != '\\') {
+                cleaned.append(c);
+            }
+        }
+        String name = StrUtil.blankToDefault(cleaned.toString().trim(), "download");
+
+        StringBuilder ascii = new StringBuilder();
+        for (char c : name.toCharArray()) {
+            ascii.append(c < 0x80 ? c : '_');
+        }
+        StringBuilder encoded = new StringBuilder();
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || "!#$&+-.^_`|~".indexOf(c) >= 0) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return "attachment; filename=\"" + ascii + "\"; filename*=UTF-8''" + encoded;
+    }
+
+    /**
+     * 返回文本响应
+     *
+     * @param exchange 请求
+     * @param status   状态码
+     * @param message  文本
+     */
+    protected static void text(HttpExchange exchange, int status, String message) throws IOException {
+        respond(exchange, status, "text/plain; charset=UTF-8", message);
+    }
+
+    /**
+     * 返回JSON响应
+     *
+     * @param exchange 请求
+     * @param json     JSON文本
+     */
+    protected static void json(HttpExchange exchange, String json) throws IOException {
+        respond(exchange, 200, "application/json; charset=UTF-8", json);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(CharsetUtil.CHARSET_UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void fail(HttpExchange exchange, Exception e) {
+        if (exchange.getResponseCode() != -1) {
+            // 已开始写出响应，无法再修改状态码
+            log.warn("请求处理失败，响应已不完整：{}", exchange.getRequestURI(), e);
+            return;
+        }
+        int status;
+        if (e instanceof IllegalArgumentException) {
+            status = 400;
+        } else if (e instanceof RenderTimeoutException) {
+            status = 504;
+        } else if (e instanceof DocumentException && e.getCause() instanceof RejectedExecutionException) {
+            status = 503;
+        } else {
+            status = 500;
+        }
+        if (status == 500) {
+            log.error("请求处理失败：{}", exchange.getRequestURI(), e);
+        } else {
+            log.warn("请求处理失败：{}，{}", exchange.getRequestURI(), e.getMessage());
+        }
+        try {
+            text(exchange, status, StrUtil.blankToDefault(e.getMessage(), e.getClass().getSimpleName()));
+        } catch (IOException ignored) {
+            // 客户端已断开
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package cc.anqin.doc.server;
+
+import cc.anqin.doc.concurrent.Deadline;
+import cc.anqin.doc.convert.AbstractFileConverter;
+import cc.anqin.doc.convert.DocumentFormat;
+import cn.hutool.core.io.resource.ClassPathResource;
+import cn.hutool.core.util.StrUtil;
+import com.aspose.words.Document;
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * 文档转换处理器
+ * <p>
+ * POST /convert?format=pdf&amp;name=文件名，请求体为文档内容，源格式由 Aspose 自动识别。
+ * 请求体直接从连接读取加载，转换结果直接保存到响应流，输入与输出都不落临时文件。
+ * 请求体大小由 Content-Length 校验，因此不接受未声明长度的分块上传。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+class ConvertHandler extends AbstractExchangeHandler {
+
+    ConvertHandler(RenderServer server) {
+        super(server);
+    }
+
+    @Override
+    protected void serve(HttpExchange exchange) throws Exception {
+        if (StrUtil.isBlank(exchange.getRequestHeaders().getFirst("Content-Length"))) {
+            text(exchange, 411, "请求需要声明 Content-Length");
+            return;
+        }
+        DocumentFormat format = format(exchange);
+        String name = query(exchange, "name", "converted");
+
+        withTimeout("HTTP转换 " + name, () -> {
+            Document doc = new Document(exchange.getRequestBody());
+            Deadline.current().checkpoint("加载文档 " + name);
+            doc.setFontSettings(AbstractFileConverter.fontSettings(new ClassPathResource("fonts/truetype").getAbsolutePath()));
+            stream(exchange, doc, format, name);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package cc.anqin.doc.server;
+
+import cc.anqin.doc.convert.AbstractFileConverter;
+import cc.anqin.doc.convert.DocumentFormat;
+import cc.anqin.doc.entity.MapEntity;
+import cc.anqin.doc.entity.TemplateInterface;
+import cc.anqin.doc.word.PlaceholderFactory;
+import cc.anqin.doc.word.TemplateCache;
+import cc.anqin.doc.word.schema.PlaceholderSchema;
+import cn.hutool.core.io.resource.ClassPathResource;
+import cn.hutool.json.JSONConfig;
+import cn.hutool.json.JSONException;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.aspose.words.ConvertUtil;
+import com.aspose.words.Document;
+import com.aspose.words.PageSetup;
+import com.aspose.words.Section;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.File;
+
+/**
+ * 模板渲染处理器
+ * <p>
+ * POST /render/{模板名}?format=pdf，请求体为实体JSON。实体按模板对应的实体类型绑定，
+ * 模板没有实体类型而有占位符声明时，请求体直接作为 {@link MapEntity} 的数据；
+ * 从模板缓存取得已编译模板的拷贝，在内存中填充后按实体的转换宽高设置页面尺寸，直接保存到响应流。
+ * 填充与保存都在请求超时内执行。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see PlaceholderFactory#fillDocument(TemplateInterface, cc.anqin.doc.word.CompiledTemplate) 基于已编译模板填充
+ */
+class RenderHandler extends AbstractExchangeHandler {
+
+    /** 路径前缀 */
+    private static final String PREFIX = "/render/";
+
+    RenderHandler(RenderServer server) {
+        super(server);
+    }
+
+    @Override
+    protected void serve(HttpExchange exchange) throws Exception {
+        String name = exchange.getRequestURI().getPath().substring(PREFIX.length());
+        File template = server.getTemplates().get(name);
+        if (template == null) {
+            text(exchange, 404, "模板不存在：" + name);
+            return;
+        }
+        Class<? extends TemplateInterface> type = server.getEntityTypes().get(name);
+        PlaceholderSchema schema = server.getSchemas().get(name);
+        if (type == null && schema == null) {
+            text(exchange, 404, "模板未声明实体类型或占位符声明：" + name);
+            return;
+        }
+        DocumentFormat format = format(exchange);
+        TemplateInterface entity;
+        try {
+            JSONObject object = JSONUtil.parseObj(body(exchange), JSONConfig.create().setIgnoreNullValue(true));
+            entity = type == null ? MapEntity.of(object, schema) : object.toBean(type);
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("请求体不是有效的实体JSON：" + e.getMessage(), e);
+        }
+
+        withTimeout("HTTP渲染 " + name, () -> {
+            Document doc = PlaceholderFactory.fillDocument(entity, TemplateCache.shared().get(template));
+            doc.setFontSettings(AbstractFileConverter.fontSettings(new ClassPathResource("fonts/truetype").getAbsolutePath()));
+            for (Section section : doc.getSections()) {
+                PageSetup pageSetup = section.getPageSetup();
+                pageSetup.setPageWidth(ConvertUtil.millimeterToPoint(entity.getConvertWidth()));
+                pageSetup.setPageHeight(ConvertUtil.millimeterToPoint(entity.getConvertHeight()));
+            }
+            stream(exchange, doc, format, name);
+            return null;
+        });
+    }
+}
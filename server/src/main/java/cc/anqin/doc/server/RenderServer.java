@@ -0,0 +1,323 @@
+package cc.anqin.doc.server;
+
+import cc.anqin.doc.Warmup;
+import cc.anqin.doc.WarmupReport;
+import cc.anqin.doc.entity.TemplateInterface;
+import cc.anqin.doc.word.TemplateCache;
+import cc.anqin.doc.word.TemplateReloadEvent;
+import cc.anqin.doc.word.TemplateWatcher;
+import cc.anqin.doc.word.schema.PlaceholderSchema;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.thread.ExecutorBuilder;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.ClassUtil;
+import cn.hutool.core.util.NumberUtil;
+import com.sun.net.httpserver.HttpServer;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 内嵌渲染HTTP服务
+ * <p>
+ * 基于 JDK 自带的 {@link HttpServer}，不依赖任何外部服务，可直接在本地启动验证。
+ * 启动时通过 {@link Warmup} 把模板目录预编译到 {@link TemplateCache}，并完成字体扫描、试渲染与试转换，
+ * 首个请求不再承担模板解析、字体扫描与类加载的开销。
+ * </p>
+ * <p>
+ * 接口：
+ * <ul>
+ *   <li>POST /render/{模板名}?format=pdf - 请求体为实体JSON，填充模板后直接写入响应流</li>
+ *   <li>POST /convert?format=pdf - 请求体为文档内容，转换后直接写入响应流</li>
+ *   <li>GET /templates - 已加载的模板与实体类型</li>
+ *   <li>GET /health - 健康检查与模板缓存统计</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 资源控制：
+ * <ul>
+ *   <li>有界工作线程池 - 线程与等待队列都占满时直接返回 503，不在接收线程中排队</li>
+ *   <li>请求超时 - 每个请求按超时时长创建截止时间，经 {@link cc.anqin.doc.concurrent.RenderExecutor} 执行，超时返回 504</li>
+ *   <li>流式响应 - 渲染与转换结果直接保存到响应流（分块传输），不产生输出临时文件</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 模板名为模板文件去掉扩展名后的名称。模板对应的实体类型在模板目录下的 entities.properties 中声明，
+ * 也可以通过 {@link #register(String, Class)} 注册：
+ * <pre>
+ * invoice=com.acme.doc.InvoiceTemplate
+ * contract=com.acme.doc.ContractTemplate
+ * </pre>
+ * 没有实体类的模板可以在模板旁放置占位符声明 {模板名}.schema.properties（格式见 {@link PlaceholderSchema}），
+ * 请求体JSON直接作为 Map 实体渲染。
+ * </p>
+ * <p>
+ * 配置（系统属性）：
+ * <pre>
+ * -Dsmart.doc.server.port=8080              // 监听端口，默认8080
+ * -Dsmart.doc.server.templates=/data/tpl    // 模板目录
+ * -Dsmart.doc.server.workers=8              // 工作线程数，默认CPU核数
+ * -Dsmart.doc.server.queue=64               // 等待队列长度，默认64
+ * -Dsmart.doc.server.timeout=30000          // 请求超时毫秒数，默认30000
+ * -Dsmart.doc.server.max.body=52428800      // 请求体上限字节数，默认50MB
+ * -Dsmart.doc.server.watch=true             // 监听模板目录，修改后的模板在后台重新编译，默认false
+ * </pre>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * RenderServer server = RenderServer.fromSystemProperties()
+ *         .register("invoice", InvoiceTemplate.class)
+ *         .start();
+ *
+ * // curl -X POST -d '{"name":"张三"}' -o invoice.pdf http://localhost:8080/render/invoice?format=pdf
+ * // curl -X POST --data-binary @a.docx -o a.pdf http://localhost:8080/convert?format=pdf
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see TemplateCache 模板缓存
+ */
+@Slf4j
+@Data
+@Accessors(chain = true)
+public class RenderServer {
+
+    /** 实体类型声明文件名 */
+    private static final String ENTITIES_FILE = "entities.properties";
+
+    /** 占位符声明文件后缀 */
+    private static final String SCHEMA_SUFFIX = ".schema.properties";
+
+    /** 监听端口 */
+    private int port = NumberUtil.parseInt(System.getProperty("smart.doc.server.port"), 8080);
+
+    /** 模板目录 */
+    private File templateDirectory;
+
+    /** 工作线程数 */
+    private int workers = NumberUtil.parseInt(System.getProperty("smart.doc.server.workers"),
+            Runtime.getRuntime().availableProcessors());
+
+    /** 等待队列长度 */
+    private int queueSize = NumberUtil.parseInt(System.getProperty("smart.doc.server.queue"), 64);
+
+    /** 请求超时 */
+    private Duration timeout = Duration.ofMillis(NumberUtil.parseLong(System.getProperty("smart.doc.server.timeout"), 30000L));
+
+    /** 请求体上限字节数 */
+    private long maxBodyBytes = NumberUtil.parseLong(System.getProperty("smart.doc.server.max.body"), 50L * 1024 * 1024);
+
+    /** 是否监听模板目录 */
+    private boolean watch = Boolean.getBoolean("smart.doc.server.watch");
+
+    /** 模板名 -> 模板文件 */
+    private final Map<String, File> templates = new ConcurrentHashMap<>();
+
+    /** 模板名 -> 实体类型 */
+    private final Map<String, Class<? extends TemplateInterface>> entityTypes = new ConcurrentHashMap<>();
+
+    /** 模板名 -> 占位符声明，用于没有实体类型的模板 */
+    private final Map<String, PlaceholderSchema> schemas = new ConcurrentHashMap<>();
+
+    /** HTTP服务 */
+    @Setter(AccessLevel.NONE)
+    private HttpServer server;
+
+    /** 工作线程池 */
+    @Setter(AccessLevel.NONE)
+    private ThreadPoolExecutor pool;
+
+    /** 启动预热报告，未配置模板目录时为null */
+    @Setter(AccessLevel.NONE)
+    private WarmupReport warmup;
+
+    /** 模板监听器，未开启监听时为null */
+    @Setter(AccessLevel.NONE)
+    private TemplateWatcher watcher;
+
+    /**
+     * 按系统属性创建服务
+     *
+     * @return {@link RenderServer }
+     */
+    public static RenderServer fromSystemProperties() {
+        String directory = System.getProperty("smart.doc.server.templates");
+        return new RenderServer().setTemplateDirectory(directory == null ? null : new File(directory));
+    }
+
+    /**
+     * 注册模板对应的实体类型
+     *
+     * @param template   模板名（模板文件名去掉扩展名）
+     * @param entityType 实体类型
+     * @return {@link RenderServer }
+     */
+    public RenderServer register(String template, Class<? extends TemplateInterface> entityType) {
+        entityTypes.put(template, entityType);
+        return this;
+    }
+
+    /**
+     * 预加载模板并启动服务
+     *
+     * @return {@link RenderServer }
+     * @throws Exception 端口绑定失败
+     */
+    public RenderServer start() throws Exception {
+        if (templateDirectory != null) {
+            preload();
+            if (watch) {
+                watcher = TemplateWatcher.of(TemplateCache.shared())
+                        .watch(templateDirectory)
+                        .addListener(this::onTemplateChanged)
+                        .start();
+            }
+        }
+
+        pool = (ThreadPoolExecutor) ExecutorBuilder.create()
+                .setCorePoolSize(workers)
+                .setMaxPoolSize(workers)
+                .setWorkQueue(new LinkedBlockingQueue<>(queueSize))
+                .setThreadFactory(new NamedThreadFactory("smart-doc-http-", true))
+                .setHandler(new ThreadPoolExecutor.AbortPolicy())
+                .build();
+
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/render/", new RenderHandler(this));
+        server.createContext("/convert", new ConvertHandler(this));
+        server.createContext("/templates", new StatusHandler(this, true));
+        server.createContext("/health", new StatusHandler(this, false));
+        server.setExecutor(command -> {
+            try {
+                pool.execute(command);
+            } catch (RejectedExecutionException e) {
+                // 线程与队列都已占满，在接收线程上直接返回 503
+                AbstractExchangeHandler.rejected(command);
+            }
+        });
+        server.start();
+        log.info("渲染服务已启动，端口：{}，工作线程：{}，等待队列：{}，超时：{} ms",
+                port, workers, queueSize, timeout.toMillis());
+        return this;
+    }
+
+    /**
+     * 停止服务，等待进行中的请求最多 delaySeconds 秒
+     *
+     * @param delaySeconds 等待秒数
+     */
+    public void stop(int delaySeconds) {
+        if (watcher != null) {
+            watcher.close();
+        }
+        if (server != null) {
+            server.stop(delaySeconds);
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+        log.info("渲染服务已停止");
+    }
+
+    /**
+     * 已加载的模板，按名称排序
+     *
+     * @return 模板名 -> 模板文件
+     */
+    public Map<String, File> getTemplates() {
+        return Collections.unmodifiableMap(new TreeMap<>(templates));
+    }
+
+    /**
+     * 读取实体类型声明，预热（编译模板目录、加载字体、试渲染与试转换），并读取占位符声明
+     */
+    private void preload() {
+        loadEntityTypes();
+        warmup = Warmup.of(templateDirectory).run();
+        for (File template : warmup.getTemplates()) {
+            String name = FileUtil.mainName(template);
+            templates.put(name, template);
+            File schema = new File(templateDirectory, name + SCHEMA_SUFFIX);
+            if (schema.isFile()) {
+                schemas.put(name, PlaceholderSchema.load(schema));
+            }
+        }
+    }
+
+    /**
+     * 模板新增、修改或删除后同步模板名与占位符声明
+     */
+    private void onTemplateChanged(TemplateReloadEvent event) {
+        String name = FileUtil.mainName(event.getFile());
+        if (event.getType() == TemplateReloadEvent.Type.REMOVED) {
+            templates.remove(name);
+            schemas.remove(name);
+        } else if (event.getType() == TemplateReloadEvent.Type.RELOADED) {
+            templates.put(name, event.getFile());
+            File schema = new File(templateDirectory, name + SCHEMA_SUFFIX);
+            if (schema.isFile()) {
+                schemas.put(name, PlaceholderSchema.load(schema));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadEntityTypes() {
+        File declared = new File(templateDirectory, ENTITIES_FILE);
+        if (!declared.isFile()) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = FileUtil.getInputStream(declared)) {
+            properties.load(in);
+        } catch (Exception e) {
+            throw new IllegalStateException("读取实体类型声明失败：" + declared.getAbsolutePath(), e);
+        }
+        for (String template : properties.stringPropertyNames()) {
+            String className = properties.getProperty(template).trim();
+            Class<?> type = ClassUtil.loadClass(className);
+            if (!TemplateInterface.class.isAssignableFrom(type)) {
+                throw new IllegalStateException("实体类型未实现 TemplateInterface：" + className);
+            }
+            entityTypes.putIfAbsent(template, (Class<? extends TemplateInterface>) type);
+        }
+    }
+
+    /**
+     * 本地启动入口
+     * <p>
+     * 参数依次为模板目录与端口，均可省略，省略时使用系统属性。
+     * </p>
+     *
+     * @param args 参数
+     * @throws Exception 启动失败
+     */
+    public static void main(String[] args) throws Exception {
+        RenderServer server = fromSystemProperties();
+        if (args.length > 0) {
+            server.setTemplateDirectory(new File(args[0]));
+        }
+        if (args.length > 1) {
+            server.setPort(Integer.parseInt(args[1]));
+        }
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(5), "smart-doc-http-shutdown"));
+    }
+}
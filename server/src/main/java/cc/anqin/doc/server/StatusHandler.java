@@ -0,0 +1,63 @@
+package cc.anqin.doc.server;
+
+import cc.anqin.doc.word.TemplateCache;
+import cn.hutool.json.JSONObject;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Collectors;
+
+/**
+ * 状态处理器
+ * <p>
+ * GET /health 返回服务状态、工作线程池、模板缓存统计与启动预热耗时；GET /templates 返回已加载的模板及其实体类型。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+class StatusHandler extends AbstractExchangeHandler {
+
+    /** 是否返回模板列表 */
+    private final boolean templates;
+
+    StatusHandler(RenderServer server, boolean templates) {
+        super(server);
+        this.templates = templates;
+    }
+
+    @Override
+    protected String method() {
+        return "GET";
+    }
+
+    @Override
+    protected void serve(HttpExchange exchange) throws Exception {
+        JSONObject json = new JSONObject(true);
+        if (templates) {
+            server.getTemplates().forEach((name, file) -> {
+                Class<?> type = server.getEntityTypes().get(name);
+                json.set(name, type == null ? "" : type.getName());
+            });
+        } else {
+            ThreadPoolExecutor pool = server.getPool();
+            TemplateCache cache = TemplateCache.shared();
+            json.set("status", "UP")
+                    .set("templates", server.getTemplates().size())
+                    .set("activeWorkers", pool.getActiveCount())
+                    .set("queued", pool.getQueue().size())
+                    .set("cacheSize", cache.size())
+                    .set("cacheHits", cache.hitCount())
+                    .set("cacheMisses", cache.missCount());
+            if (server.getWarmup() != null) {
+                json.set("warmupMillis", server.getWarmup().getTotalMillis())
+                        .set("warmupFailures", server.getWarmup().getFailures());
+            }
+            if (server.getWatcher() != null) {
+                json.set("templateReloads", server.getWatcher().getRecentEvents().stream()
+                        .map(String::valueOf).collect(Collectors.toList()));
+            }
+        }
+        json(exchange, json.toString());
+    }
+}
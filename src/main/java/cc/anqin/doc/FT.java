@@ -1,11 +1,17 @@
 package cc.anqin.doc;
 
+import cc.anqin.doc.concurrent.RenderExecutor;
 import cc.anqin.doc.convert.AbstractFileConverter;
 import cc.anqin.doc.convert.CF;
 import cc.anqin.doc.convert.DocumentFormat;
+import cc.anqin.doc.convert.OutputProfile;
 import cc.anqin.doc.entity.TemplateInterface;
+import cc.anqin.doc.metrics.RenderTrace;
+import cc.anqin.doc.metrics.ResourceMeter;
+import cc.anqin.doc.metrics.ResourceUsage;
 import cc.anqin.doc.utils.FileUtils;
 import cc.anqin.doc.utils.Pair;
+import cc.anqin.doc.word.MergeRenderer;
 import cc.anqin.doc.word.PlaceholderFactory;
 import cc.anqin.doc.word.annotation.Placeholder;
 import lombok.AccessLevel;
@@ -15,9 +21,14 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import java.io.File;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * 模板填充工具类 - 用于处理Aspose模板填充操作
@@ -92,6 +103,67 @@ public class FT<T extends TemplateInterface> {
      */
     private DocumentFormat generateFileType;
 
+    /**
+     * 输出配置档位 - 控制生成文件与转换文件的字体嵌入、图片压缩、渲染质量等
+     * <p>
+     * 为null时生成文件使用Aspose默认保存参数，转换使用转换器默认档位，与历史行为一致。
+     * </p>
+     *
+     * @see OutputProfile 输出配置档位
+     */
+    private OutputProfile profile;
+
+    /**
+     * 超时时间 - 模板填充与每次格式转换各自允许的最长时间
+     * <p>
+     * 为null时不限时，与历史行为一致。设置后超时的填充或转换会抛出
+     * {@link cc.anqin.doc.ex.RenderTimeoutException}，执行中的任务会被中断并在下一个检查点停止。
+     * </p>
+     *
+     * @see RenderExecutor 渲染执行器
+     */
+    private Duration timeout;
+
+    /**
+     * 是否追踪 - 控制本次渲染是否生成追踪报告
+     * <p>
+     * 为true时总是追踪，为false时从不追踪，为null时按系统属性 smart.doc.trace.sample 的比例抽样（默认不追踪）。
+     * </p>
+     *
+     * @see RenderTrace#sample(String, Boolean) 抽样规则
+     */
+    private Boolean traced;
+
+    /**
+     * 追踪报告 - 本次渲染的追踪结果
+     * <p>
+     * 执行 {@link #fer()} 时生成，未追踪时为null。之后通过本实例进行的格式转换会追加到同一份报告中。
+     * </p>
+     *
+     * @see RenderTrace 渲染追踪
+     */
+    private RenderTrace trace;
+
+    /**
+     * 资源消耗 - 本次渲染分配的堆内存字节数与CPU时间
+     * <p>
+     * 执行 {@link #fer()} 时记录模板填充的消耗（包括并行填充器线程），之后通过本实例进行的格式转换累加到其中。
+     * 可以作为并发渲染时按内存预算控制并发的依据。
+     * </p>
+     *
+     * @see ResourceUsage 资源消耗
+     */
+    private ResourceUsage usage;
+
+    /**
+     * 是否跳过记录 - 为true时 {@link #fer()} 不生成记录文件
+     * <p>
+     * 记录文件保留所有占位符替换后、清除未填充占位符前的内容，用于调试或再次填充。不需要时跳过可以省去一次DOCX保存，
+     * 跳过后 {@link #getRecordFile()} 为null。写入输出流的 {@link #fer(OutputStream)} 只在传入记录输出流时生成记录。
+     * </p>
+     */
+    private boolean skipRecord;
+
 
     /**
      * 创建FT实例（基础版）
@@ -160,6 +232,23 @@ public class FT<T extends TemplateInterface> {
                 .setGenerateFileType(generateFileType);
     }
 
+    /**
+     * 合并渲染（邮件合并）
+     * <p>
+     * 用同一个模板依次填充所有实体，以分节符合并为一个文档，输出到临时文件。
+     * 需要分块输出、写入输出流或调整分块大小时直接使用 {@link MergeRenderer}。
+     * </p>
+     *
+     * @param entities 实体，按迭代顺序合并
+     * @param templateFile 模板文件
+     * @param format 输出格式，如DOCX、PDF
+     * @return 合并后的文件
+     * @see MergeRenderer 合并渲染器
+     */
+    public static <T extends TemplateInterface> File merge(Iterable<T> entities, File templateFile, DocumentFormat format) {
+        return MergeRenderer.of(templateFile).setFormat(format).toFile(entities, FileUtils.getTemporaryFile(format));
+    }
+
     /**
      * 执行模板填充操作
      * <p>
@@ -175,12 +264,88 @@ public class FT<T extends TemplateInterface> {
      * @throws RuntimeException 如果模板填充过程中发生错误
      */
     public FT<T> fer() {
-        Pair<File, File> execute = execute();
+        RenderTrace sampled = RenderTrace.sample(templateFile.getName(), traced);
+        this.trace = sampled.isEnabled() ? sampled : null;
+        Pair<File, File> execute = RenderExecutor.call(timeout, "模板填充 " + templateFile.getName(), () -> {
+            ResourceMeter meter = ResourceMeter.start();
+            try {
+                return sampled.within(this::execute);
+            } finally {
+                this.usage = meter.stop();
+            }
+        });
         this.recordFile = execute.getKey();    // 设置记录文件
         this.currentFile = execute.getValue(); // 设置当前文件
         return this;
     }
 
+    /**
+     * 执行模板填充并写入输出流
+     * <p>
+     * 按生成文件类型（未设置时与模板相同）直接保存到输出流，不生成记录文件和当前文件，
+     * 适用于直接写入HTTP响应或对象存储分片上传。输出流由调用方负责关闭。
+     * </p>
+     * <p>
+     * 使用示例：
+     * <pre>
+     * try (OutputStream out = response.getOutputStream()) {
+     *     FT.of(entity, templateFile, DocumentFormat.PDF).fer(out);
+     * }
+     * </pre>
+     * </p>
+     *
+     * @param out 文档输出流
+     * @return 当前FT实例（支持链式调用）
+     * @throws cc.anqin.doc.ex.DocumentException 填充或保存失败
+     */
+    public FT<T> fer(OutputStream out) {
+        return fer(null, out);
+    }
+
+    /**
+     * 执行模板填充并写入通道
+     *
+     * @param channel 文档输出通道，由调用方负责关闭
+     * @return 当前FT实例（支持链式调用）
+     * @throws cc.anqin.doc.ex.DocumentException 填充或保存失败
+     * @see #fer(OutputStream)
+     */
+    public FT<T> fer(WritableByteChannel channel) {
+        return fer(null, Channels.newOutputStream(channel));
+    }
+
+    /**
+     * 执行模板填充，记录与文档分别写入输出流
+     * <p>
+     * 设置了超时时，超时后等待已开始的保存真正结束才抛出 {@link cc.anqin.doc.ex.RenderTimeoutException}，
+     * 调用方随后关闭或复用输出流是安全的；因此实际等待时长可能超过超时时间。
+     * </p>
+     *
+     * @param record 记录（DOCX）输出流，为null时不生成记录
+     * @param out    文档输出流
+     * @return 当前FT实例（支持链式调用）
+     * @throws cc.anqin.doc.ex.DocumentException 填充或保存失败
+     * @see #fer(OutputStream)
+     */
+    public FT<T> fer(OutputStream record, OutputStream out) {
+        DocumentFormat type = generateFileType == null ? DocumentFormat.fromFile(templateFile) : generateFileType;
+        RenderTrace sampled = RenderTrace.sample(templateFile.getName(), traced);
+        this.trace = sampled.isEnabled() ? sampled : null;
+        // 输出流属于调用方，超时后等待写入真正停止再返回
+        RenderExecutor.callAndJoin(timeout, "模板填充 " + templateFile.getName(), () -> {
+            ResourceMeter meter = ResourceMeter.start();
+            try {
+                return sampled.within(() -> {
+                    PlaceholderFactory.fillTemplate(entity, templateFile, record, out, type, profile);
+                    return null;
+                });
+            } finally {
+                this.usage = meter.stop();
+            }
+        });
+        return this;
+    }
+
     /**
      * 将当前文件转换为指定格式
      * <p>
@@ -194,7 +359,7 @@ public class FT<T extends TemplateInterface> {
      * @throws RuntimeException 如果文件转换过程中发生错误
      */
     public File deleteConvert(DocumentFormat fileType) {
-        File file = CF.create(currentFile).toFile(fileType);
+        File file = convert(CF.create(currentFile).setProfile(profile), cf -> cf.toFile(fileType));
         FileUtils.deleteFileSafely(currentFile);
         return currentFile = file;
     }
@@ -213,7 +378,7 @@ public class FT<T extends TemplateInterface> {
      * @throws RuntimeException 如果文件转换过程中发生错误
      */
     public <C extends AbstractFileConverter> File deleteConvert(C converter) {
-        File file = CF.create(currentFile).toFile(converter);
+        File file = convert(CF.create(currentFile), cf -> cf.toFile(converter));
         FileUtils.deleteFileSafely(currentFile);
         return currentFile = file;
     }
@@ -231,7 +396,7 @@ public class FT<T extends TemplateInterface> {
      * @throws RuntimeException 如果文件转换过程中发生错误
      */
     public File convertNewFile(DocumentFormat fileType) {
-        return CF.create(currentFile).toFile(fileType);
+        return convert(CF.create(currentFile).setProfile(profile), cf -> cf.toFile(fileType));
     }
 
     /**
@@ -248,7 +413,7 @@ public class FT<T extends TemplateInterface> {
      * @throws RuntimeException 如果文件转换过程中发生错误
      */
     public <C extends AbstractFileConverter> File convertNewFile(C converter) {
-        return CF.create(currentFile).toFile(converter);
+        return convert(CF.create(currentFile), cf -> cf.toFile(converter));
     }
 
     /**
@@ -266,7 +431,7 @@ public class FT<T extends TemplateInterface> {
      * @throws RuntimeException 如果文件转换过程中发生错误
      */
     public File deleteConvert(DocumentFormat fileType, int width, int height) {
-        File file = CF.create(currentFile, width, height).toFile(fileType);
+        File file = convert(CF.create(currentFile, width, height).setProfile(profile), cf -> cf.toFile(fileType));
         FileUtils.deleteFileSafely(currentFile);
         return currentFile = file;
     }
@@ -297,6 +462,22 @@ public class FT<T extends TemplateInterface> {
     }
 
 
+    /**
+     * 按本实例的超时与追踪设置执行转换，并累加转换的资源消耗
+     *
+     * @param cf     转换工具
+     * @param action 转换操作
+     * @return 转换后的文件对象
+     */
+    private File convert(CF cf, Function<CF, File> action) {
+        cf.setTimeout(timeout).setTrace(trace);
+        try {
+            return action.apply(cf);
+        } finally {
+            usage = ResourceUsage.sum(usage, cf.getUsage());
+        }
+    }
+
     /**
      * 执行模板填充核心逻辑
      * <p>
@@ -317,9 +498,14 @@ public class FT<T extends TemplateInterface> {
             if (generateFileType == null) {
                 generateFileType = DocumentFormat.fromFile(templateFile);
             }
-            return PlaceholderFactory.fillTemplate(entity, templateFile, generateFileType);
+            if (skipRecord) {
+                return PlaceholderFactory.fillTemplate(entity, templateFile, null,
+                        FileUtils.getTemporaryFile(generateFileType), generateFileType, profile);
+            }
+            return PlaceholderFactory.fillTemplate(entity, templateFile, generateFileType, profile);
         }
         // 有指定输出路径时使用带输出路径的填充方式
-        return PlaceholderFactory.fillTemplate(entity, templateFile, recordFile, currentFile, DocumentFormat.fromFile(currentFile));
+        return PlaceholderFactory.fillTemplate(entity, templateFile, skipRecord ? null : recordFile, currentFile,
+                DocumentFormat.fromFile(currentFile), profile);
     }
 }
\ No newline at end of file
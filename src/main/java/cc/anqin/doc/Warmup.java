@@ -0,0 +1,217 @@
+package cc.anqin.doc;
+
+import cc.anqin.doc.convert.AbstractFileConverter;
+import cc.anqin.doc.convert.DocumentFormat;
+import cc.anqin.doc.entity.MapEntity;
+import cc.anqin.doc.entity.TemplateInterface;
+import cc.anqin.doc.utils.FileUtils;
+import cc.anqin.doc.utils.FormatDetector;
+import cc.anqin.doc.word.CompiledTemplate;
+import cc.anqin.doc.word.TemplateCache;
+import cc.anqin.doc.word.schema.PlaceholderSchema;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.resource.ClassPathResource;
+import com.aspose.words.FontSettings;
+import com.aspose.words.FontSourceBase;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 预热
+ * <p>
+ * 部署后的首次渲染要承担 Aspose 类加载、字体目录扫描、Tika 初始化与模板解析，耗时可达数秒。
+ * 预热在启动阶段提前完成这些工作：
+ * <ol>
+ *   <li>编译模板 - 并行解析模板目录下的全部模板并放入 {@link TemplateCache}，每个编译失败的模板各记一项失败</li>
+ *   <li>加载字体 - 创建共享的字体设置并完成字体目录扫描</li>
+ *   <li>初始化类型检测 - 创建共享的 Tika 实例，加载 MIME 类型库</li>
+ *   <li>试渲染 - 用样例实体完整渲染（有样例的模板各一次，没有样例时用空数据渲染第一个模板）</li>
+ *   <li>试转换 - 对试渲染结果按每种目标格式各转换一次，加载对应的排版与保存代码</li>
+ * </ol>
+ * 单个步骤失败只记入报告，不中断预热。报告记录各阶段耗时，可供就绪探针判断与等待。
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * WarmupReport report = Warmup.of(new File("/data/templates"))
+ *         .sample("invoice", sampleInvoice)
+ *         .setFormats(DocumentFormat.PDF, DocumentFormat.PNG)
+ *         .run();
+ * log.info(report.toString());
+ *
+ * // 后台预热，就绪探针检查 future.isDone()
+ * CompletableFuture&lt;WarmupReport&gt; future = Warmup.of(templateDir).runAsync();
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see WarmupReport 预热报告
+ * @see TemplateCache 模板缓存
+ */
+@Slf4j
+@Data
+@Accessors(chain = true)
+public class Warmup {
+
+    /** 模板目录 */
+    private File templateDirectory;
+
+    /** 模板名（文件名去掉扩展名） -> 样例实体 */
+    private Map<String, TemplateInterface> samples = new LinkedHashMap<>();
+
+    /** 试转换的目标格式 */
+    private Set<DocumentFormat> formats = EnumSet.of(DocumentFormat.PDF);
+
+    /** 字体目录，默认为类路径下的 fonts/truetype */
+    private String fontsPath;
+
+    /**
+     * 创建预热
+     *
+     * @param templateDirectory 模板目录
+     * @return {@link Warmup }
+     */
+    public static Warmup of(File templateDirectory) {
+        return new Warmup().setTemplateDirectory(templateDirectory);
+    }
+
+    /**
+     * 添加样例实体
+     *
+     * @param template 模板名（文件名去掉扩展名）
+     * @param entity   样例实体
+     * @return {@link Warmup }
+     */
+    public Warmup sample(String template, TemplateInterface entity) {
+        samples.put(template, entity);
+        return this;
+    }
+
+    /**
+     * 执行预热
+     *
+     * @return {@link WarmupReport }
+     */
+    public WarmupReport run() {
+        WarmupReport report = new WarmupReport();
+        long begin = System.nanoTime();
+
+        List<CompiledTemplate> compiled = Collections.emptyList();
+        long start = System.nanoTime();
+        try {
+            compiled = templateDirectory == null ? compiled : TemplateCache.shared().preload(templateDirectory,
+                    (file, e) -> report.fail("编译模板 " + file.getName(), e));
+            compiled.forEach(template -> report.template(template.getFile()));
+        } catch (RuntimeException e) {
+            report.fail("编译模板", e);
+        }
+        report.phase("编译模板", start);
+
+        start = System.nanoTime();
+        try {
+            String path = fontsPath == null ? new ClassPathResource("fonts/truetype").getAbsolutePath() : fontsPath;
+            FontSettings settings = AbstractFileConverter.fontSettings(path);
+            for (FontSourceBase source : settings.getFontsSources()) {
+                // 字体源在首次排版时才扫描目录，这里提前完成
+                source.getAvailableFonts();
+            }
+        } catch (Exception e) {
+            report.fail("加载字体", e);
+        }
+        report.phase("加载字体", start);
+
+        start = System.nanoTime();
+        try {
+            FormatDetector.init();
+        } catch (Exception e) {
+            report.fail("类型检测", e);
+        }
+        report.phase("类型检测", start);
+
+        for (CompiledTemplate template : compiled) {
+            String name = FileUtil.mainName(template.getFile());
+            TemplateInterface sample = samples.get(name);
+            if (sample == null && !(samples.isEmpty() && template == compiled.get(0))) {
+                continue;
+            }
+            render(report, template.getFile(), sample == null
+                    ? MapEntity.of(Collections.emptyMap(), PlaceholderSchema.create()) : sample);
+        }
+
+        report.finish(begin);
+        log.info("{}", report);
+        return report;
+    }
+
+    /**
+     * 在后台线程执行预热
+     *
+     * @return 预热结果，完成后可作为就绪信号
+     */
+    public CompletableFuture<WarmupReport> runAsync() {
+        CompletableFuture<WarmupReport> future = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(run());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }, "smart-doc-warmup");
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+
+    /**
+     * 试渲染并按每种目标格式试转换
+     */
+    private void render(WarmupReport report, File template, TemplateInterface entity) {
+        long start = System.nanoTime();
+        FT<TemplateInterface> ft;
+        try {
+            ft = FT.of(entity, template).fer();
+        } catch (RuntimeException e) {
+            report.fail("试渲染 " + template.getName(), e);
+            return;
+        } finally {
+            report.phase("试渲染", start);
+        }
+        try {
+            for (DocumentFormat format : formats) {
+                start = System.nanoTime();
+                try {
+                    FileUtils.deleteFileSafely(ft.convertNewFile(format));
+                } catch (RuntimeException e) {
+                    report.fail("试转换 " + template.getName() + " -> " + format.getExtension(), e);
+                } finally {
+                    report.phase("试转换 " + format.getExtension(), start);
+                }
+            }
+        } finally {
+            ft.clearAll();
+        }
+    }
+
+    /**
+     * 设置试转换的目标格式
+     *
+     * @param formats 目标格式
+     * @return {@link Warmup }
+     */
+    public Warmup setFormats(DocumentFormat... formats) {
+        this.formats = formats.length == 0 ? EnumSet.noneOf(DocumentFormat.class) : EnumSet.copyOf(Arrays.asList(formats));
+        return this;
+    }
+}
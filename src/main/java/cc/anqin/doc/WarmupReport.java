@@ -0,0 +1,103 @@
+package cc.anqin.doc;
+
+import lombok.Getter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预热报告
+ * <p>
+ * 记录 {@link Warmup} 各阶段的耗时、编译成功的模板与失败的步骤。单个步骤失败不会中断预热，
+ * 由调用方根据 {@link #isSuccessful()} 决定是否就绪。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see Warmup 预热
+ */
+@Getter
+public final class WarmupReport {
+
+    /** 阶段 -> 耗时（毫秒），按执行顺序 */
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    /** 编译成功的模板 */
+    private final List<File> templates = new ArrayList<>();
+
+    /** 失败的步骤及原因 */
+    private final List<String> failures = new ArrayList<>();
+
+    /** 总耗时（毫秒） */
+    private long totalMillis;
+
+    /**
+     * 记录阶段耗时
+     *
+     * @param phase 阶段
+     * @param start 开始时刻（纳秒）
+     */
+    synchronized void phase(String phase, long start) {
+        phases.merge(phase, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), Long::sum);
+    }
+
+    /**
+     * 记录编译成功的模板
+     *
+     * @param template 模板文件
+     */
+    synchronized void template(File template) {
+        templates.add(template);
+    }
+
+    /**
+     * 记录失败的步骤
+     *
+     * @param step 步骤
+     * @param e    原因
+     */
+    synchronized void fail(String step, Throwable e) {
+        failures.add(step + "：" + e.getMessage());
+    }
+
+    void finish(long start) {
+        this.totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * 全部步骤是否成功
+     *
+     * @return boolean
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    public Map<String, Long> getPhases() {
+        return Collections.unmodifiableMap(phases);
+    }
+
+    public List<File> getTemplates() {
+        return Collections.unmodifiableList(templates);
+    }
+
+    public List<String> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder()
+                .append("预热完成，耗时 ").append(totalMillis).append(" ms，模板 ").append(templates.size()).append(" 个");
+        phases.forEach((phase, millis) -> report.append("，").append(phase).append(' ').append(millis).append(" ms"));
+        if (!failures.isEmpty()) {
+            report.append("，失败 ").append(failures.size()).append(" 项：").append(failures);
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,202 @@
+package cc.anqin.doc.concurrent;
+
+import cc.anqin.doc.ex.RenderCancelledException;
+import cc.anqin.doc.ex.RenderTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 渲染截止时间与取消标记
+ * <p>
+ * 一次模板填充或文件转换对应一个 Deadline，它同时承担两个职责：
+ * <ul>
+ *   <li>截止时间 - 记录任务必须完成的时间点，到期后检查点抛出 {@link RenderTimeoutException}</li>
+ *   <li>取消标记 - 调用方放弃等待后调用 {@link #cancel()}，检查点抛出 {@link RenderCancelledException}</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 执行线程通过 {@link #current()} 获取当前任务的截止时间，并在各处理阶段之间调用
+ * {@link #checkpoint(String)} 协作式地停止。由 {@link RenderExecutor} 执行的任务会自动绑定截止时间；
+ * 未设置超时的任务使用 {@link #none()}，检查点不做任何处理，与历史行为一致。
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * Deadline deadline = Deadline.after(Duration.ofSeconds(30));
+ * for (Field field : fields) {
+ *     deadline.checkpoint(field.getName());
+ *     // 处理单个字段
+ * }
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see RenderExecutor 渲染执行器
+ */
+public final class Deadline {
+
+    /** 无截止时间 */
+    private static final Deadline NONE = new Deadline(0L, false);
+
+    /** 当前线程正在执行的任务的截止时间 */
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    /** 截止时间点（System.nanoTime） */
+    private final long deadlineNanos;
+
+    /** 是否设置了截止时间 */
+    private final boolean bounded;
+
+    /** 取消标记 */
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    private Deadline(long deadlineNanos, boolean bounded) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * 无截止时间，检查点不做任何处理
+     *
+     * @return {@link Deadline }
+     */
+    public static Deadline none() {
+        return NONE;
+    }
+
+    /**
+     * 从现在起经过指定时长后到期
+     *
+     * @param timeout 超时时长，为null或不大于0时返回 {@link #none()}
+     * @return {@link Deadline }
+     */
+    public static Deadline after(Duration timeout) {
+        if (timeout == null || timeout.isZero() || timeout.isNegative()) {
+            return NONE;
+        }
+        return new Deadline(System.nanoTime() + timeout.toNanos(), true);
+    }
+
+    /**
+     * 当前线程绑定的截止时间
+     *
+     * @return {@link Deadline }，未绑定时返回 {@link #none()}
+     */
+    public static Deadline current() {
+        Deadline deadline = CURRENT.get();
+        return deadline == null ? NONE : deadline;
+    }
+
+    /**
+     * 将截止时间绑定到当前线程
+     *
+     * @param deadline 截止时间
+     * @return 绑定前的截止时间，用于 {@link #restore(Deadline)}
+     */
+    static Deadline bind(Deadline deadline) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        return previous;
+    }
+
+    /**
+     * 恢复当前线程绑定的截止时间
+     *
+     * @param previous {@link #bind(Deadline)} 返回的值
+     */
+    static void restore(Deadline previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * 是否设置了截止时间
+     *
+     * @return boolean
+     */
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    /**
+     * 是否已到期
+     *
+     * @return boolean
+     */
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * 是否已被取消
+     *
+     * @return boolean
+     */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * 取消任务，{@link #none()} 不可取消
+     */
+    public void cancel() {
+        if (bounded) {
+            cancelled.set(true);
+        }
+    }
+
+    /**
+     * 剩余时间（纳秒）
+     *
+     * @return 剩余纳秒数，到期后为0，未设置截止时间时为 {@link Long#MAX_VALUE}
+     */
+    public long remainingNanos() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0L, deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * 剩余时间（毫秒）
+     *
+     * @return 剩余毫秒数
+     */
+    public long remainingMillis() {
+        return bounded ? TimeUnit.NANOSECONDS.toMillis(remainingNanos()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * 检查点
+     * <p>
+     * 任务已取消、执行线程被中断或已到期时抛出异常，否则立即返回。
+     * 未设置截止时间时不做任何处理。
+     * </p>
+     *
+     * @param phase 当前处理阶段，用于异常信息
+     * @throws RenderTimeoutException   已到期
+     * @throws RenderCancelledException 已取消或执行线程被中断
+     */
+    public void checkpoint(String phase) {
+        if (!bounded) {
+            return;
+        }
+        if (cancelled.get()) {
+            throw new RenderCancelledException("渲染已取消：" + phase);
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            cancelled.set(true);
+            throw new RenderCancelledException("渲染线程被中断：" + phase);
+        }
+        if (isExpired()) {
+            cancelled.set(true);
+            throw new RenderTimeoutException("渲染超时：" + phase);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package cc.anqin.doc.concurrent;
+
+import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.ex.RenderCancelledException;
+import cc.anqin.doc.ex.RenderTimeoutException;
+import cn.hutool.core.thread.ExecutorBuilder;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.NumberUtil;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 带截止时间的渲染执行器
+ * <p>
+ * 模板填充与文件转换中的Aspose调用可能因为异常模板或超大图片长时间无法返回。
+ * 设置了超时的任务交由该执行器在独立的工作线程中执行，调用方最多等待到截止时间：
+ * </p>
+ * <p>
+ * 执行规则：
+ * <ul>
+ *   <li>未设置超时 - 直接在调用线程中执行，与历史行为一致</li>
+ *   <li>按时完成 - 返回结果，任务中的异常原样抛出</li>
+ *   <li>超时 - 调用方立即收到 {@link RenderTimeoutException}，任务被标记为取消并中断工作线程，
+ *   Aspose在响应线程中断的阶段会提前退出，其余阶段在下一个检查点停止</li>
+ *   <li>调用方被中断 - 调用方收到 {@link RenderCancelledException}，任务同样被取消</li>
+ *   <li>排队中被放弃 - 调用方已超时或取消的任务在开始前直接跳过，不占用工作线程</li>
+ *   <li>嵌套调用 - 已在工作线程中执行的任务再次提交时直接在当前线程执行，避免线程池互等</li>
+ *   <li>等待退出 - 任务写入调用方持有的输出流时使用 {@link #callAndJoin(Duration, String, Callable)}，
+ *   超时或中断后先等待已开始的任务真正退出再抛出异常，调用方随后关闭或复用输出流时不会有被放弃的任务继续写入</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 工作线程数与队列长度可通过系统属性修改：
+ * <pre>
+ * System.setProperty("smart.doc.render.concurrency", "8");   // 工作线程数，默认CPU核数
+ * System.setProperty("smart.doc.render.queue", "1024");      // 等待队列长度，默认1024
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see Deadline 截止时间
+ */
+@Slf4j
+@UtilityClass
+public class RenderExecutor {
+
+    /** 工作线程名前缀 */
+    private final String THREAD_PREFIX = "smart-doc-render-";
+
+    /** 任务状态：等待执行 */
+    private final int PENDING = 0;
+
+    /** 任务状态：已开始执行 */
+    private final int RUNNING = 1;
+
+    /** 任务状态：开始前被调用方放弃 */
+    private final int ABANDONED = 2;
+
+    /** 工作线程池，队列满时拒绝提交 */
+    private final ExecutorService POOL = ExecutorBuilder.create()
+            .setCorePoolSize(NumberUtil.parseInt(System.getProperty("smart.doc.render.concurrency"),
+                    Runtime.getRuntime().availableProcessors()))
+            .setMaxPoolSize(NumberUtil.parseInt(System.getProperty("smart.doc.render.concurrency"),
+                    Runtime.getRuntime().availableProcessors()))
+            .setWorkQueue(new LinkedBlockingQueue<>(NumberUtil.parseInt(System.getProperty("smart.doc.render.queue"), 1024)))
+            .setThreadFactory(new NamedThreadFactory(THREAD_PREFIX, true))
+            .setHandler(new ThreadPoolExecutor.AbortPolicy())
+            .build();
+
+    /**
+     * 在指定超时内执行任务
+     *
+     * @param timeout 超时时长，为null或不大于0时不限时，直接在当前线程执行
+     * @param task    任务描述，用于日志与异常信息
+     * @param job     任务
+     * @return 任务结果
+     * @throws RenderTimeoutException   超时
+     * @throws RenderCancelledException 调用方被中断
+     */
+    public <R> R call(Duration timeout, String task, Callable<R> job) {
+        return call(Deadline.after(timeout), task, job);
+    }
+
+    /**
+     * 在截止时间前执行任务
+     *
+     * @param deadline 截止时间
+     * @param task     任务描述，用于日志与异常信息
+     * @param job      任务
+     * @return 任务结果
+     * @throws RenderTimeoutException   超时
+     * @throws RenderCancelledException 调用方被中断
+     */
+    public <R> R call(Deadline deadline, String task, Callable<R> job) {
+        return call(deadline, task, job, false);
+    }
+
+    /**
+     * 在指定超时内执行写入调用方输出流的任务，超时后等待已开始的任务退出
+     *
+     * @param timeout 超时时长，为null或不大于0时不限时，直接在当前线程执行
+     * @param task    任务描述，用于日志与异常信息
+     * @param job     任务
+     * @return 任务结果
+     * @throws RenderTimeoutException   超时，抛出时任务已退出
+     * @throws RenderCancelledException 调用方被中断，抛出时任务已退出
+     * @see #callAndJoin(Deadline, String, Callable)
+     */
+    public <R> R callAndJoin(Duration timeout, String task, Callable<R> job) {
+        return callAndJoin(Deadline.after(timeout), task, job);
+    }
+
+    /**
+     * 在截止时间前执行写入调用方输出流的任务，超时后等待已开始的任务退出
+     * <p>
+     * Aspose 的保存不响应线程中断，被放弃的任务可能仍在写入输出流。调用方在异常返回后通常会关闭或复用输出流
+     * （HTTP响应、对象存储分片上传），因此该方法在取消任务后等待其真正退出，调用方等待的总时长可能超过截止时间。
+     * </p>
+     *
+     * @param deadline 截止时间
+     * @param task     任务描述，用于日志与异常信息
+     * @param job      任务
+     * @return 任务结果
+     * @throws RenderTimeoutException   超时，抛出时任务已退出
+     * @throws RenderCancelledException 调用方被中断，抛出时任务已退出
+     */
+    public <R> R callAndJoin(Deadline deadline, String task, Callable<R> job) {
+        return call(deadline, task, job, true);
+    }
+
+    private <R> R call(Deadline deadline, String task, Callable<R> job, boolean join) {
+        if (!deadline.isBounded() || Thread.currentThread().getName().startsWith(THREAD_PREFIX)) {
+            return inline(deadline, task, job);
+        }
+
+        AtomicInteger state = new AtomicInteger(PENDING);
+        CountDownLatch exited = new CountDownLatch(1);
+        Future<R> future;
+        try {
+            future = POOL.submit(() -> {
+                // 调用方已经放弃的任务不再执行
+                if (!state.compareAndSet(PENDING, RUNNING)) {
+                    return null;
+                }
+                try {
+                    deadline.checkpoint("等待执行：" + task);
+                    Deadline previous = Deadline.bind(deadline);
+                    try {
+                        return job.call();
+                    } finally {
+                        Deadline.restore(previous);
+                    }
+                } finally {
+                    exited.countDown();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new DocumentException(e, "渲染任务提交失败，等待队列已满：" + task);
+        }
+
+        try {
+            return future.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(deadline, future, state, exited, join, task);
+            log.warn("渲染任务超时，已取消：{}", task);
+            throw new RenderTimeoutException(e, "渲染超时：" + task);
+        } catch (InterruptedException e) {
+            abandon(deadline, future, state, exited, join, task);
+            Thread.currentThread().interrupt();
+            throw new RenderCancelledException(e, "渲染被中断：" + task);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause(), task);
+        }
+    }
+
+    /**
+     * 取消任务，需要时等待已开始的任务退出
+     */
+    private void abandon(Deadline deadline, Future<?> future, AtomicInteger state, CountDownLatch exited,
+                         boolean join, String task) {
+        deadline.cancel();
+        boolean started = !state.compareAndSet(PENDING, ABANDONED);
+        future.cancel(true);
+        if (!join || !started) {
+            return;
+        }
+        log.warn("等待已取消的渲染任务退出：{}", task);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                exited.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 在当前线程执行任务，设置了截止时间时绑定到当前线程供检查点使用
+     */
+    private <R> R inline(Deadline deadline, String task, Callable<R> job) {
+        Deadline previous = deadline.isBounded() ? Deadline.bind(deadline) : null;
+        try {
+            deadline.checkpoint(task);
+            return job.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DocumentException(e, "渲染任务执行失败：" + task);
+        } finally {
+            if (deadline.isBounded()) {
+                Deadline.restore(previous);
+            }
+        }
+    }
+
+    private RuntimeException unwrap(Throwable cause, String task) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new DocumentException(cause, "渲染任务执行失败：" + task);
+    }
+}
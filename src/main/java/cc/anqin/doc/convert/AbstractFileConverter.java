@@ -12,6 +12,8 @@ import lombok.extern.slf4j.Slf4j;
 import java.io.File;
 import java.io.OutputStream;
 import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 抽象文件转换器
@@ -169,6 +171,23 @@ public abstract class AbstractFileConverter implements FileConverter {
      */
     private double convertHeight = 297;
 
+    /**
+     * 输出配置档位
+     * <p>
+     * 控制字体嵌入、图片压缩、渲染质量和合规级别，默认使用 {@link OutputProfile#DEFAULT}，
+     * 与历史行为保持一致。单次转换也可以通过 {@link CF#setProfile(OutputProfile)} 指定。
+     * </p>
+     */
+    private OutputProfile profile = OutputProfile.DEFAULT;
+
+    /**
+     * 按字体路径缓存的字体设置
+     * <p>
+     * 字体目录扫描开销较大，同一路径的FontSettings在所有转换间共享，只扫描一次。
+     * </p>
+     */
+    private static final Map<String, FontSettings> FONT_SETTINGS = new ConcurrentHashMap<>();
+
     /**
      * 将输入文件转换为目标格式
      * <p>
@@ -242,20 +261,18 @@ public abstract class AbstractFileConverter implements FileConverter {
      *   <li>格式特定选项 - 根据DocumentFormat创建对应的SaveOptions</li>
      *   <li>字体配置 - 设置字体路径和字体文件夹</li>
      *   <li>页面设置 - 为每个节设置页面宽度和高度</li>
-     *   <li>PDF特殊选项 - 嵌入完整字体、高质量渲染等</li>
-     *   <li>通用选项 - 允许嵌入PostScript字体、美化格式等</li>
+     *   <li>档位选项 - 字体嵌入、图片压缩、渲染质量等取自当前的 {@link OutputProfile}</li>
+     *   <li>通用选项 - 允许嵌入PostScript字体等</li>
      * </ul>
      * </p>
      * <p>
      * 使用示例：
      * <pre>
      * SaveOptions options = converter.defaultSetting(doc, DocumentFormat.PDF, 210, 297);
-     * // 自定义选项配置
-     * if (options instanceof PdfSaveOptions) {
-     *     PdfSaveOptions pdfOptions = (PdfSaveOptions) options;
-     *     pdfOptions.setEmbedFullFonts(true);
-     *     pdfOptions.setCompliance(PdfCompliance.PDF_17);
-     * }
+     *
+     * // 每次返回新实例，子类可以在其上继续调整，不影响其他转换
+     * PdfSaveOptions pdfOptions = (PdfSaveOptions) converter.defaultSetting(doc, DocumentFormat.PDF, 210, 297);
+     * pdfOptions.setCompliance(PdfCompliance.PDF_17);
      * </pre>
      * </p>
      *
@@ -269,18 +286,38 @@ public abstract class AbstractFileConverter implements FileConverter {
      * @see DocumentFormat#createSaveOptions() 格式特定的保存选项
      * @see FontSettings 字体设置
      * @see PageSetup 页面设置
+     * @see OutputProfile 输出配置档位
      */
     protected SaveOptions defaultSetting(Document doc, DocumentFormat type, double convertWidth, double convertHeight) {
-        SaveOptions options = type.createSaveOptions();
+        return defaultSetting(doc, type, convertWidth, convertHeight, getProfile());
+    }
+
+    /**
+     * 按指定档位创建保存选项配置
+     * <p>
+     * 与 {@link #defaultSetting(Document, DocumentFormat, double, double)} 相同，
+     * 只是字体嵌入、图片压缩、渲染质量等参数取自指定的档位。返回的SaveOptions
+     * 是按档位参数新建的实例，可以继续修改。
+     * </p>
+     *
+     * @param doc 要转换的Aspose文档对象
+     * @param type 目标文档格式
+     * @param convertWidth 目标页面宽度（毫米）
+     * @param convertHeight 目标页面高度（毫米）
+     * @param profile 输出配置档位，为null时使用 {@link OutputProfile#DEFAULT}
+     * @return 配置完成的SaveOptions实例
+     * @throws IllegalArgumentException 如果目标格式不支持
+     * @see OutputProfile 输出配置档位
+     */
+    protected SaveOptions defaultSetting(Document doc, DocumentFormat type, double convertWidth, double convertHeight,
+                                         OutputProfile profile) {
+        SaveOptions options = Opt.ofNullable(profile).orElse(OutputProfile.DEFAULT).saveOptions(type);
         if (options == null) {
             throw new IllegalArgumentException("不支持的保存格式: " + type.name());
         }
 
         // 设置默认字体
-        FontSettings fontSettings = new FontSettings();
-        String fonts = getFontsPath();
-        fontSettings.setFontsFolders(new String[]{fonts}, true);
-        doc.setFontSettings(fontSettings);
+        doc.setFontSettings(fontSettings(getFontsPath()));
 
         // 设置文档中每一节的页面宽高
         for (Section section : doc.getSections()) {
@@ -289,21 +326,26 @@ public abstract class AbstractFileConverter implements FileConverter {
             pageSetup.setPageHeight(convertMmToPoints(convertHeight));
         }
 
-        // PDF格式特殊处理
-        if (options instanceof PdfSaveOptions) {
-            PdfSaveOptions pdfSaveOptions = (PdfSaveOptions) options;
-            pdfSaveOptions.setEmbedFullFonts(true);
-        }
-
-        // 设置通用选项
-        options.setAllowEmbeddingPostScriptFonts(true);
-        options.setSaveFormat(type.getValue());
-        options.setUseHighQualityRendering(true);
-        options.setPrettyFormat(true);
-
         return options;
     }
 
+    /**
+     * 获取指定字体路径的共享字体设置
+     * <p>
+     * 首次访问某个路径时创建FontSettings，之后所有文档共享同一实例，避免每次转换重新扫描字体目录。
+     * </p>
+     *
+     * @param fontsPath 字体目录
+     * @return {@link FontSettings }
+     */
+    public static FontSettings fontSettings(String fontsPath) {
+        return FONT_SETTINGS.computeIfAbsent(fontsPath, path -> {
+            FontSettings fontSettings = new FontSettings();
+            fontSettings.setFontsFolders(new String[]{path}, true);
+            return fontSettings;
+        });
+    }
+
     protected SaveOptions getDefaultDPFOptions(SaveOptions options) {
         PdfSaveOptions pdfSaveOptions = (PdfSaveOptions) options;
         pdfSaveOptions.setEmbedFullFonts(true);
@@ -1,9 +1,18 @@
 package cc.anqin.doc.convert;
 
+import cc.anqin.doc.concurrent.RenderExecutor;
+import cc.anqin.doc.convert.cache.ConvertCache;
 import cc.anqin.doc.convert.strategy.DefaultFileConvert;
 import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.ex.RenderCancelledException;
+import cc.anqin.doc.metrics.MetricNames;
+import cc.anqin.doc.metrics.Metrics;
+import cc.anqin.doc.metrics.RenderTrace;
+import cc.anqin.doc.metrics.ResourceMeter;
+import cc.anqin.doc.metrics.ResourceUsage;
 import cc.anqin.doc.utils.FileUtils;
 import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.lang.Opt;
 import com.aspose.words.Document;
 import com.aspose.words.SaveFormat;
 import com.aspose.words.SaveOptions;
@@ -14,6 +23,8 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
+import java.time.Duration;
+import java.util.function.Supplier;
 
 /**
  * 文件转换工具类 - 提供不同格式文件间的转换功能
@@ -42,6 +53,12 @@ import java.nio.file.Files;
  * File customPdf = CF.create("document.docx", 297, 420)  // A3尺寸
  *     .output("output.pdf")
  *     .toFile(DocumentFormat.PDF);
+ *
+ * // 启用转换结果缓存，重复转换同一文件时直接复用结果
+ * ConvertCache.enable(new ConvertCache(Paths.get("/data/cache"), 512L * 1024 * 1024));
+ *
+ * // 限时转换，超过30秒抛出 RenderTimeoutException
+ * File pdf = CF.create(file).setTimeout(Duration.ofSeconds(30)).toFile(DocumentFormat.PDF);
  * </pre>
  * </p>
  *
@@ -105,6 +122,54 @@ public class CF {
      */
     private String fontsPath;
 
+    /**
+     * 转换结果缓存 - 相同输入与参数的重复转换直接复用结果
+     * <p>
+     * 默认取 {@link ConvertCache#getDefault()}，未启用全局缓存时为null，即不使用缓存。
+     * 可通过setCache()为单次转换单独指定或关闭缓存。
+     * </p>
+     */
+    private ConvertCache cache = ConvertCache.getDefault();
+
+    /**
+     * 输出配置档位 - 控制字体嵌入、图片压缩、渲染质量等
+     * <p>
+     * 为null时使用转换器自身的档位（默认为 {@link OutputProfile#DEFAULT}）。
+     * </p>
+     */
+    private OutputProfile profile;
+
+    /**
+     * 转换超时 - 单次转换允许的最长时间
+     * <p>
+     * 为null时不限时，在调用线程中直接转换。设置后转换在渲染执行器中进行，
+     * 超时时抛出 {@link cc.anqin.doc.ex.RenderTimeoutException}，正在进行的转换会被中断。
+     * </p>
+     *
+     * @see RenderExecutor 渲染执行器
+     */
+    private Duration timeout;
+
+    /**
+     * 渲染追踪 - 记录缓存查找与转换各阶段的耗时
+     * <p>
+     * 为null时使用调用线程绑定的追踪（{@link RenderTrace#current()}），未绑定时不追踪。
+     * </p>
+     *
+     * @see RenderTrace 渲染追踪
+     */
+    private RenderTrace trace;
+
+    /**
+     * 资源消耗 - 最近一次转换分配的堆内存字节数与CPU时间
+     * <p>
+     * 转换完成（包括失败）后设置，未转换时为null。
+     * </p>
+     *
+     * @see ResourceUsage 资源消耗
+     */
+    private ResourceUsage usage;
+
     /**
      * 私有构造方法 - 强制使用静态工厂方法创建实例
      * <p>
@@ -221,7 +286,7 @@ public class CF {
      */
     public File toFile(DocumentFormat targetFileType) {
         this.targetFileType = targetFileType;
-        return execute();
+        return execute(true);
     }
 
     /**
@@ -229,6 +294,10 @@ public class CF {
      * <p>
      * 转换完成后返回转换后的文件对象，如果未指定输出文件，系统会生成临时文件。
      * </p>
+     * <p>
+     * 注意：SaveOptions 只用于确定目标格式，其中的合规级别、图片等参数不参与转换，
+     * 因此该方法不读写转换结果缓存，避免不同参数的调用共享同一个缓存结果。
+     * </p>
      *
      * @param options 目标文件格式
      * @return 转换后的文件对象
@@ -237,7 +306,7 @@ public class CF {
      */
     public File toFile(SaveOptions options) {
         this.targetFileType = DocumentFormat.fromSaveOptions(options);
-        return execute();
+        return execute(false);
     }
 
     /**
@@ -255,11 +324,19 @@ public class CF {
      */
     public <T extends AbstractFileConverter> File toFile(T converter) {
         this.targetFileType = converter.getTargetType();
-        try {
-            return converter.convert(inputFile, targetFileType);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        RenderTrace trace = trace();
+        return RenderExecutor.call(timeout, "文件转换 " + inputFile.getName(), () -> metered(() -> trace.within(() -> {
+            long mark = trace.mark();
+            try {
+                return converter.convert(inputFile, targetFileType);
+            } catch (RenderCancelledException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            } finally {
+                trace.convert(MetricNames.CONVERT, inputFile.getName(), mark);
+            }
+        })));
     }
 
 
@@ -275,20 +352,97 @@ public class CF {
      * </ol>
      * </p>
      *
+     * @param cacheable 是否使用转换结果缓存
      * @return 转换后的文件对象
      * @throws DocumentException 当转换过程中发生错误时抛出
      */
-    private File execute() {
+    private File execute(boolean cacheable) {
+        RenderTrace trace = trace();
+        return RenderExecutor.call(timeout, "文件转换 " + inputFile.getName(),
+                () -> metered(() -> trace.within(() -> doExecute(cacheable))));
+    }
+
+    /**
+     * 在执行转换的线程上计量内存分配与CPU时间，结果写入 {@link #usage} 并上报指标
+     *
+     * @param job 转换任务
+     * @return 转换结果
+     */
+    private File metered(Supplier<File> job) {
+        ResourceMeter meter = ResourceMeter.start();
+        try {
+            return job.get();
+        } finally {
+            this.usage = meter.stop();
+            Metrics.count(MetricNames.CONVERT_ALLOCATED_BYTES, usage.getAllocatedBytes());
+            Metrics.time(MetricNames.CONVERT_CPU, usage.getCpuNanos());
+        }
+    }
+
+    /**
+     * 本次转换使用的渲染追踪
+     *
+     * @return {@link RenderTrace }
+     */
+    private RenderTrace trace() {
+        return trace == null ? RenderTrace.current() : trace;
+    }
+
+    /**
+     * 执行文件转换，命中缓存时直接拷贝结果
+     *
+     * @param cacheable 是否使用转换结果缓存
+     * @return 转换后的文件对象
+     */
+    private File doExecute(boolean cacheable) {
         try {
             if (this.outputFile == null) {
                 this.outputFile = FileUtils.getTemporaryFile(targetFileType);
             }
 
-            return ConverterFileFactory.getConverter(DocumentFormat.fromFile(inputFile), targetFileType)
-                    .convert(this.outputFile, inputFile, this.width, this.height, targetFileType);
+            FileConverter converter = ConverterFileFactory.getConverter(DocumentFormat.fromFile(inputFile), targetFileType);
+            if (cache == null || !cacheable) {
+                return convert(converter);
+            }
+
+            // 命中缓存时直接拷贝结果，未命中时转换后写入缓存
+            RenderTrace trace = RenderTrace.current();
+            long mark = trace.mark();
+            String key = cache.key(inputFile, targetFileType, this.width, this.height,
+                    Opt.ofBlankAble(this.fontsPath).orElseGet(converter::getFontsPath), converter.getClass().getName(),
+                    this.profile);
+            boolean hit = cache.copyTo(key, this.outputFile);
+            trace.convert(hit ? MetricNames.CONVERT_CACHE_HIT : MetricNames.CONVERT_CACHE_MISS, inputFile.getName(), mark);
+            if (hit) {
+                return this.outputFile;
+            }
+            File converted = convert(converter);
+            cache.put(key, converted, targetFileType);
+            return converted;
+        } catch (RenderCancelledException e) {
+            throw e;
         } catch (Exception e) {
             // 转换失败时包装异常并抛出
             throw new DocumentException(e, "文件转换失败");
         }
     }
+
+    /**
+     * 使用指定转换器执行转换，指定了档位时按档位转换
+     *
+     * @param converter 转换器
+     * @return 转换后的文件对象
+     */
+    private File convert(FileConverter converter) {
+        RenderTrace trace = RenderTrace.current();
+        long start = System.nanoTime();
+        File converted = this.profile == null
+                ? converter.convert(this.outputFile, inputFile, this.width, this.height, targetFileType)
+                : converter.convert(this.outputFile, inputFile, this.width, this.height, targetFileType, this.profile);
+        Metrics.stop(MetricNames.CONVERT, start);
+        Metrics.count(MetricNames.BYTES_WRITTEN, converted.length());
+        trace.convert(MetricNames.CONVERT, inputFile.getName(), start);
+        trace.count(RenderTrace.BYTES_WRITTEN, converted.length());
+        return converted;
+    }
 }
\ No newline at end of file
@@ -8,8 +8,14 @@ import lombok.Getter;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import com.aspose.words.SaveOptions;
@@ -522,6 +528,36 @@ public enum DocumentFormat {
      */
     private final String description;
 
+    /** 扩展名 -> 格式，多个格式共用扩展名时取先声明的格式 */
+    private static final Map<String, DocumentFormat> BY_EXTENSION = new HashMap<>();
+
+    /** 整数值 -> 格式 */
+    private static final Map<Integer, DocumentFormat> BY_VALUE = new HashMap<>();
+
+    /** SaveOptions 类型 -> 格式，多个格式共用类型时取先声明的格式 */
+    private static final Map<Class<?>, DocumentFormat> BY_OPTIONS_CLASS = new HashMap<>();
+
+    /** 格式 -> 专用 SaveOptions 类型，只包含有专用 SaveOptions 的格式 */
+    private static final Map<DocumentFormat, Class<?>> OPTIONS_CLASS = new EnumMap<>(DocumentFormat.class);
+
+    /** 去重后的扩展名，按声明顺序 */
+    private static final List<String> EXTENSIONS;
+
+    static {
+        // 查找表在类加载时建立一次，查找不再遍历 values()，也不再为每个格式创建 SaveOptions
+        for (DocumentFormat format : values()) {
+            BY_EXTENSION.putIfAbsent(format.extension, format);
+            BY_VALUE.putIfAbsent(format.value, format);
+            SaveOptions options = format.createSaveOptions();
+            if (options != null) {
+                OPTIONS_CLASS.put(format, options.getClass());
+                BY_OPTIONS_CLASS.putIfAbsent(options.getClass(), format);
+            }
+        }
+        EXTENSIONS = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(
+                Arrays.stream(values()).map(DocumentFormat::getExtension).collect(Collectors.toList()))));
+    }
+
     /**
      * 获取带点号的完整文件扩展名
      * <p>
@@ -553,6 +589,11 @@ public enum DocumentFormat {
      * 特定格式可以重写此方法以提供自定义的保存选项。
      * </p>
      * <p>
+     * 每次调用都创建新实例，不提供可供复制的共享原型：SaveOptions 是可变对象，Aspose 没有提供廉价的复制方法，
+     * 复制一个原型与新建实例的开销相当，而共享实例会被并发的保存调用互相修改。
+     * 只判断格式是否有专用选项时使用 {@link #hasSpecificSaveOptions()}，查表判断，不创建实例。
+     * </p>
+     * <p>
      * 支持的SaveOptions类型：
      * <ul>
      *   <li>PdfSaveOptions - PDF格式的保存选项</li>
@@ -613,16 +654,19 @@ public enum DocumentFormat {
      * @throws IllegalArgumentException 如果找不到匹配的格式值
      */
     public static DocumentFormat fromValue(int value) {
-        for (DocumentFormat format : values()) {
-            if (format.value == value) {
-                return format;
-            }
+        DocumentFormat format = BY_VALUE.get(value);
+        if (format == null) {
+            throw new IllegalArgumentException("未知的文档格式值: " + value);
         }
-        throw new IllegalArgumentException("未知的文档格式值: " + value);
+        return format;
     }
 
     /**
      * 根据SaveOptions获取枚举实例
+     * <p>
+     * 优先按选项的保存格式查找，多个格式共用同一SaveOptions类型（如各图片格式共用 ImageSaveOptions）时也能区分；
+     * 保存格式无法对应时按选项类型查找。
+     * </p>
      *
      * @param options 选项
      * @return {@link DocumentFormat }
@@ -632,14 +676,17 @@ public enum DocumentFormat {
             throw new IllegalArgumentException("SaveOptions 不能为 null");
         }
 
-        Class<?> optionsClass = options.getClass();
-        for (DocumentFormat format : values()) {
-            SaveOptions formatOptions = format.createSaveOptions();
-            if (formatOptions != null && formatOptions.getClass().isAssignableFrom(optionsClass)) {
+        DocumentFormat format = BY_VALUE.get(options.getSaveFormat());
+        if (format != null && OPTIONS_CLASS.containsKey(format) && OPTIONS_CLASS.get(format).isInstance(options)) {
+            return format;
+        }
+        for (Class<?> type = options.getClass(); type != null; type = type.getSuperclass()) {
+            format = BY_OPTIONS_CLASS.get(type);
+            if (format != null) {
                 return format;
             }
         }
-        throw new IllegalArgumentException("未知的文档格式值: " + optionsClass.getSimpleName());
+        throw new IllegalArgumentException("未知的文档格式值: " + options.getClass().getSimpleName());
     }
 
     /**
@@ -692,13 +739,14 @@ public enum DocumentFormat {
      * @throws IllegalArgumentException 如果找不到匹配的扩展名
      */
     public static DocumentFormat fromExtension(String extension) {
-        String ext = extension.toLowerCase().replace(".", "");
-        for (DocumentFormat format : values()) {
-            if (format.extension.equalsIgnoreCase(ext)) {
-                return format;
-            }
+        DocumentFormat format = BY_EXTENSION.get(extension);
+        if (format == null) {
+            format = BY_EXTENSION.get(extension.toLowerCase().replace(".", ""));
+        }
+        if (format == null) {
+            throw new IllegalArgumentException("未知的文件扩展名: " + extension);
         }
-        throw new IllegalArgumentException("未知的文件扩展名: " + extension);
+        return format;
     }
 
     /**
@@ -877,7 +925,7 @@ public enum DocumentFormat {
      * @return 如果有特定的SaveOptions返回true，否则返回false
      */
     public boolean hasSpecificSaveOptions() {
-        return createSaveOptions() != null;
+        return OPTIONS_CLASS.containsKey(this);
     }
 
     /**
@@ -911,10 +959,7 @@ public enum DocumentFormat {
      * @return 所有支持的文件扩展名列表，不包含重复值和点号
      */
     public static List<String> getAllExtensions() {
-        return Arrays.stream(values())
-                .map(DocumentFormat::getExtension)
-                .distinct()
-                .collect(Collectors.toList());
+        return EXTENSIONS;
     }
 
     /**
@@ -87,6 +87,27 @@ public interface FileConverter {
      */
     File convert(File outputFile, File inputFile, double width, double height, DocumentFormat type);
 
+    /**
+     * 按指定输出档位转换（带自定义参数）
+     * <p>
+     * 与 {@link #convert(File, File, double, double, DocumentFormat)} 相同，额外指定输出档位。
+     * 默认实现忽略档位直接按转换器自身配置转换，不使用SaveOptions的转换器（如HTML转PDF）无需覆盖。
+     * </p>
+     *
+     * @param outputFile 输出文件路径
+     * @param inputFile 输入的文件对象，不能为null
+     * @param width 页面宽度（毫米）
+     * @param height 页面高度（毫米）
+     * @param type 目标文件格式
+     * @param profile 输出配置档位
+     * @return 转换后的文件对象，通常是传入的outputFile参数
+     * @see OutputProfile 输出配置档位
+     */
+    default File convert(File outputFile, File inputFile, double width, double height, DocumentFormat type,
+                         OutputProfile profile) {
+        return convert(outputFile, inputFile, width, height, type);
+    }
+
     /**
      * 获取当前转换器支持的文件类型集合
      * <p>
@@ -0,0 +1,141 @@
+package cc.anqin.doc.convert;
+
+import com.aspose.words.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 输出配置档位
+ * <p>
+ * 该枚举把输出体积与速度相关的保存选项收敛为几个命名档位，替代原先在
+ * {@link AbstractFileConverter#defaultSetting(Document, DocumentFormat, double, double)} 中
+ * 固定开启的完整字体嵌入、高质量渲染和格式美化。对中文字体而言，完整嵌入会让每份PDF增加数MB，
+ * 选择合适的档位可以显著减小输出并加快写出速度。
+ * </p>
+ * <p>
+ * 档位说明：
+ * <ul>
+ *   <li>DEFAULT - 与历史行为一致：完整嵌入字体、高质量渲染、格式美化</li>
+ *   <li>FAST - 字体子集化、关闭高质量渲染与格式美化，优先写出速度</li>
+ *   <li>COMPACT - 字体子集化、图片JPEG压缩并降采样到150DPI，优先输出体积</li>
+ *   <li>ARCHIVAL - 完整嵌入字体、PDF/A-1b合规、高质量图片，适合归档</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 档位参数在枚举中预先确定，目标格式是否有专用SaveOptions由 {@link DocumentFormat} 的静态表判断。
+ * SaveOptions 实例本身不预先创建也不复用：它是可变对象，会被并发的保存调用使用，且 Aspose 没有提供廉价的复制方法，
+ * 因此每次都按档位参数创建新实例，不在调用方之间共享，调用方可以在取得的实例上继续调整。
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * // 单次转换指定档位
+ * File pdf = CF.create(file).setProfile(OutputProfile.COMPACT).toFile(DocumentFormat.PDF);
+ *
+ * // 模板填充并转换时指定档位
+ * FT.of(entity, templateFile, DocumentFormat.PDF).setProfile(OutputProfile.FAST).fer();
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see AbstractFileConverter 抽象文件转换器
+ * @see CF 文件转换工具类
+ */
+@Getter
+@AllArgsConstructor
+public enum OutputProfile {
+
+    /**
+     * 默认档位，保持历史行为
+     */
+    DEFAULT(true, true, true, -1, 0, 0, -1),
+
+    /**
+     * 速度优先
+     */
+    FAST(false, false, false, -1, 0, 0, -1),
+
+    /**
+     * 体积优先
+     */
+    COMPACT(false, false, false, PdfImageCompression.JPEG, 75, 150, PdfCompliance.PDF_17),
+
+    /**
+     * 归档
+     */
+    ARCHIVAL(true, true, false, -1, 95, 0, PdfCompliance.PDF_A_1_B);
+
+    /** 是否完整嵌入字体，false 时只嵌入用到的字形子集 */
+    private final boolean embedFullFonts;
+
+    /** 是否使用高质量渲染 */
+    private final boolean highQualityRendering;
+
+    /** 是否美化输出格式（仅对HTML、XML类格式有意义） */
+    private final boolean prettyFormat;
+
+    /** PDF 图片压缩方式，取值见 {@link PdfImageCompression}，-1 表示使用 Aspose 默认值 */
+    private final int imageCompression;
+
+    /** JPEG 质量（0-100），0 表示使用 Aspose 默认值 */
+    private final int jpegQuality;
+
+    /** 图片降采样目标分辨率（DPI），0 表示不降采样 */
+    private final int downsampleResolution;
+
+    /** PDF 合规级别，取值见 {@link PdfCompliance}，-1 表示使用 Aspose 默认值 */
+    private final int compliance;
+
+    /**
+     * 获取该档位下指定格式的保存选项
+     * <p>
+     * 每次调用按档位参数创建新实例，调用方可以在档位基础上继续调整（如设置页码范围）。
+     * 目标格式没有专用SaveOptions时直接返回null，不创建对象。
+     * </p>
+     *
+     * @param type 目标格式
+     * @return {@link SaveOptions }，调用方独占的新实例；目标格式没有专用SaveOptions时返回null
+     */
+    public SaveOptions saveOptions(DocumentFormat type) {
+        if (!type.hasSpecificSaveOptions()) {
+            return null;
+        }
+        SaveOptions options = type.createSaveOptions();
+
+        if (options instanceof PdfSaveOptions) {
+            PdfSaveOptions pdf = (PdfSaveOptions) options;
+            pdf.setEmbedFullFonts(embedFullFonts);
+            if (imageCompression >= 0) {
+                pdf.setImageCompression(imageCompression);
+            }
+            if (compliance >= 0) {
+                pdf.setCompliance(compliance);
+            }
+            if (jpegQuality > 0) {
+                pdf.setJpegQuality(jpegQuality);
+            }
+            if (this != DEFAULT) {
+                // DEFAULT 沿用 Aspose 的默认降采样策略，其余档位显式开关
+                DownsampleOptions downsample = pdf.getDownsampleOptions();
+                downsample.setDownsampleImages(downsampleResolution > 0);
+                if (downsampleResolution > 0) {
+                    downsample.setResolution(downsampleResolution);
+                }
+            }
+            if (this == COMPACT) {
+                pdf.setOptimizeOutput(true);
+            }
+        }
+
+        if (options instanceof ImageSaveOptions && jpegQuality > 0) {
+            ((ImageSaveOptions) options).setJpegQuality(jpegQuality);
+        }
+
+        options.setAllowEmbeddingPostScriptFonts(true);
+        options.setSaveFormat(type.getValue());
+        options.setUseHighQualityRendering(highQualityRendering);
+        options.setPrettyFormat(prettyFormat);
+        return options;
+    }
+}
@@ -0,0 +1,309 @@
+package cc.anqin.doc.convert;
+
+import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.utils.DocumentIO;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.resource.ClassPathResource;
+import cn.hutool.core.lang.Opt;
+import cn.hutool.core.thread.ExecutorBuilder;
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.aspose.words.Document;
+import com.aspose.words.ImageSaveOptions;
+import com.aspose.words.PageInfo;
+import com.aspose.words.PageSet;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.IntFunction;
+
+/**
+ * 分页图片导出器
+ * <p>
+ * 通过 {@link DocumentFormat#createSaveOptions()} 转换为 PNG/JPEG/TIFF 时只能得到一个输出，
+ * 无法满足多页文档的缩略图与预览需求。该类对同一个已完成排版的文档逐页渲染并并行编码，
+ * 每一页输出为独立的图片，可以写入目录，也可以写入调用方提供的输出流。
+ * </p>
+ * <p>
+ * 主要功能：
+ * <ul>
+ *   <li>按页并行编码 - 文档只排版一次；Aspose 的 {@link Document} 不是线程安全的，各页在文档上串行绘制，
+ *   耗时的图片编码在共享线程池中并行执行</li>
+ *   <li>页码范围 - 支持导出指定的起止页（从0开始，包含两端）</li>
+ *   <li>分辨率控制 - 通过DPI控制输出图片的像素尺寸</li>
+ *   <li>首页快速通道 - 列表缩略图只需要第一页时，不经过线程池直接渲染</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * // 导出全部页面到目录
+ * List&lt;File&gt; pages = PageImageExporter.of(file).setDpi(150).toDirectory(new File("/data/preview"));
+ *
+ * // 导出第2到第5页到输出流
+ * PageImageExporter.of(file).setFormat(DocumentFormat.JPEG).setFromPage(1).setToPage(4)
+ *     .toStreams(page -&gt; openUpload(page));
+ *
+ * // 列表页缩略图
+ * PageImageExporter.of(file).setDpi(48).firstPage(outputStream);
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see DocumentFormat#isImageFormat() 图片格式
+ * @see CF 文件转换工具类
+ */
+@Slf4j
+@Data
+@Accessors(chain = true)
+public class PageImageExporter {
+
+    /**
+     * 页面渲染共享线程池
+     * <p>
+     * 线程数等于CPU核数，队列有界，队列满时由提交线程自行执行，避免无限堆积。
+     * </p>
+     */
+    private static final ExecutorService PAGE_RENDER_POOL = ExecutorBuilder.create()
+            .setCorePoolSize(Runtime.getRuntime().availableProcessors())
+            .setMaxPoolSize(Runtime.getRuntime().availableProcessors())
+            .setWorkQueue(new LinkedBlockingQueue<>(1024))
+            .setThreadFactory(new NamedThreadFactory("smart-doc-page-", true))
+            .setHandler(new ThreadPoolExecutor.CallerRunsPolicy())
+            .build();
+
+    /** 输入文件 */
+    private File inputFile;
+
+    /** 输出图片格式，默认PNG */
+    private DocumentFormat format = DocumentFormat.PNG;
+
+    /** 渲染分辨率，默认96DPI */
+    private int dpi = 96;
+
+    /** 起始页（从0开始，包含） */
+    private int fromPage = 0;
+
+    /** 结束页（从0开始，包含），小于0表示到最后一页 */
+    private int toPage = -1;
+
+    /** 字体路径，为空时使用classpath中的fonts/truetype目录 */
+    private String fontsPath;
+
+    /**
+     * 私有构造方法 - 使用 {@link #of(File)} 创建实例
+     */
+    private PageImageExporter() {
+    }
+
+    /**
+     * 创建导出器
+     *
+     * @param inputFile 输入文件
+     * @return {@link PageImageExporter }
+     */
+    public static PageImageExporter of(File inputFile) {
+        return new PageImageExporter().setInputFile(inputFile);
+    }
+
+    /**
+     * 按页导出到目录
+     * <p>
+     * 文件名格式为 {@code <输入文件名>-<页码>.<扩展名>}，页码从1开始。
+     * </p>
+     *
+     * @param directory 输出目录，不存在时自动创建
+     * @return 按页码顺序排列的图片文件
+     */
+    public List<File> toDirectory(File directory) {
+        FileUtil.mkdir(directory);
+        String prefix = FileUtil.mainName(inputFile);
+        List<File> files = new ArrayList<>();
+        render(page -> {
+            File file = new File(directory, prefix + "-" + (page + 1) + format.getExtensionWithDot());
+            synchronized (files) {
+                files.add(file);
+            }
+            try {
+                return DocumentIO.openOutput(file);
+            } catch (IOException e) {
+                throw new DocumentException(e, "创建页面图片失败：" + file.getAbsolutePath());
+            }
+        });
+        files.sort((a, b) -> Integer.compare(pageNumber(a), pageNumber(b)));
+        return files;
+    }
+
+    /**
+     * 按页导出到输出流
+     * <p>
+     * 每一页渲染完成后调用 sinkForPage 获取输出流并写入，写入完成后由导出器关闭该流。
+     * 回调可能在多个线程中并发调用。
+     * </p>
+     *
+     * @param sinkForPage 页码（从0开始）到输出流的映射
+     * @return 导出的页数
+     */
+    public int toStreams(IntFunction<OutputStream> sinkForPage) {
+        return render(sinkForPage);
+    }
+
+    /**
+     * 首页快速通道
+     * <p>
+     * 只渲染第一页，直接在当前线程完成，不经过线程池，适用于列表缩略图。
+     * 输出流由调用方负责关闭。
+     * </p>
+     *
+     * @param out 输出流
+     */
+    public void firstPage(OutputStream out) {
+        checkFormat();
+        Document doc = load();
+        renderPage(doc, 0, out);
+    }
+
+    /**
+     * 加载文档、完成排版后并行渲染指定页码范围
+     *
+     * @param sinkForPage 页码到输出流的映射
+     * @return 导出的页数
+     */
+    private int render(IntFunction<OutputStream> sinkForPage) {
+        checkFormat();
+        Document doc = load();
+        int pageCount;
+        try {
+            // 只排版一次，各页渲染共享排版结果
+            doc.updatePageLayout();
+            pageCount = doc.getPageCount();
+        } catch (Exception e) {
+            throw new DocumentException(e, "文档排版失败：" + inputFile.getAbsolutePath());
+        }
+
+        int from = Math.max(0, fromPage);
+        int to = toPage < 0 ? pageCount - 1 : Math.min(toPage, pageCount - 1);
+        if (from > to) {
+            return 0;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(to - from + 1);
+        for (int page = from; page <= to; page++) {
+            int index = page;
+            futures.add(PAGE_RENDER_POOL.submit(() -> {
+                try (OutputStream out = sinkForPage.apply(index)) {
+                    renderPage(doc, index, out);
+                } catch (IOException e) {
+                    throw new DocumentException(e, "写出页面图片失败：第" + (index + 1) + "页");
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new DocumentException(e, "页面导出被中断");
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new DocumentException(e.getCause(), "页面导出失败：" + inputFile.getAbsolutePath());
+        }
+        log.debug("文档:{} 导出页面图片 {} 页", inputFile.getName(), futures.size());
+        return futures.size();
+    }
+
+    /**
+     * 渲染单页
+     * <p>
+     * PNG/JPEG/BMP/GIF 通过 renderToSize 绘制到内存图像后由 ImageIO 编码，绘制在文档上串行执行，编码并行执行；
+     * JDK 8 的 ImageIO 不支持 TIFF，TIFF 退回 Aspose 的单页保存，同样在文档上串行执行。
+     * </p>
+     *
+     * @param doc   已排版的文档
+     * @param page  页码（从0开始）
+     * @param out   输出流
+     */
+    private void renderPage(Document doc, int page, OutputStream out) {
+        try {
+            if (format == DocumentFormat.TIFF) {
+                ImageSaveOptions options = (ImageSaveOptions) format.createSaveOptions();
+                options.setResolution(dpi);
+                options.setPageSet(new PageSet(page));
+                synchronized (doc) {
+                    doc.save(out, options);
+                }
+                return;
+            }
+
+            BufferedImage image;
+            // Document 不是线程安全的，读取排版结果与绘制都在文档上串行执行
+            synchronized (doc) {
+                PageInfo pageInfo = doc.getPageInfo(page);
+                Dimension size = pageInfo.getSizeInPixels(1.0f, dpi);
+                image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+                Graphics2D graphics = image.createGraphics();
+                try {
+                    graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                    graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, size.width, size.height);
+                    doc.renderToSize(page, graphics, 0f, 0f, size.width, size.height);
+                } finally {
+                    graphics.dispose();
+                }
+            }
+            if (!ImageIO.write(image, imageIoName(), out)) {
+                throw new DocumentException("不支持的图片格式：" + format.name());
+            }
+        } catch (DocumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DocumentException(e, "渲染页面失败：第" + (page + 1) + "页");
+        }
+    }
+
+    private Document load() {
+        try {
+            Document doc = DocumentIO.load(inputFile);
+            String fonts = Opt.ofBlankAble(fontsPath).orElseGet(() -> new ClassPathResource("fonts/truetype").getAbsolutePath());
+            doc.setFontSettings(AbstractFileConverter.fontSettings(fonts));
+            return doc;
+        } catch (Exception e) {
+            throw new DocumentException(e, "加载文档失败：" + inputFile.getAbsolutePath());
+        }
+    }
+
+    private void checkFormat() {
+        if (format == null || !format.isImageFormat() || format == DocumentFormat.EMF) {
+            throw new IllegalArgumentException("不支持的页面图片格式: " + format);
+        }
+        if (dpi <= 0) {
+            throw new IllegalArgumentException("DPI必须大于0");
+        }
+    }
+
+    private String imageIoName() {
+        return format == DocumentFormat.JPEG ? "jpg" : format.getExtension();
+    }
+
+    private static int pageNumber(File file) {
+        String name = FileUtil.mainName(file);
+        return Integer.parseInt(name.substring(name.lastIndexOf('-') + 1));
+    }
+}
@@ -0,0 +1,57 @@
+package cc.anqin.doc.convert;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * PDF 拼接SPI
+ * <p>
+ * Aspose.Words 只能输出 PDF，不能读取并拼接已生成的 PDF。分块并行渲染（{@link cc.anqin.doc.word.ChunkedRenderer}）
+ * 得到按顺序排列的分块 PDF 后，通过该接口拼接为最终文件。核心库不引入 PDF 处理依赖，
+ * 由调用方基于 PDFBox 等库实现，并在 META-INF/services/cc.anqin.doc.convert.PdfStitcher 中声明或直接设置到渲染器上。
+ * </p>
+ * <p>
+ * 基于 PDFBox 的实现示例：
+ * <pre>
+ * public class PdfBoxStitcher implements PdfStitcher {
+ *     &#064;Override
+ *     public void stitch(List&lt;File&gt; parts, OutputStream out) throws Exception {
+ *         PDFMergerUtility merger = new PDFMergerUtility();
+ *         for (File part : parts) {
+ *             merger.addSource(part);
+ *         }
+ *         merger.setDestinationStream(out);
+ *         merger.mergeDocuments(MemoryUsageSetting.setupTempFileOnly());
+ *     }
+ * }
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see cc.anqin.doc.word.ChunkedRenderer 分块并行渲染器
+ */
+public interface PdfStitcher {
+
+    /**
+     * 按顺序拼接分块PDF
+     *
+     * @param parts 分块PDF文件，按页码顺序排列
+     * @param out   输出流，由调用方负责关闭
+     * @throws Exception 拼接失败
+     */
+    void stitch(List<File> parts, OutputStream out) throws Exception;
+
+    /**
+     * 加载 classpath 中声明的第一个实现
+     *
+     * @return 拼接实现，未声明时返回null
+     */
+    static PdfStitcher load() {
+        Iterator<PdfStitcher> iterator = ServiceLoader.load(PdfStitcher.class).iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+}
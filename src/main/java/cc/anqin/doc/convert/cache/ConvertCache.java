@@ -0,0 +1,390 @@
+package cc.anqin.doc.convert.cache;
+
+import cc.anqin.doc.convert.CF;
+import cc.anqin.doc.convert.DocumentFormat;
+import cc.anqin.doc.ex.DocumentException;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.HexUtil;
+import cn.hutool.core.util.StrUtil;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内容寻址的转换结果缓存
+ * <p>
+ * 该缓存位于 {@link cc.anqin.doc.convert.ConverterFileFactory} 之前，用于避免对同一份静态附件
+ * （如条款类 DOCX）反复执行转换。缓存键由输入文件内容的 SHA-256 摘要与目标格式、页面尺寸、
+ * 字体路径、转换器与输出档位等转换参数共同组成，因此只要输入字节与参数不变，重复转换就退化为一次文件拷贝或流读取。
+ * 调用方自带 SaveOptions 的转换（{@code CF.toFile(SaveOptions)}）不经过缓存。
+ * </p>
+ * <p>
+ * 存储结构：
+ * <ul>
+ *   <li>磁盘存储 - 转换结果以 {@code <key>.<扩展名>} 保存在缓存目录中</li>
+ *   <li>内存索引 - 按访问顺序排列的 LinkedHashMap，记录每个条目的大小</li>
+ *   <li>容量控制 - 总字节数超过上限时按 LRU 顺序淘汰最久未使用的条目</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * // 全局启用，上限 512MB
+ * ConvertCache.enable(new ConvertCache(Paths.get("/data/smart-doc/cache"), 512L * 1024 * 1024));
+ *
+ * // 之后的转换自动命中缓存
+ * File pdf = CF.create(file).toFile(DocumentFormat.PDF);
+ *
+ * // 也可以只为单次转换指定缓存
+ * File pdf = CF.create(file).setCache(cache).toFile(DocumentFormat.PDF);
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see CF 文件转换工具类
+ */
+@Slf4j
+public class ConvertCache {
+
+    /** 全局默认缓存，为 null 时表示未启用 */
+    private static volatile ConvertCache defaultCache;
+
+    /** 缓存目录 */
+    @Getter
+    private final Path directory;
+
+    /** 磁盘占用上限（字节） */
+    @Getter
+    private final long maxBytes;
+
+    /** 内存索引：key -> 条目，accessOrder = true 即 LRU 顺序 */
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(64, 0.75f, true);
+
+    /** 当前已占用的字节数，受 index 的锁保护 */
+    private long totalBytes;
+
+    /** 命中次数 */
+    private final AtomicLong hits = new AtomicLong();
+
+    /** 未命中次数 */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 创建缓存实例
+     * <p>
+     * 目录中已存在的缓存文件会按最后修改时间重新载入索引，使得重启后缓存依然有效。
+     * </p>
+     *
+     * @param directory 缓存目录，不存在时自动创建
+     * @param maxBytes  磁盘占用上限（字节），必须大于 0
+     */
+    public ConvertCache(Path directory, long maxBytes) {
+        if (directory == null) {
+            throw new IllegalArgumentException("缓存目录不能为 null");
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("缓存容量必须大于 0");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        FileUtil.mkdir(directory.toFile());
+        loadIndex();
+    }
+
+    /**
+     * 启用全局默认缓存
+     *
+     * @param cache 缓存实例
+     */
+    public static void enable(ConvertCache cache) {
+        defaultCache = cache;
+    }
+
+    /**
+     * 关闭全局默认缓存（已落盘的文件保留）
+     */
+    public static void disable() {
+        defaultCache = null;
+    }
+
+    /**
+     * 获取全局默认缓存
+     *
+     * @return {@link ConvertCache }，未启用时返回 null
+     */
+    public static ConvertCache getDefault() {
+        return defaultCache;
+    }
+
+    /**
+     * 计算缓存键
+     * <p>
+     * 输入文件内容以流的方式参与摘要，其余参数按顺序以 {@code |} 分隔拼接后参与摘要。
+     * 参数中的 null 会被视为空字符串。
+     * </p>
+     *
+     * @param input 输入文件
+     * @param parts 影响转换结果的参数，如目标格式、宽高、字体路径、保存选项
+     * @return 64 位十六进制字符串
+     */
+    public String key(File input, Object... parts) {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(input.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new DocumentException(e, "计算缓存键失败：" + input.getAbsolutePath());
+        }
+        for (Object part : parts) {
+            digest.update((byte) '|');
+            digest.update(StrUtil.toString(part == null ? "" : part).getBytes(StandardCharsets.UTF_8));
+        }
+        return HexUtil.encodeHexStr(digest.digest());
+    }
+
+    /**
+     * 将命中的缓存结果拷贝到目标文件
+     *
+     * @param key    缓存键
+     * @param target 目标文件
+     * @return 命中并拷贝成功返回 true，否则返回 false
+     */
+    public boolean copyTo(String key, File target) {
+        Path cached = lookup(key);
+        if (cached == null) {
+            return false;
+        }
+        try {
+            FileUtil.mkParentDirs(target);
+            Files.copy(cached, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (NoSuchFileException e) {
+            // 拷贝前恰好被淘汰，按未命中处理
+            evict(key);
+            hits.decrementAndGet();
+            misses.incrementAndGet();
+            return false;
+        } catch (IOException e) {
+            throw new DocumentException(e, "读取转换缓存失败：" + cached);
+        }
+    }
+
+    /**
+     * 以流的方式读取命中的缓存结果
+     * <p>
+     * 返回的流由调用方负责关闭；条目在读取期间被淘汰不影响已打开的流。
+     * </p>
+     *
+     * @param key 缓存键
+     * @return 输入流，未命中时返回 null
+     */
+    public InputStream openStream(String key) {
+        Path cached = lookup(key);
+        if (cached == null) {
+            return null;
+        }
+        try {
+            return Files.newInputStream(cached);
+        } catch (NoSuchFileException e) {
+            evict(key);
+            hits.decrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        } catch (IOException e) {
+            throw new DocumentException(e, "读取转换缓存失败：" + cached);
+        }
+    }
+
+    /**
+     * 写入转换结果
+     * <p>
+     * 结果文件先拷贝为临时文件再原子重命名，保证并发读取时不会读到半个文件。
+     * 超过容量上限的单个结果不会被缓存。
+     * </p>
+     *
+     * @param key       缓存键
+     * @param converted 转换完成的文件
+     * @param format    结果格式，用于确定缓存文件扩展名
+     */
+    public void put(String key, File converted, DocumentFormat format) {
+        long size = converted.length();
+        if (size <= 0 || size > maxBytes) {
+            return;
+        }
+        Path target = directory.resolve(key + format.getExtensionWithDot());
+        try {
+            Path tmp = Files.createTempFile(directory, key, ".tmp");
+            Files.copy(converted.toPath(), tmp, StandardCopyOption.REPLACE_EXISTING);
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("写入转换缓存失败：{}", target, e);
+            return;
+        }
+        synchronized (index) {
+            Entry previous = index.put(key, new Entry(target, size));
+            if (previous != null) {
+                totalBytes -= previous.size;
+            }
+            totalBytes += size;
+            trim();
+        }
+    }
+
+    /**
+     * 清空缓存（删除所有缓存文件）
+     */
+    public void clear() {
+        synchronized (index) {
+            index.values().forEach(entry -> FileUtil.del(entry.path));
+            index.clear();
+            totalBytes = 0;
+        }
+    }
+
+    /**
+     * 当前条目数
+     *
+     * @return int
+     */
+    public int size() {
+        synchronized (index) {
+            return index.size();
+        }
+    }
+
+    /**
+     * 当前磁盘占用（字节）
+     *
+     * @return long
+     */
+    public long totalBytes() {
+        synchronized (index) {
+            return totalBytes;
+        }
+    }
+
+    /**
+     * 命中次数
+     *
+     * @return long
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     * 未命中次数
+     *
+     * @return long
+     */
+    public long missCount() {
+        return misses.get();
+    }
+
+    private Path lookup(String key) {
+        Entry entry;
+        synchronized (index) {
+            entry = index.get(key);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.path;
+    }
+
+    private void evict(String key) {
+        synchronized (index) {
+            Entry removed = index.remove(key);
+            if (removed != null) {
+                totalBytes -= removed.size;
+            }
+        }
+    }
+
+    /**
+     * 按 LRU 顺序淘汰，调用方需持有 index 锁
+     */
+    private void trim() {
+        Iterator<Map.Entry<String, Entry>> iterator = index.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            totalBytes -= eldest.size;
+            FileUtil.del(eldest.path);
+            log.debug("淘汰转换缓存：{}", eldest.path);
+        }
+    }
+
+    /**
+     * 启动时从磁盘恢复索引，并清理上次异常退出残留的临时文件
+     */
+    private void loadIndex() {
+        File[] files = directory.toFile().listFiles(File::isFile);
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        synchronized (index) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(".tmp")) {
+                    FileUtil.del(file);
+                    continue;
+                }
+                int dot = name.indexOf('.');
+                if (dot <= 0) {
+                    continue;
+                }
+                index.put(name.substring(0, dot), new Entry(file.toPath(), file.length()));
+                totalBytes += file.length();
+            }
+            trim();
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new DocumentException(e);
+        }
+    }
+
+    /**
+     * 索引条目
+     */
+    private static final class Entry {
+
+        private final Path path;
+
+        private final long size;
+
+        private Entry(Path path, long size) {
+            this.path = path;
+            this.size = size;
+        }
+    }
+}
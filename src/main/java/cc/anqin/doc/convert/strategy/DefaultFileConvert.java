@@ -1,8 +1,14 @@
 package cc.anqin.doc.convert.strategy;
 
+import cc.anqin.doc.concurrent.Deadline;
 import cc.anqin.doc.convert.AbstractFileConverter;
 import cc.anqin.doc.convert.DocumentFormat;
-import cn.hutool.core.io.FileUtil;
+import cc.anqin.doc.convert.OutputProfile;
+import cc.anqin.doc.ex.RenderCancelledException;
+import cc.anqin.doc.metrics.MetricNames;
+import cc.anqin.doc.metrics.Metrics;
+import cc.anqin.doc.metrics.RenderTrace;
+import cc.anqin.doc.utils.DocumentIO;
 import com.aspose.words.Document;
 import lombok.extern.slf4j.Slf4j;
 
@@ -95,10 +101,27 @@ public class DefaultFileConvert extends AbstractFileConverter {
 
     @Override
     public File convert(File outputFile, File inputFile, double width, double height, DocumentFormat type) {
+        return convert(outputFile, inputFile, width, height, type, getProfile());
+    }
+
+    @Override
+    public File convert(File outputFile, File inputFile, double width, double height, DocumentFormat type,
+                        OutputProfile profile) {
+        RenderTrace trace = RenderTrace.current();
         try {
-            Document doc = new Document(FileUtil.getInputStream(inputFile));
-            doc.save(FileUtil.getOutputStream(outputFile), defaultSetting(doc, type, width, height));
+            long start = System.nanoTime();
+            Document doc = DocumentIO.load(inputFile);
+            Metrics.stop(MetricNames.CONVERT_LOAD, start);
+            trace.convert(MetricNames.CONVERT_LOAD, inputFile.getName(), start);
+            Deadline.current().checkpoint("加载文档 " + inputFile.getName());
+
+            start = System.nanoTime();
+            DocumentIO.save(doc, outputFile, type.getValue(), defaultSetting(doc, type, width, height, profile));
+            Metrics.stop(MetricNames.CONVERT_SAVE, start);
+            trace.convert(MetricNames.CONVERT_SAVE, outputFile.getName(), start);
             return outputFile;
+        } catch (RenderCancelledException e) {
+            throw e;
         } catch (Exception e) {
             log.error("文档转换失败: {}", e.getMessage(), e);
             throw new RuntimeException("文档转换失败: " + e.getMessage(), e);
@@ -2,13 +2,7 @@ package cc.anqin.doc.convert.strategy;
 
 import cc.anqin.doc.convert.AbstractFileConverter;
 import cc.anqin.doc.convert.DocumentFormat;
-import cc.anqin.doc.utils.FileUtils;
 import cn.hutool.core.collection.CollUtil;
-import cn.hutool.core.io.FileUtil;
-import cn.hutool.core.lang.Assert;
-import io.woo.htmltopdf.HtmlToPdf;
-import io.woo.htmltopdf.HtmlToPdfObject;
-import io.woo.htmltopdf.PdfPageSize;
 import lombok.NoArgsConstructor;
 
 import java.io.File;
@@ -24,17 +18,22 @@ import java.util.Set;
 public class HtmlToPDFConvert extends AbstractFileConverter {
 
 
+    /**
+     * 将HTML文件转换为PDF
+     * <p>
+     * 转换在共享的 {@link HtmlToPdfPool} 中执行，受并发上限与超时控制，页面尺寸使用传入的宽高。
+     * </p>
+     *
+     * @param outputFile 输出PDF文件
+     * @param inputFile 输入HTML文件
+     * @param width 页面宽度（毫米）
+     * @param height 页面高度（毫米）
+     * @param type 目标格式
+     * @return 输出PDF文件
+     */
     @Override
     public File convert(File outputFile, File inputFile, double width, double height, DocumentFormat type) {
-
-        boolean convert = HtmlToPdf.create()
-                .pageSize(PdfPageSize.A4)
-                .object(HtmlToPdfObject.forUrl(inputFile.getAbsolutePath()))
-                .convert(outputFile.getAbsolutePath());
-
-        Assert.isTrue(convert, "文档转换失败：" + inputFile.getAbsolutePath());
-
-        return outputFile;
+        return HtmlToPdfPool.shared().convert(inputFile, outputFile, width, height);
     }
 
 
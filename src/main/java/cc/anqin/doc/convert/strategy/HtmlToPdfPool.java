@@ -0,0 +1,490 @@
+package cc.anqin.doc.convert.strategy;
+
+import cc.anqin.doc.concurrent.Deadline;
+import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.ex.RenderCancelledException;
+import cc.anqin.doc.ex.RenderTimeoutException;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.thread.ExecutorBuilder;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.NumberUtil;
+import cn.hutool.core.util.StrUtil;
+import io.woo.htmltopdf.HtmlToPdf;
+import io.woo.htmltopdf.HtmlToPdfObject;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTML 转 PDF 工作池
+ * <p>
+ * wkhtmltopdf 的每次转换都是一次较重的原生调用，原先 {@link HtmlToPDFConvert} 每次调用都直接执行转换，
+ * 并发没有上限，也没有超时控制，页面尺寸固定为A4。该工作池统一管理所有HTML转PDF任务：
+ * </p>
+ * <p>
+ * 主要功能：
+ * <ul>
+ *   <li>并发上限 - 同时执行的转换数量不超过上限，超出的任务排队等待</li>
+ *   <li>任务超时 - 等待和执行的总时长超过超时时间（或调用方渲染任务剩余的时间）时，
+ *   调用方立即以 {@link RenderTimeoutException} 失败</li>
+ *   <li>熔断 - 全部名额都被已放弃但仍未结束的转换占用时，新任务立即失败，不再排队等待</li>
+ *   <li>自定义页面尺寸 - 使用调用方传入的宽高（毫米）</li>
+ *   <li>免临时文件 - 支持直接转换HTML字符串或输入流，结果写入输出流</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 两种执行方式：
+ * <ul>
+ *   <li>独立进程（配置了 wkhtmltopdf 可执行文件时）- 每个任务启动一个 wkhtmltopdf 进程，HTML 经标准输入传入，
+ *   PDF 从标准输出读取。并发上限即同时运行的进程数，超时的进程被强制终止，名额随进程退出归还</li>
+ *   <li>进程内（默认）- 通过 htmltopdf 以 JNA 在当前进程内调用 wkhtmltox。htmltopdf 把所有转换交给
+ *   同一个单线程执行，并发上限固定为1。原生调用无法被终止，超时的任务只从调用方解绑，
+ *   其名额在 htmltopdf 的转换真正结束后才归还；该转换挂起时工作池熔断，新任务以 {@link DocumentException} 立即失败，
+ *   转换结束后自动恢复</li>
+ * </ul>
+ * 需要并发转换或可靠终止挂起转换时，应安装 wkhtmltopdf 并配置其可执行文件。
+ * </p>
+ * <p>
+ * 默认配置可通过系统属性修改：
+ * <pre>
+ * System.setProperty("smart.doc.html.binary", "/usr/local/bin/wkhtmltopdf");   // wkhtmltopdf 可执行文件，未配置时在进程内转换
+ * System.setProperty("smart.doc.html.concurrency", "4");   // 独立进程的并发上限，默认CPU核数的一半
+ * System.setProperty("smart.doc.html.timeout", "60000");   // 超时毫秒数，默认60秒
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see HtmlToPDFConvert HTML 转 PDF转换
+ */
+@Slf4j
+public class HtmlToPdfPool {
+
+    /** 共享实例，首次使用时按系统属性创建 */
+    private static volatile HtmlToPdfPool shared;
+
+    /** 并发上限 */
+    @Getter
+    private final int maxConcurrent;
+
+    /** 超时时间（毫秒） */
+    @Getter
+    private final long timeoutMillis;
+
+    /** wkhtmltopdf 可执行文件，为null时在进程内转换 */
+    @Getter
+    private final String binary;
+
+    /** 并发名额 */
+    private final Semaphore permits;
+
+    /** 执行转换的线程池 */
+    private final ExecutorService executor;
+
+    /** 已超时放弃但尚未结束的任务数 */
+    private final AtomicInteger abandoned = new AtomicInteger();
+
+    /**
+     * 创建在进程内转换的工作池
+     * <p>
+     * htmltopdf 串行执行全部转换，并发上限固定为1。
+     * </p>
+     *
+     * @param timeoutMillis 单个任务超时时间（毫秒），必须大于0
+     */
+    public HtmlToPdfPool(long timeoutMillis) {
+        this(1, timeoutMillis, null);
+    }
+
+    /**
+     * 创建工作池
+     *
+     * @param maxConcurrent 并发上限，必须大于0；进程内转换时只能为1
+     * @param timeoutMillis 单个任务超时时间（毫秒），必须大于0
+     * @param binary        wkhtmltopdf 可执行文件，为null时在进程内转换
+     */
+    public HtmlToPdfPool(int maxConcurrent, long timeoutMillis, String binary) {
+        if (maxConcurrent <= 0 || timeoutMillis <= 0) {
+            throw new IllegalArgumentException("并发上限和超时时间必须大于0");
+        }
+        if (binary == null && maxConcurrent != 1) {
+            throw new IllegalArgumentException("htmltopdf 串行执行进程内的转换，并发上限只能为1，并发转换需配置 wkhtmltopdf 可执行文件");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.timeoutMillis = timeoutMillis;
+        this.binary = binary;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.executor = ExecutorBuilder.create()
+                .setCorePoolSize(maxConcurrent)
+                .setMaxPoolSize(maxConcurrent)
+                .setWorkQueue(new LinkedBlockingQueue<>())
+                .setThreadFactory(new NamedThreadFactory("smart-doc-html-", true))
+                .build();
+    }
+
+    /**
+     * 获取共享工作池
+     *
+     * @return {@link HtmlToPdfPool }
+     */
+    public static HtmlToPdfPool shared() {
+        if (shared == null) {
+            synchronized (HtmlToPdfPool.class) {
+                if (shared == null) {
+                    long timeout = NumberUtil.parseLong(System.getProperty("smart.doc.html.timeout"), 60_000L);
+                    String binary = StrUtil.emptyToNull(StrUtil.trim(System.getProperty("smart.doc.html.binary")));
+                    if (binary == null) {
+                        if (System.getProperty("smart.doc.html.concurrency") != null) {
+                            log.warn("未配置 smart.doc.html.binary，HTML转PDF在进程内串行执行，忽略 smart.doc.html.concurrency");
+                        }
+                        shared = new HtmlToPdfPool(timeout);
+                    } else {
+                        int concurrency = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+                        shared = new HtmlToPdfPool(
+                                NumberUtil.parseInt(System.getProperty("smart.doc.html.concurrency"), concurrency), timeout, binary);
+                    }
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * 转换HTML文件或URL到PDF文件
+     *
+     * @param inputFile  HTML文件
+     * @param outputFile 输出PDF文件
+     * @param width      页面宽度（毫米）
+     * @param height     页面高度（毫米）
+     * @return 输出PDF文件
+     */
+    public File convert(File inputFile, File outputFile, double width, double height) {
+        String source = inputFile.getAbsolutePath();
+        Boolean success = execute(source, task -> {
+            if (binary == null) {
+                return pageSetting(width, height)
+                        .object(HtmlToPdfObject.forUrl(source))
+                        .convert(outputFile.getAbsolutePath());
+            }
+            Process process = task.start(command(width, height, source, outputFile.getAbsolutePath()));
+            process.getOutputStream().close();
+            return process.waitFor() == 0;
+        });
+        if (!Boolean.TRUE.equals(success)) {
+            throw new DocumentException("文档转换失败：" + source);
+        }
+        return outputFile;
+    }
+
+    /**
+     * 转换HTML字符串到输出流
+     * <p>
+     * 转换成功后才写入输出流，超时或失败时输出流不会被写入。输出流由调用方负责关闭。
+     * </p>
+     *
+     * @param html   HTML内容
+     * @param out    输出流
+     * @param width  页面宽度（毫米）
+     * @param height 页面高度（毫米）
+     */
+    public void convert(String html, OutputStream out, double width, double height) {
+        byte[] pdf = execute("html", task -> {
+            if (binary == null) {
+                try (InputStream in = pageSetting(width, height).object(HtmlToPdfObject.forHtml(html)).convert()) {
+                    return IoUtil.readBytes(in);
+                }
+            }
+            Process process = task.start(command(width, height, "-", "-"));
+            // wkhtmltopdf 读完标准输入后才开始排版，先写入再读取不会互相阻塞
+            try (OutputStream stdin = process.getOutputStream()) {
+                stdin.write(html.getBytes(StandardCharsets.UTF_8));
+            }
+            byte[] bytes;
+            try (InputStream stdout = process.getInputStream()) {
+                bytes = IoUtil.readBytes(stdout);
+            }
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new DocumentException("wkhtmltopdf 退出码：" + exitCode);
+            }
+            return bytes;
+        });
+        IoUtil.copy(new ByteArrayInputStream(pdf), out);
+    }
+
+    /**
+     * 转换HTML输入流到输出流
+     * <p>
+     * 输入流按UTF-8读取，输入流与输出流均由调用方负责关闭。
+     * </p>
+     *
+     * @param html   HTML输入流
+     * @param out    输出流
+     * @param width  页面宽度（毫米）
+     * @param height 页面高度（毫米）
+     */
+    public void convert(InputStream html, OutputStream out, double width, double height) {
+        convert(html, StandardCharsets.UTF_8, out, width, height);
+    }
+
+    /**
+     * 按指定编码转换HTML输入流到输出流
+     *
+     * @param html    HTML输入流
+     * @param charset 编码
+     * @param out     输出流
+     * @param width   页面宽度（毫米）
+     * @param height  页面高度（毫米）
+     */
+    public void convert(InputStream html, Charset charset, OutputStream out, double width, double height) {
+        convert(IoUtil.read(html, charset), out, width, height);
+    }
+
+    /**
+     * 当前正在执行（含已超时但尚未结束）的任务数
+     *
+     * @return int
+     */
+    public int activeCount() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * 当前等待名额的任务数
+     *
+     * @return int
+     */
+    public int queuedCount() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * 已超时放弃但尚未结束的任务数
+     *
+     * @return int
+     */
+    public int abandonedCount() {
+        return abandoned.get();
+    }
+
+    /**
+     * 是否已熔断，即全部名额都被已放弃的任务占用
+     *
+     * @return boolean
+     */
+    public boolean isTripped() {
+        return abandoned.get() >= maxConcurrent;
+    }
+
+    /**
+     * 在名额限制和超时控制下执行转换任务
+     * <p>
+     * 工作线程只在转换真正结束后归还名额：独立进程在进程退出后结束；进程内转换时工作线程阻塞等待 htmltopdf 的转换，
+     * 超时后不中断工作线程，使其生命周期与 htmltopdf 中的转换一致。
+     * </p>
+     *
+     * @param source 任务描述，用于日志与异常信息
+     * @param job    转换任务
+     * @return 任务结果
+     */
+    private <R> R execute(String source, Job<R> job) {
+        // 取工作池超时与调用方渲染任务剩余时间中较短的一个
+        long timeoutNanos = Math.min(TimeUnit.MILLISECONDS.toNanos(timeoutMillis), Deadline.current().remainingNanos());
+        long deadline = System.nanoTime() + timeoutNanos;
+        if (isTripped()) {
+            throw new DocumentException("HTML转PDF工作池已熔断，全部 " + maxConcurrent + " 个名额被超时未结束的转换占用：" + source);
+        }
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new RenderTimeoutException("HTML转PDF排队超时：" + source);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RenderCancelledException(e, "HTML转PDF被中断：" + source);
+        }
+
+        Task task = new Task(source);
+        Future<R> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    return task.begin() ? job.run(task) : null;
+                } finally {
+                    task.finish();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw new DocumentException(e, "HTML转PDF任务提交失败：" + source);
+        }
+
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            task.abandon();
+            log.warn("HTML转PDF超时 {}ms，已放弃任务：{}", TimeUnit.NANOSECONDS.toMillis(timeoutNanos), source);
+            throw new RenderTimeoutException(e, "HTML转PDF超时：" + source);
+        } catch (InterruptedException e) {
+            task.abandon();
+            Thread.currentThread().interrupt();
+            throw new RenderCancelledException(e, "HTML转PDF被中断：" + source);
+        } catch (ExecutionException e) {
+            throw new DocumentException(e.getCause(), "HTML转PDF失败：" + source);
+        }
+    }
+
+    /**
+     * 构建 wkhtmltopdf 命令
+     *
+     * @param width  页面宽度（毫米）
+     * @param height 页面高度（毫米）
+     * @param input  输入文件、URL，或 "-" 表示标准输入
+     * @param output 输出文件，或 "-" 表示标准输出
+     * @return 命令及参数
+     */
+    private List<String> command(double width, double height, String input, String output) {
+        List<String> command = new ArrayList<>(Arrays.asList(binary, "--quiet",
+                "--page-width", NumberUtil.toStr(width) + "mm",
+                "--page-height", NumberUtil.toStr(height) + "mm",
+                "--encoding", "utf-8"));
+        command.add(input);
+        command.add(output);
+        return command;
+    }
+
+    /**
+     * 创建带页面尺寸的转换配置
+     * <p>
+     * htmltopdf 没有直接设置宽高的方法，通过 wkhtmltopdf 的全局设置 size.width / size.height 传入。
+     * </p>
+     *
+     * @param width  页面宽度（毫米）
+     * @param height 页面高度（毫米）
+     * @return {@link HtmlToPdf }
+     */
+    private static HtmlToPdf pageSetting(double width, double height) {
+        // 转换配置会继续写入该 Map，必须可修改
+        Map<String, String> settings = new HashMap<>();
+        settings.put("size.width", NumberUtil.toStr(width) + "mm");
+        settings.put("size.height", NumberUtil.toStr(height) + "mm");
+        return HtmlToPdf.create(settings);
+    }
+
+    /**
+     * 转换任务
+     */
+    @FunctionalInterface
+    private interface Job<R> {
+
+        /**
+         * 在工作线程中执行转换
+         *
+         * @param task 任务状态，用于登记启动的进程
+         * @return 转换结果
+         * @throws Exception 转换失败
+         */
+        R run(Task task) throws Exception;
+    }
+
+    /**
+     * 单个任务的状态，协调工作线程与超时放弃的调用方
+     */
+    private final class Task {
+
+        private final String source;
+
+        /** 工作线程已开始执行 */
+        private boolean running;
+
+        /** 工作线程已结束 */
+        private boolean finished;
+
+        /** 调用方已放弃 */
+        private boolean gaveUp;
+
+        /** 独立进程 */
+        private Process process;
+
+        private Task(String source) {
+            this.source = source;
+        }
+
+        /**
+         * 工作线程开始执行
+         *
+         * @return 调用方已放弃时返回false，任务不再执行
+         */
+        private synchronized boolean begin() {
+            running = !gaveUp;
+            return running;
+        }
+
+        /**
+         * 启动并登记 wkhtmltopdf 进程，调用方已放弃时立即终止
+         *
+         * @param command 命令及参数
+         * @return {@link Process }
+         * @throws Exception 启动失败，或调用方已放弃
+         */
+        private Process start(List<String> command) throws Exception {
+            Process started = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.appendTo(new File(FileUtil.isWindows() ? "NUL" : "/dev/null")))
+                    .start();
+            synchronized (this) {
+                process = started;
+                if (gaveUp) {
+                    started.destroyForcibly();
+                    throw new CancellationException("HTML转PDF已放弃：" + source);
+                }
+            }
+            return started;
+        }
+
+        /**
+         * 工作线程结束，归还名额
+         */
+        private void finish() {
+            synchronized (this) {
+                finished = true;
+                if (gaveUp && running) {
+                    abandoned.decrementAndGet();
+                    log.info("已放弃的HTML转PDF任务结束，归还名额：{}", source);
+                }
+            }
+            permits.release();
+        }
+
+        /**
+         * 调用方放弃任务：未开始的任务不再执行；执行中的独立进程被强制终止，进程内转换计入放弃数直到结束
+         */
+        private synchronized void abandon() {
+            if (finished || gaveUp) {
+                return;
+            }
+            gaveUp = true;
+            if (!running) {
+                return;
+            }
+            if (process != null) {
+                process.destroyForcibly();
+            }
+            if (abandoned.incrementAndGet() >= maxConcurrent) {
+                log.error("HTML转PDF工作池熔断：全部 {} 个名额被超时未结束的转换占用", maxConcurrent);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package cc.anqin.doc.entity;
+
+import cc.anqin.doc.word.schema.PlaceholderSchema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Map 实体
+ * <p>
+ * 模板由业务人员维护、没有对应实体类时，直接以 {@code Map<String, Object>} 作为数据，
+ * 占位符类型由 {@link PlaceholderSchema} 声明。渲染时填充器直接读取该 Map，不经过 ConvertMap 与反射。
+ * </p>
+ * <p>
+ * 取值约定：
+ * <ul>
+ *   <li>文本 - 字符串、数字、布尔、日期，或字符串列表（按拼接标签拼接）</li>
+ *   <li>图片 - URL字符串、{@link java.net.URL}、byte[]、File、Path 或 InputStream</li>
+ *   <li>动态行 - 列表，元素为 Map（列名 -&gt; 值）或实体对象</li>
+ * </ul>
+ * 未在声明中出现的键被忽略；声明中有但 Map 中没有值的占位符在清除阶段被清空。
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * Map&lt;String, Object&gt; data = new HashMap&lt;&gt;();
+ * data.put("name", "张三");
+ * data.put("logo", "https://example.com/logo.png");
+ * data.put("items", Arrays.asList(row1, row2));
+ *
+ * PlaceholderSchema schema = PlaceholderSchema.create().text("name").pic("logo", 30, 30).rows("items", "name", "qty");
+ * File pdf = FT.of(MapEntity.of(data, schema), templateFile).fer().deleteConvert(DocumentFormat.PDF);
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see PlaceholderSchema 占位符声明
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Accessors(chain = true)
+public class MapEntity extends Template {
+
+    /** 占位符数据 */
+    private Map<String, Object> data = new LinkedHashMap<>();
+
+    /** 占位符声明 */
+    private PlaceholderSchema schema = PlaceholderSchema.create();
+
+    /**
+     * 创建 Map 实体
+     *
+     * @param data   占位符数据
+     * @param schema 占位符声明
+     * @return {@link MapEntity }
+     */
+    public static MapEntity of(Map<String, Object> data, PlaceholderSchema schema) {
+        return new MapEntity().setData(data).setSchema(schema);
+    }
+}
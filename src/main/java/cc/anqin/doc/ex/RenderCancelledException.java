@@ -0,0 +1,39 @@
+package cc.anqin.doc.ex;
+
+/**
+ * 渲染取消异常
+ * <p>
+ * 当模板填充或文件转换在完成前被取消时抛出，包括调用方线程被中断、调用方已放弃等待
+ * 而排队中的任务在开始前被跳过等情况。超时是取消的一种，见 {@link RenderTimeoutException}。
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * try {
+ *     FT.of(entity, templateFile).setTimeout(Duration.ofSeconds(10)).fer();
+ * } catch (RenderTimeoutException e) {
+ *     // 超时
+ * } catch (RenderCancelledException e) {
+ *     // 被取消
+ * }
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see cc.anqin.doc.concurrent.Deadline 截止时间
+ */
+public class RenderCancelledException extends DocumentException {
+
+    public RenderCancelledException(String errMsg) {
+        super((Throwable) null, errMsg);
+    }
+
+    public RenderCancelledException(Throwable throwable) {
+        super(throwable);
+    }
+
+    public RenderCancelledException(Throwable throwable, String errMsg) {
+        super(throwable, errMsg);
+    }
+}
@@ -0,0 +1,27 @@
+package cc.anqin.doc.ex;
+
+/**
+ * 渲染超时异常
+ * <p>
+ * 当模板填充或文件转换超过设置的截止时间时抛出。调用方会在截止时间到达后立即收到该异常，
+ * 执行中的任务会被中断，并在下一个检查点停止。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see cc.anqin.doc.concurrent.Deadline 截止时间
+ */
+public class RenderTimeoutException extends RenderCancelledException {
+
+    public RenderTimeoutException(String errMsg) {
+        super(errMsg);
+    }
+
+    public RenderTimeoutException(Throwable throwable) {
+        super(throwable);
+    }
+
+    public RenderTimeoutException(Throwable throwable, String errMsg) {
+        super(throwable, errMsg);
+    }
+}
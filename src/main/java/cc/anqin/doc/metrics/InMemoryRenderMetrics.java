@@ -0,0 +1,163 @@
+package cc.anqin.doc.metrics;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 内存指标实现
+ * <p>
+ * 在内存中累计每个计时指标的次数、总耗时和最大耗时，以及每个计数指标的累计值，
+ * 适用于本地排查、测试和简单的监控接口。
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * InMemoryRenderMetrics metrics = new InMemoryRenderMetrics();
+ * Metrics.register(metrics);
+ *
+ * FT.of(entity, templateFile, DocumentFormat.PDF).fer();
+ *
+ * metrics.timers().forEach((name, timer) -&gt; System.out.println(name + " " + timer));
+ * System.out.println(metrics.counters());
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see Metrics 指标入口
+ */
+public class InMemoryRenderMetrics implements RenderMetrics {
+
+    /** 计时指标 */
+    private final Map<String, TimerStats> timers = new ConcurrentHashMap<>();
+
+    /** 计数指标 */
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordTime(String name, long nanos) {
+        timers.computeIfAbsent(name, k -> new TimerStats()).record(nanos);
+    }
+
+    @Override
+    public void increment(String name, long delta) {
+        counters.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * 计时指标快照，按指标名排序
+     *
+     * @return 指标名到快照的映射
+     */
+    public Map<String, TimerSnapshot> timers() {
+        Map<String, TimerSnapshot> snapshot = new TreeMap<>();
+        timers.forEach((name, stats) -> snapshot.put(name, stats.snapshot()));
+        return snapshot;
+    }
+
+    /**
+     * 计数指标快照，按指标名排序
+     *
+     * @return 指标名到累计值的映射
+     */
+    public Map<String, Long> counters() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((name, adder) -> snapshot.put(name, adder.sum()));
+        return snapshot;
+    }
+
+    /**
+     * 获取单个计时指标
+     *
+     * @param name 指标名
+     * @return {@link TimerSnapshot }，未记录过时返回 null
+     */
+    public TimerSnapshot timer(String name) {
+        TimerStats stats = timers.get(name);
+        return stats == null ? null : stats.snapshot();
+    }
+
+    /**
+     * 获取单个计数指标
+     *
+     * @param name 指标名
+     * @return 累计值，未记录过时返回0
+     */
+    public long counter(String name) {
+        LongAdder adder = counters.get(name);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    /**
+     * 清空所有指标
+     */
+    public void reset() {
+        timers.clear();
+        counters.clear();
+    }
+
+    /**
+     * 计时累计值
+     */
+    private static final class TimerStats {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        private TimerSnapshot snapshot() {
+            return new TimerSnapshot(count.sum(), totalNanos.sum(), maxNanos.get());
+        }
+    }
+
+    /**
+     * 计时指标快照
+     */
+    @Getter
+    public static final class TimerSnapshot {
+
+        /** 次数 */
+        private final long count;
+
+        /** 总耗时（纳秒） */
+        private final long totalNanos;
+
+        /** 最大耗时（纳秒） */
+        private final long maxNanos;
+
+        private TimerSnapshot(long count, long totalNanos, long maxNanos) {
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        /**
+         * 平均耗时（毫秒）
+         *
+         * @return double
+         */
+        public double meanMillis() {
+            return count == 0 ? 0D : (double) totalNanos / count / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, mean=%.3fms, max=%.3fms, total=%.3fms", count, meanMillis(),
+                    maxNanos / 1e6, totalNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package cc.anqin.doc.metrics;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * 渲染指标名
+ * <p>
+ * 计时类指标单位为纳秒，计数类指标为累计值。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see RenderMetrics 渲染指标SPI
+ */
+@UtilityClass
+public class MetricNames {
+
+    /** 计时：一次模板填充的总耗时 */
+    public final String RENDER = "smart.doc.render";
+
+    /** 计时：加载模板 */
+    public final String TEMPLATE_LOAD = "smart.doc.template.load";
+
+    /** 计时：从快照加载已编译模板 */
+    public final String TEMPLATE_SNAPSHOT_HIT = "smart.doc.template.snapshot.hit";
+
+    /** 计时：没有可用快照，编译模板并写入快照 */
+    public final String TEMPLATE_SNAPSHOT_MISS = "smart.doc.template.snapshot.miss";
+
+    /** 计时：文本占位符填充 */
+    public final String FILLER_TEXT = "smart.doc.filler.text";
+
+    /** 计时：图片占位符填充 */
+    public final String FILLER_IMAGE = "smart.doc.filler.image";
+
+    /** 计时：动态行占位符填充 */
+    public final String FILLER_DYNAMIC_ROW = "smart.doc.filler.dynamic_row";
+
+    /** 计时：获取单张图片（下载、解码或读取） */
+    public final String IMAGE_FETCH = "smart.doc.image.fetch";
+
+    /** 计时：解析延迟取值（Supplier/Future） */
+    public final String LAZY_RESOLVE = "smart.doc.lazy.resolve";
+
+    /** 计时：保存模板记录文件 */
+    public final String RECORD_SAVE = "smart.doc.record.save";
+
+    /** 计时：在内存中的文档上一次遍历清除未填充占位符（不重新加载记录文件） */
+    public final String CLEAR_VARIABLE = "smart.doc.clear";
+
+    /** 计时：保存最终文件 */
+    public final String FINAL_SAVE = "smart.doc.save";
+
+    /** 计时：一次格式转换 */
+    public final String CONVERT = "smart.doc.convert";
+
+    /** 计时：转换时加载源文档 */
+    public final String CONVERT_LOAD = "smart.doc.convert.load";
+
+    /** 计时：转换时保存目标文档 */
+    public final String CONVERT_SAVE = "smart.doc.convert.save";
+
+    /** 计时：转换缓存命中（查找并拷贝） */
+    public final String CONVERT_CACHE_HIT = "smart.doc.convert.cache.hit";
+
+    /** 计时：转换缓存未命中（查找） */
+    public final String CONVERT_CACHE_MISS = "smart.doc.convert.cache.miss";
+
+    /** 计数：模板填充分配的堆内存字节数（含并行填充器线程） */
+    public final String FILL_ALLOCATED_BYTES = "smart.doc.render.allocated.bytes";
+
+    /** 计时：模板填充消耗的CPU时间（含并行填充器线程） */
+    public final String FILL_CPU = "smart.doc.render.cpu";
+
+    /** 计数：格式转换分配的堆内存字节数 */
+    public final String CONVERT_ALLOCATED_BYTES = "smart.doc.convert.allocated.bytes";
+
+    /** 计时：格式转换消耗的CPU时间 */
+    public final String CONVERT_CPU = "smart.doc.convert.cpu";
+
+    /** 计数：写出的字节数（记录文件、最终文件、转换结果） */
+    public final String BYTES_WRITTEN = "smart.doc.bytes.written";
+
+    /** 计数：替换的占位符个数 */
+    public final String PLACEHOLDERS_REPLACED = "smart.doc.placeholders.replaced";
+
+    /** 计数：生成的动态表格行数 */
+    public final String ROWS_GENERATED = "smart.doc.rows.generated";
+}
@@ -0,0 +1,138 @@
+package cc.anqin.doc.metrics;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * 渲染指标入口
+ * <p>
+ * 渲染管线通过该类上报指标。当前实现按以下顺序确定：
+ * <ol>
+ *   <li>通过 {@link #register(RenderMetrics)} 显式注册的实现</li>
+ *   <li>classpath 中 META-INF/services/cc.anqin.doc.metrics.RenderMetrics 声明的第一个实现</li>
+ *   <li>{@link NoopRenderMetrics}</li>
+ * </ol>
+ * 使用空实现时 {@link #start()} 返回0且不读取时钟，上报方法直接返回，对渲染几乎没有开销。
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * long start = Metrics.start();
+ * Document doc = load(template);
+ * Metrics.stop(MetricNames.TEMPLATE_LOAD, start);
+ * Metrics.count(MetricNames.BYTES_WRITTEN, file.length());
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see RenderMetrics 渲染指标SPI
+ * @see MetricNames 指标名
+ */
+@Slf4j
+@UtilityClass
+public class Metrics {
+
+    /** 当前实现，null 表示尚未初始化 */
+    private volatile RenderMetrics current;
+
+    /**
+     * 获取当前指标实现
+     *
+     * @return {@link RenderMetrics }
+     */
+    public RenderMetrics get() {
+        RenderMetrics metrics = current;
+        if (metrics == null) {
+            synchronized (Metrics.class) {
+                if (current == null) {
+                    current = load();
+                }
+                metrics = current;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * 注册指标实现，替换当前实现
+     *
+     * @param metrics 指标实现，为null时恢复为空实现
+     */
+    public void register(RenderMetrics metrics) {
+        current = metrics == null ? NoopRenderMetrics.INSTANCE : metrics;
+    }
+
+    /**
+     * 是否启用了指标上报
+     *
+     * @return boolean
+     */
+    public boolean enabled() {
+        return get() != NoopRenderMetrics.INSTANCE;
+    }
+
+    /**
+     * 开始计时
+     *
+     * @return 开始时间（纳秒），未启用时返回0
+     */
+    public long start() {
+        return enabled() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * 结束计时并上报
+     *
+     * @param name  指标名
+     * @param start {@link #start()} 的返回值，为0（计时开始时未启用）时忽略
+     */
+    public void stop(String name, long start) {
+        RenderMetrics metrics = get();
+        if (start != 0L && metrics != NoopRenderMetrics.INSTANCE) {
+            metrics.recordTime(name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 上报已测得的耗时
+     *
+     * @param name  指标名
+     * @param nanos 耗时（纳秒），小于0时忽略
+     */
+    public void time(String name, long nanos) {
+        RenderMetrics metrics = get();
+        if (nanos >= 0 && metrics != NoopRenderMetrics.INSTANCE) {
+            metrics.recordTime(name, nanos);
+        }
+    }
+
+    /**
+     * 累加计数
+     *
+     * @param name  指标名
+     * @param delta 增量，小于等于0时忽略
+     */
+    public void count(String name, long delta) {
+        if (delta > 0) {
+            get().increment(name, delta);
+        }
+    }
+
+    private RenderMetrics load() {
+        try {
+            Iterator<RenderMetrics> iterator = ServiceLoader.load(RenderMetrics.class).iterator();
+            if (iterator.hasNext()) {
+                RenderMetrics metrics = iterator.next();
+                log.info("使用渲染指标实现：{}", metrics.getClass().getName());
+                return metrics;
+            }
+        } catch (Throwable e) {
+            log.warn("加载渲染指标实现失败，使用空实现", e);
+        }
+        return NoopRenderMetrics.INSTANCE;
+    }
+}
@@ -0,0 +1,24 @@
+package cc.anqin.doc.metrics;
+
+/**
+ * 空指标实现，未注册任何实现时使用，不做任何处理
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see Metrics 指标入口
+ */
+public enum NoopRenderMetrics implements RenderMetrics {
+
+    /**
+     * 单例
+     */
+    INSTANCE;
+
+    @Override
+    public void recordTime(String name, long nanos) {
+    }
+
+    @Override
+    public void increment(String name, long delta) {
+    }
+}
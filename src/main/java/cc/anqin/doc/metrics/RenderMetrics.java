@@ -0,0 +1,54 @@
+package cc.anqin.doc.metrics;
+
+/**
+ * 渲染指标SPI
+ * <p>
+ * 渲染管线在各阶段结束时通过该接口上报耗时与计数，指标名见 {@link MetricNames}。
+ * 该接口不依赖任何指标库，接入 Micrometer、Prometheus 等系统时只需实现两个方法：
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * public class MicrometerRenderMetrics implements RenderMetrics {
+ *     &#064;Override
+ *     public void recordTime(String name, long nanos) {
+ *         registry.timer(name).record(nanos, TimeUnit.NANOSECONDS);
+ *     }
+ *
+ *     &#064;Override
+ *     public void increment(String name, long delta) {
+ *         registry.counter(name).increment(delta);
+ *     }
+ * }
+ *
+ * // 显式注册，或在 META-INF/services/cc.anqin.doc.metrics.RenderMetrics 中声明实现类
+ * Metrics.register(new MicrometerRenderMetrics());
+ * </pre>
+ * </p>
+ * <p>
+ * 实现类会在渲染线程中被并发调用，必须是线程安全的，并且应当足够轻量。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see Metrics 指标入口
+ * @see InMemoryRenderMetrics 内存指标
+ */
+public interface RenderMetrics {
+
+    /**
+     * 记录一次耗时
+     *
+     * @param name  指标名
+     * @param nanos 耗时（纳秒）
+     */
+    void recordTime(String name, long nanos);
+
+    /**
+     * 累加计数
+     *
+     * @param name  指标名
+     * @param delta 增量
+     */
+    void increment(String name, long delta);
+}
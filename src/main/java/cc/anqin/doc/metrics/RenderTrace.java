@@ -0,0 +1,447 @@
+package cc.anqin.doc.metrics;
+
+import cn.hutool.core.util.NumberUtil;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 单次渲染追踪报告
+ * <p>
+ * {@link Metrics} 汇总的是所有渲染的聚合指标，无法回答某一份文档为什么慢。渲染追踪只针对一次渲染，
+ * 按时间顺序记录每个阶段、每个填充器、每个字段的耗时，以及替换调用次数、扫描的表格与行数、图片字节数、
+ * 转换各阶段的耗时，可以导出为JSON。
+ * </p>
+ * <p>
+ * 追踪是可选的：
+ * <ul>
+ *   <li>未启用时使用 {@link #none()}，记录方法直接返回且不读取时钟</li>
+ *   <li>通过 {@link #sample(String, Boolean)} 按系统属性 smart.doc.trace.sample 的比例（0~1，默认0）抽样，
+ *   例如设置为0.01即追踪1%的渲染</li>
+ *   <li>{@link cc.anqin.doc.FT#setTraced(Boolean)} 为true时总是追踪，为false时从不追踪</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 与 {@link cc.anqin.doc.concurrent.Deadline} 一样，追踪通过 {@link #within(Supplier)} 绑定到当前线程，
+ * 并行流的工作线程不继承绑定，由 {@link cc.anqin.doc.word.PlaceholderFactory} 显式传递给各填充器。
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * FT&lt;MyTemplate&gt; ft = FT.of(entity, templateFile).setTraced(true).fer();
+ * ft.convertNewFile(DocumentFormat.PDF);
+ * log.info(ft.getTrace().toJson());
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see Metrics 渲染指标
+ */
+public final class RenderTrace {
+
+    /** 计数：range.replace 调用次数 */
+    public static final String REPLACE_CALLS = "replaceCalls";
+
+    /** 计数：替换的占位符数 */
+    public static final String PLACEHOLDERS_REPLACED = "placeholdersReplaced";
+
+    /** 计数：扫描的表格数 */
+    public static final String TABLES_SCANNED = "tablesScanned";
+
+    /** 计数：扫描的表格行数 */
+    public static final String ROWS_SCANNED = "rowsScanned";
+
+    /** 计数：生成的动态行数 */
+    public static final String ROWS_GENERATED = "rowsGenerated";
+
+    /** 计数：插入的图片字节数 */
+    public static final String IMAGE_BYTES = "imageBytes";
+
+    /** 计数：写出的文件字节数 */
+    public static final String BYTES_WRITTEN = "bytesWritten";
+
+    /** 计数：模板填充分配的堆内存字节数 */
+    public static final String ALLOCATED_BYTES = "allocatedBytes";
+
+    /** 计数：模板填充消耗的CPU时间（纳秒） */
+    public static final String CPU_NANOS = "cpuNanos";
+
+    /** 抽样比例 */
+    private static final double SAMPLE_RATE = NumberUtil.parseDouble(System.getProperty("smart.doc.trace.sample"), 0D);
+
+    /** 未启用的追踪 */
+    private static final RenderTrace NONE = new RenderTrace(null, false);
+
+    /** 当前线程绑定的追踪 */
+    private static final ThreadLocal<RenderTrace> CURRENT = new ThreadLocal<>();
+
+    /** 追踪名称，通常为模板文件名 */
+    @Getter
+    private final String name;
+
+    /** 是否启用 */
+    @Getter
+    private final boolean enabled;
+
+    /** 开始时间（毫秒时间戳） */
+    @Getter
+    private final long startedAt;
+
+    /** 开始时间（纳秒，仅用于计算偏移） */
+    private final long startNanos;
+
+    /** 按记录顺序排列的耗时片段 */
+    private final List<Span> spans;
+
+    /** 计数 */
+    private final Map<String, LongAdder> counters;
+
+    private RenderTrace(String name, boolean enabled) {
+        this.name = name;
+        this.enabled = enabled;
+        this.startedAt = enabled ? System.currentTimeMillis() : 0L;
+        this.startNanos = enabled ? System.nanoTime() : 0L;
+        this.spans = enabled ? new ArrayList<>() : Collections.emptyList();
+        this.counters = enabled ? new ConcurrentHashMap<>() : Collections.emptyMap();
+    }
+
+    /**
+     * 未启用的追踪
+     *
+     * @return {@link RenderTrace }
+     */
+    public static RenderTrace none() {
+        return NONE;
+    }
+
+    /**
+     * 开始一次追踪
+     *
+     * @param name 追踪名称
+     * @return {@link RenderTrace }
+     */
+    public static RenderTrace start(String name) {
+        return new RenderTrace(name, true);
+    }
+
+    /**
+     * 按配置决定是否追踪
+     *
+     * @param name   追踪名称
+     * @param traced 为true时总是追踪，为false时从不追踪，为null时按 smart.doc.trace.sample 抽样
+     * @return 启用的追踪，或 {@link #none()}
+     */
+    public static RenderTrace sample(String name, Boolean traced) {
+        if (traced != null) {
+            return traced ? start(name) : NONE;
+        }
+        if (SAMPLE_RATE > 0 && ThreadLocalRandom.current().nextDouble() < SAMPLE_RATE) {
+            return start(name);
+        }
+        return NONE;
+    }
+
+    /**
+     * 获取当前线程绑定的追踪
+     *
+     * @return 当前追踪，未绑定时返回 {@link #none()}
+     */
+    public static RenderTrace current() {
+        RenderTrace trace = CURRENT.get();
+        return trace == null ? NONE : trace;
+    }
+
+    /**
+     * 将该追踪绑定到当前线程后执行任务，执行完成后恢复原绑定
+     *
+     * @param job 任务
+     * @return 任务结果
+     */
+    public <R> R within(Supplier<R> job) {
+        if (!enabled) {
+            return job.get();
+        }
+        RenderTrace previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return job.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 记录开始时刻
+     *
+     * @return 当前纳秒时间，未启用时返回0
+     */
+    public long mark() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * 记录渲染阶段耗时
+     *
+     * @param name 阶段名
+     * @param mark 开始时刻
+     */
+    public void phase(String name, long mark) {
+        span(Kind.PHASE, name, null, mark);
+    }
+
+    /**
+     * 记录填充器耗时
+     *
+     * @param filler 填充器指标名
+     * @param mark   开始时刻
+     */
+    public void filler(String filler, long mark) {
+        span(Kind.FILLER, filler, null, mark);
+    }
+
+    /**
+     * 记录单个字段的填充耗时
+     *
+     * @param filler 填充器指标名
+     * @param field  字段名
+     * @param mark   开始时刻
+     */
+    public void field(String filler, String field, long mark) {
+        span(Kind.FIELD, filler, field, mark);
+    }
+
+    /**
+     * 记录图片获取耗时
+     *
+     * @param field 字段名
+     * @param mark  开始时刻
+     */
+    public void fetch(String field, long mark) {
+        span(Kind.FETCH, MetricNames.IMAGE_FETCH, field, mark);
+    }
+
+    /**
+     * 记录转换阶段耗时
+     *
+     * @param name 阶段名
+     * @param file 转换的文件名
+     * @param mark 开始时刻
+     */
+    public void convert(String name, String file, long mark) {
+        span(Kind.CONVERT, name, file, mark);
+    }
+
+    /**
+     * 累加计数
+     *
+     * @param name  计数名
+     * @param delta 增量，小于等于0时忽略
+     */
+    public void count(String name, long delta) {
+        if (enabled && delta > 0) {
+            counters.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    /**
+     * 获取计数
+     *
+     * @param name 计数名
+     * @return 计数值，未记录时为0
+     */
+    public long counter(String name) {
+        LongAdder adder = counters.get(name);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    /**
+     * 计数快照
+     *
+     * @return 按名称排序的计数
+     */
+    public Map<String, Long> counters() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((k, v) -> snapshot.put(k, v.sum()));
+        return snapshot;
+    }
+
+    /**
+     * 耗时片段快照
+     *
+     * @return 按记录顺序排列的耗时片段
+     */
+    public List<Span> spans() {
+        if (!enabled) {
+            return Collections.emptyList();
+        }
+        synchronized (spans) {
+            return new ArrayList<>(spans);
+        }
+    }
+
+    /**
+     * 从开始到最后一个片段结束的耗时
+     *
+     * @return 纳秒
+     */
+    public long elapsedNanos() {
+        long elapsed = 0L;
+        for (Span span : spans()) {
+            elapsed = Math.max(elapsed, span.offsetNanos + span.durationNanos);
+        }
+        return elapsed;
+    }
+
+    /**
+     * 导出为JSON
+     * <p>
+     * 时间单位为毫秒，保留三位小数，例如：
+     * <pre>
+     * {"name":"contract.docx","startedAt":1792368000000,"elapsedMillis":812.304,
+     *  "counters":{"imageBytes":20480,"replaceCalls":37},
+     *  "spans":[{"kind":"phase","name":"smart.doc.template.load","offsetMillis":0.102,"durationMillis":95.511}, ...]}
+     * </pre>
+     * </p>
+     *
+     * @return JSON字符串
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"name\":").append(quote(name))
+                .append(",\"enabled\":").append(enabled)
+                .append(",\"startedAt\":").append(startedAt)
+                .append(",\"elapsedMillis\":").append(millis(elapsedNanos()))
+                .append(",\"counters\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : counters().entrySet()) {
+            json.append(first ? "" : ",").append(quote(entry.getKey())).append(':').append(entry.getValue());
+            first = false;
+        }
+        json.append("},\"spans\":[");
+        first = true;
+        for (Span span : spans()) {
+            json.append(first ? "" : ",").append(span.toJson());
+            first = false;
+        }
+        return json.append("]}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    private void span(Kind kind, String name, String detail, long mark) {
+        if (!enabled || mark == 0L) {
+            return;
+        }
+        Span span = new Span(kind, name, detail, mark - startNanos, System.nanoTime() - mark);
+        synchronized (spans) {
+            spans.add(span);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000D);
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * 片段类型
+     */
+    public enum Kind {
+        /** 渲染阶段：模板加载、保存、清理占位符等 */
+        PHASE,
+        /** 单个填充器 */
+        FILLER,
+        /** 单个字段 */
+        FIELD,
+        /** 图片获取 */
+        FETCH,
+        /** 格式转换阶段 */
+        CONVERT
+    }
+
+    /**
+     * 耗时片段
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Span {
+
+        /** 片段类型 */
+        private final Kind kind;
+
+        /** 名称：阶段名或填充器指标名 */
+        private final String name;
+
+        /** 补充信息：字段名或文件名，可能为null */
+        private final String detail;
+
+        /** 相对追踪开始的偏移（纳秒） */
+        private final long offsetNanos;
+
+        /** 耗时（纳秒） */
+        private final long durationNanos;
+
+        private String toJson() {
+            StringBuilder json = new StringBuilder(128)
+                    .append("{\"kind\":\"").append(kind.name().toLowerCase(Locale.ROOT)).append('"')
+                    .append(",\"name\":").append(quote(name));
+            if (detail != null) {
+                json.append(",\"detail\":").append(quote(detail));
+            }
+            return json.append(",\"offsetMillis\":").append(millis(offsetNanos))
+                    .append(",\"durationMillis\":").append(millis(durationNanos))
+                    .append('}').toString();
+        }
+    }
+}
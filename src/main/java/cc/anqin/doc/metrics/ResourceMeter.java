@@ -0,0 +1,197 @@
+package cc.anqin.doc.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 资源计量器
+ * <p>
+ * 基于 {@code ThreadMXBean} 统计一段工作分配的堆内存字节数与CPU时间。线程级统计只覆盖当前线程，
+ * 填充器运行在并行流的工作线程上，这部分消耗通过 {@link #track(Runnable)} 在工作线程上单独计量后汇总到计量器：
+ * </p>
+ * <p>
+ * <ul>
+ *   <li>{@link #start()} - 在当前线程开始计量，并绑定为当前线程的计量器</li>
+ *   <li>{@link #track(Runnable)} - 在其他线程执行的任务，计量其消耗并计入该计量器；在计量线程上执行时直接运行</li>
+ *   <li>{@link #stop()} - 结束计量，解除绑定，返回当前线程的消耗与其他线程汇总消耗之和</li>
+ * </ul>
+ * 同一线程上嵌套开始的计量器会把其他线程的消耗同时计入外层计量器，外层计量器因此得到完整的消耗，且不会重复计算。
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * ResourceMeter meter = ResourceMeter.start();
+ * list.parallelStream().forEach(item -&gt; meter.track(() -&gt; process(item)));
+ * ResourceUsage usage = meter.stop();
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see ResourceUsage 资源消耗
+ */
+@Slf4j
+public final class ResourceMeter {
+
+    /** 线程管理接口 */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /** HotSpot 扩展接口，不可用时为null */
+    private static final com.sun.management.ThreadMXBean HOTSPOT_THREADS = hotspot();
+
+    /** 是否支持线程CPU计时 */
+    private static final boolean CPU_SUPPORTED = cpuSupported();
+
+    /** 当前线程绑定的计量器 */
+    private static final ThreadLocal<ResourceMeter> CURRENT = new ThreadLocal<>();
+
+    /** 计量线程 */
+    private final Thread owner;
+
+    /** 外层计量器 */
+    private final ResourceMeter parent;
+
+    /** 开始时的线程累计分配字节数 */
+    private final long startAllocated;
+
+    /** 开始时的线程CPU时间 */
+    private final long startCpu;
+
+    /** 开始时刻 */
+    private final long startWall;
+
+    /** 其他线程分配的字节数 */
+    private final LongAdder foreignAllocated = new LongAdder();
+
+    /** 其他线程消耗的CPU时间 */
+    private final LongAdder foreignCpu = new LongAdder();
+
+    private ResourceMeter(ResourceMeter parent) {
+        this.owner = Thread.currentThread();
+        this.parent = parent;
+        this.startAllocated = allocatedBytes();
+        this.startCpu = cpuNanos();
+        this.startWall = System.nanoTime();
+    }
+
+    /**
+     * 在当前线程开始计量
+     *
+     * @return {@link ResourceMeter }
+     */
+    public static ResourceMeter start() {
+        ResourceMeter meter = new ResourceMeter(CURRENT.get());
+        CURRENT.set(meter);
+        return meter;
+    }
+
+    /**
+     * 当前JVM是否支持线程级内存分配与CPU时间统计
+     *
+     * @return boolean
+     */
+    public static boolean isSupported() {
+        return HOTSPOT_THREADS != null && CPU_SUPPORTED;
+    }
+
+    /**
+     * 执行任务并计入该计量器
+     * <p>
+     * 在计量线程上执行时直接运行（消耗已由计量线程的统计覆盖），在其他线程上执行时单独计量后汇总。
+     * </p>
+     *
+     * @param task 任务
+     */
+    public void track(Runnable task) {
+        if (Thread.currentThread() == owner) {
+            task.run();
+            return;
+        }
+        long allocated = allocatedBytes();
+        long cpu = cpuNanos();
+        try {
+            task.run();
+        } finally {
+            addForeign(allocatedBytes() - allocated, cpuNanos() - cpu);
+        }
+    }
+
+    /**
+     * 结束计量并解除当前线程的绑定
+     * <p>
+     * 必须在开始计量的线程上调用。
+     * </p>
+     *
+     * @return 资源消耗
+     */
+    public ResourceUsage stop() {
+        long allocated = allocatedBytes() - startAllocated + foreignAllocated.sum();
+        long cpu = cpuNanos() - startCpu + foreignCpu.sum();
+        long wall = System.nanoTime() - startWall;
+        if (CURRENT.get() == this) {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+        return new ResourceUsage(Math.max(0L, allocated), Math.max(0L, cpu), wall, isSupported());
+    }
+
+    private void addForeign(long allocated, long cpu) {
+        for (ResourceMeter meter = this; meter != null; meter = meter.parent) {
+            meter.foreignAllocated.add(allocated);
+            meter.foreignCpu.add(cpu);
+        }
+    }
+
+    private static long allocatedBytes() {
+        if (HOTSPOT_THREADS == null) {
+            return 0L;
+        }
+        long bytes = HOTSPOT_THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+        return bytes < 0 ? 0L : bytes;
+    }
+
+    private static long cpuNanos() {
+        if (!CPU_SUPPORTED) {
+            return 0L;
+        }
+        long nanos = THREADS.getCurrentThreadCpuTime();
+        return nanos < 0 ? 0L : nanos;
+    }
+
+    private static com.sun.management.ThreadMXBean hotspot() {
+        try {
+            if (THREADS instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+                if (threads.isThreadAllocatedMemorySupported()) {
+                    if (!threads.isThreadAllocatedMemoryEnabled()) {
+                        threads.setThreadAllocatedMemoryEnabled(true);
+                    }
+                    return threads;
+                }
+            }
+        } catch (Throwable e) {
+            log.warn("线程内存分配统计不可用", e);
+        }
+        return null;
+    }
+
+    private static boolean cpuSupported() {
+        try {
+            if (THREADS.isCurrentThreadCpuTimeSupported()) {
+                if (!THREADS.isThreadCpuTimeEnabled()) {
+                    THREADS.setThreadCpuTimeEnabled(true);
+                }
+                return true;
+            }
+        } catch (Throwable e) {
+            log.warn("线程CPU计时不可用", e);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+package cc.anqin.doc.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 资源消耗
+ * <p>
+ * 一次填充或转换在所有参与线程上分配的堆内存字节数、消耗的CPU时间以及墙钟耗时，
+ * 由 {@link ResourceMeter} 基于 {@code ThreadMXBean} 的线程级统计计算。
+ * 分配字节数是累计分配量而不是存活对象大小，可以作为并发渲染时堆预算的估算依据。
+ * </p>
+ * <p>
+ * JVM 不支持线程内存分配统计或线程CPU计时时，对应的值为0，{@link #isSupported()} 返回false。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see ResourceMeter 资源计量器
+ */
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+public final class ResourceUsage {
+
+    /** 分配的堆内存字节数 */
+    private final long allocatedBytes;
+
+    /** CPU时间（纳秒） */
+    private final long cpuNanos;
+
+    /** 墙钟耗时（纳秒） */
+    private final long wallNanos;
+
+    /** 当前JVM是否支持线程级内存分配与CPU时间统计 */
+    private final boolean supported;
+
+    /**
+     * 合并两次消耗
+     * <p>
+     * 分配字节数与CPU时间相加；墙钟耗时相加，适用于先后执行的填充与转换。
+     * </p>
+     *
+     * @param other 另一份消耗，为null时返回自身
+     * @return 合并后的消耗
+     */
+    public ResourceUsage plus(ResourceUsage other) {
+        if (other == null) {
+            return this;
+        }
+        return new ResourceUsage(allocatedBytes + other.allocatedBytes, cpuNanos + other.cpuNanos,
+                wallNanos + other.wallNanos, supported && other.supported);
+    }
+
+    /**
+     * 合并两次消耗，任一方可以为null
+     *
+     * @param a 消耗
+     * @param b 消耗
+     * @return 合并后的消耗，两者均为null时返回null
+     */
+    public static ResourceUsage sum(ResourceUsage a, ResourceUsage b) {
+        return a == null ? b : a.plus(b);
+    }
+
+    /**
+     * CPU时间（毫秒）
+     *
+     * @return long
+     */
+    public long getCpuMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(cpuNanos);
+    }
+
+    /**
+     * 墙钟耗时（毫秒）
+     *
+     * @return long
+     */
+    public long getWallMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(wallNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceUsage{allocated=" + allocatedBytes / 1024 + "KB, cpu=" + getCpuMillis()
+                + "ms, wall=" + getWallMillis() + "ms" + (supported ? "" : ", unsupported") + "}";
+    }
+}
@@ -0,0 +1,66 @@
+package cc.anqin.doc.utils;
+
+import cn.hutool.core.util.NumberUtil;
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 读写缓冲区池
+ * <p>
+ * 文档保存与加载使用较大的缓冲区（默认256KB）减少系统调用次数。缓冲区用完后归还复用，
+ * 高并发渲染时不再为每个输入输出流分配新的大数组；池满时多出的缓冲区直接丢弃，池空时临时分配。
+ * </p>
+ * <p>
+ * 配置（系统属性）：
+ * <pre>
+ * -Dsmart.doc.io.buffer.size=262144   // 缓冲区字节数，默认256KB
+ * -Dsmart.doc.io.buffers=16           // 池中最多保留的缓冲区数，默认CPU核数的2倍
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see DocumentIO 文档读写
+ */
+@UtilityClass
+public class BufferPool {
+
+    /** 缓冲区字节数 */
+    private final int BUFFER_SIZE = NumberUtil.parseInt(System.getProperty("smart.doc.io.buffer.size"), 256 * 1024);
+
+    /** 空闲的缓冲区 */
+    private final BlockingQueue<byte[]> FREE = new ArrayBlockingQueue<>(Math.max(1, NumberUtil.parseInt(
+            System.getProperty("smart.doc.io.buffers"), Runtime.getRuntime().availableProcessors() * 2)));
+
+    /**
+     * 取得一个缓冲区，用完后通过 {@link #release(byte[])} 归还
+     *
+     * @return 缓冲区
+     */
+    public byte[] acquire() {
+        byte[] buffer = FREE.poll();
+        return buffer == null ? new byte[BUFFER_SIZE] : buffer;
+    }
+
+    /**
+     * 归还缓冲区，归还后调用方不能再使用
+     *
+     * @param buffer 缓冲区，可为null
+     */
+    public void release(byte[] buffer) {
+        if (buffer != null && buffer.length == BUFFER_SIZE) {
+            FREE.offer(buffer);
+        }
+    }
+
+    /**
+     * 缓冲区字节数
+     *
+     * @return int
+     */
+    public int bufferSize() {
+        return BUFFER_SIZE;
+    }
+}
@@ -0,0 +1,79 @@
+package cc.anqin.doc.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.InvalidMarkException;
+
+/**
+ * 基于 {@link ByteBuffer} 的输入流
+ * <p>
+ * 直接读取缓冲区（包括内存映射的文件区域），不复制到堆数组。读取推进的是缓冲区的独立视图，
+ * 传入的缓冲区的位置不受影响。流不是线程安全的。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+public class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    /**
+     * 创建输入流，读取缓冲区当前位置到上限之间的内容
+     *
+     * @param buffer 缓冲区
+     */
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+        buffer.mark();
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        try {
+            buffer.reset();
+        } catch (InvalidMarkException e) {
+            throw new IOException("未设置 mark", e);
+        }
+    }
+}
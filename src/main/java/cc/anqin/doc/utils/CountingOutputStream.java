@@ -0,0 +1,51 @@
+package cc.anqin.doc.utils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 统计写入字节数的输出流
+ * <p>
+ * 用于写入调用方提供的输出流时上报写入字节数，关闭时同时关闭被包装的输出流。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+public class CountingOutputStream extends FilterOutputStream {
+
+    /** 已写入字节数 */
+    private long count;
+
+    /**
+     * 包装输出流
+     *
+     * @param out 被包装的输出流
+     */
+    public CountingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        // FilterOutputStream 默认逐字节写入，这里直接整块转发
+        out.write(b, off, len);
+        count += len;
+    }
+
+    /**
+     * 已写入字节数
+     *
+     * @return long
+     */
+    public long getCount() {
+        return count;
+    }
+}
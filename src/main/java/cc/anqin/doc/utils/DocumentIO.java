@@ -0,0 +1,334 @@
+package cc.anqin.doc.utils;
+
+import cn.hutool.core.io.FileUtil;
+import com.aspose.words.Document;
+import com.aspose.words.SaveOptions;
+import lombok.experimental.UtilityClass;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 文档读写
+ * <p>
+ * 文档加载与保存统一经过该类，保证：
+ * <ul>
+ *   <li>明确关闭 - 打开的文件在加载或保存结束后立即关闭，不依赖 GC 回收文件描述符</li>
+ *   <li>缓冲复用 - 通过 {@link FileChannel} 按大块读写，缓冲区取自 {@link BufferPool}，关闭时归还</li>
+ *   <li>落盘控制 - 可选在关闭前调用 {@link FileChannel#force(boolean)}，保证输出文件在返回前已写入存储设备</li>
+ *   <li>映射读取 - 本库拥有的大文件（受管临时文件）通过 {@link MappedFiles} 只读映射后交给 Aspose，不经过堆上的缓冲区；
+ *   调用方提供的文件可能被原地改写，不做映射</li>
+ * </ul>
+ * 写入调用方提供的输出流时，由调用方负责关闭。
+ * </p>
+ * <p>
+ * 配置（系统属性）：
+ * <pre>
+ * -Dsmart.doc.io.force=true   // 输出文件关闭前强制落盘，默认false
+ * </pre>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * Document doc = DocumentIO.load(templateFile);
+ * DocumentIO.save(doc, outputFile, SaveFormat.PDF, options);
+ *
+ * try (OutputStream out = DocumentIO.openOutput(file)) {
+ *     doc.save(out, SaveFormat.DOCX);
+ * }
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see BufferPool 读写缓冲区池
+ * @see MappedFiles 文件内存映射
+ * @see FileContentCache 文件内容缓存
+ */
+@UtilityClass
+public class DocumentIO {
+
+    /** 输出文件关闭前是否强制落盘 */
+    private final boolean FORCE = Boolean.getBoolean("smart.doc.io.force");
+
+    /**
+     * 打开输出文件，不存在的父目录会被创建，已存在的文件被覆盖
+     *
+     * @param file 输出文件
+     * @return 带缓冲的输出流，关闭时按 smart.doc.io.force 决定是否落盘
+     * @throws IOException 打开失败
+     */
+    public OutputStream openOutput(File file) throws IOException {
+        return openOutput(file, FORCE);
+    }
+
+    /**
+     * 打开输出文件
+     *
+     * @param file  输出文件
+     * @param force 关闭前是否强制落盘
+     * @return 带缓冲的输出流
+     * @throws IOException 打开失败
+     */
+    public OutputStream openOutput(File file, boolean force) throws IOException {
+        FileUtil.mkParentDirs(file);
+        FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new ChannelOutputStream(channel, force);
+    }
+
+    /**
+     * 打开输入文件，本库拥有的大文件映射读取
+     *
+     * @param file 输入文件
+     * @return 输入流，受管临时文件中的大文件读取映射区域，其余带缓冲读取
+     * @throws IOException 打开失败
+     */
+    public InputStream openInput(File file) throws IOException {
+        if (MappedFiles.shouldMap(file)) {
+            return new ByteBufferInputStream(MappedFiles.map(file));
+        }
+        return new ChannelInputStream(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+    }
+
+    /**
+     * 打开反复读取的输入文件，内容由 {@link FileContentCache} 缓存，多次渲染共享同一份内容
+     * <p>
+     * 适用于调用方长期持有、多次渲染共用的文件，如公共图片；临时文件应使用 {@link #openInput(File)}，避免删除后内容仍被缓存。
+     * 超过缓存上限的文件按 {@link #openInput(File)} 读取。
+     * </p>
+     *
+     * @param file 输入文件
+     * @return 输入流
+     * @throws IOException 打开失败
+     */
+    public InputStream openShared(File file) throws IOException {
+        ByteBuffer content = FileContentCache.get(file);
+        return content == null ? openInput(file) : new ByteBufferInputStream(content);
+    }
+
+    /**
+     * 加载文档，读取完成后立即关闭文件，本库拥有的大文件映射读取
+     *
+     * @param file 文档文件
+     * @return {@link Document }
+     * @throws Exception 读取或解析失败
+     */
+    public Document load(File file) throws Exception {
+        try (InputStream in = openInput(file)) {
+            return new Document(in);
+        }
+    }
+
+    /**
+     * 保存文档到文件，保存完成后立即关闭文件
+     *
+     * @param doc     文档
+     * @param file    输出文件
+     * @param format  保存格式，options为null时使用
+     * @param options 保存选项，可为null
+     * @return 写入的字节数
+     * @throws Exception 保存失败
+     */
+    public long save(Document doc, File file, int format, SaveOptions options) throws Exception {
+        try (CountingOutputStream out = new CountingOutputStream(openOutput(file))) {
+            if (options == null) {
+                doc.save(out, format);
+            } else {
+                doc.save(out, options);
+            }
+            return out.getCount();
+        }
+    }
+
+    /**
+     * 基于文件通道的缓冲输出流，缓冲区取自缓冲区池
+     */
+    private static final class ChannelOutputStream extends OutputStream {
+
+        private final FileChannel channel;
+
+        private final boolean force;
+
+        private byte[] buffer = BufferPool.acquire();
+
+        private int count;
+
+        private ChannelOutputStream(FileChannel channel, boolean force) {
+            this.channel = channel;
+            this.force = force;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureOpen();
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            if (len >= buffer.length) {
+                // 大块数据不经过缓冲区，直接写入通道
+                flushBuffer();
+                writeFully(ByteBuffer.wrap(b, off, len));
+                return;
+            }
+            if (len > buffer.length - count) {
+                flushBuffer();
+            }
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            ensureOpen();
+            flushBuffer();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (buffer == null) {
+                return;
+            }
+            try {
+                flushBuffer();
+                if (force) {
+                    channel.force(true);
+                }
+            } finally {
+                BufferPool.release(buffer);
+                buffer = null;
+                channel.close();
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            if (count > 0) {
+                writeFully(ByteBuffer.wrap(buffer, 0, count));
+                count = 0;
+            }
+        }
+
+        private void writeFully(ByteBuffer src) throws IOException {
+            while (src.hasRemaining()) {
+                channel.write(src);
+            }
+        }
+
+        private void ensureOpen() throws IOException {
+            if (buffer == null) {
+                throw new IOException("输出流已关闭");
+            }
+        }
+    }
+
+    /**
+     * 基于文件通道的缓冲输入流，缓冲区取自缓冲区池
+     */
+    private static final class ChannelInputStream extends InputStream {
+
+        private final FileChannel channel;
+
+        private byte[] buffer = BufferPool.acquire();
+
+        private int position;
+
+        private int limit;
+
+        private ChannelInputStream(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == limit && fill() <= 0) {
+                return -1;
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            if (len == 0) {
+                return 0;
+            }
+            int buffered = limit - position;
+            if (buffered == 0) {
+                if (len >= buffer.length) {
+                    // 大块读取不经过缓冲区
+                    return channel.read(ByteBuffer.wrap(b, off, len));
+                }
+                if (fill() <= 0) {
+                    return -1;
+                }
+                buffered = limit - position;
+            }
+            int n = Math.min(len, buffered);
+            System.arraycopy(buffer, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            ensureOpen();
+            if (n <= 0) {
+                return 0;
+            }
+            int buffered = limit - position;
+            if (n <= buffered) {
+                position += (int) n;
+                return n;
+            }
+            position = limit;
+            long skipped = Math.min(n - buffered, Math.max(0, channel.size() - channel.position()));
+            channel.position(channel.position() + skipped);
+            return buffered + skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            ensureOpen();
+            long remaining = (limit - position) + Math.max(0, channel.size() - channel.position());
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (buffer == null) {
+                return;
+            }
+            BufferPool.release(buffer);
+            buffer = null;
+            channel.close();
+        }
+
+        private int fill() throws IOException {
+            ensureOpen();
+            position = 0;
+            limit = 0;
+            int n = channel.read(ByteBuffer.wrap(buffer));
+            if (n > 0) {
+                limit = n;
+            }
+            return n;
+        }
+
+        private void ensureOpen() throws IOException {
+            if (buffer == null) {
+                throw new IOException("输入流已关闭");
+            }
+        }
+    }
+}
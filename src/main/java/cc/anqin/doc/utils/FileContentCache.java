@@ -0,0 +1,173 @@
+package cc.anqin.doc.utils;
+
+import cn.hutool.core.util.NumberUtil;
+import lombok.experimental.UtilityClass;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 文件内容缓存
+ * <p>
+ * 调用方提供、被多次渲染反复读取的文件（如公共的图片）只读入堆一次，之后的渲染共享同一份内容：
+ * <ul>
+ *   <li>按状态识别 - 以路径、修改时间与大小识别，文件变化后重新读取</li>
+ *   <li>只读视图 - 每次返回内容的独立只读视图，并发读取互不影响</li>
+ *   <li>按大小淘汰 - 缓存内容的总大小超过上限时按访问顺序淘汰，超过上限的单个文件不缓存</li>
+ * </ul>
+ * 与内存映射不同，缓存的是文件的一份拷贝，文件随后被原地改写或替换不影响正在读取的渲染，在 Windows 上也不会锁住文件。
+ * </p>
+ * <p>
+ * 配置（系统属性）：
+ * <pre>
+ * -Dsmart.doc.io.cache=67108864   // 缓存内容的总大小上限（字节），默认64MB，小于等于0时不缓存
+ * </pre>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * ByteBuffer content = FileContentCache.get(file);
+ * try (InputStream in = content == null ? DocumentIO.openInput(file) : new ByteBufferInputStream(content)) {
+ *     builder.insertImage(in, width, height);
+ * }
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see DocumentIO#openShared(File) 打开反复读取的输入文件
+ */
+@UtilityClass
+public class FileContentCache {
+
+    /** 缓存内容的总大小上限 */
+    private final long CAPACITY = NumberUtil.parseLong(System.getProperty("smart.doc.io.cache"), 64L * 1024 * 1024);
+
+    /** 绝对路径 -> 文件内容，按访问顺序淘汰 */
+    private final Map<String, Content> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** 缓存内容的总大小 */
+    private long cachedBytes;
+
+    /**
+     * 获取文件内容，文件未变化时复用已缓存的内容
+     *
+     * @param file 文件
+     * @return 内容的独立只读视图；文件超过缓存上限或未开启缓存时返回null
+     * @throws IOException 读取失败
+     */
+    public ByteBuffer get(File file) throws IOException {
+        long length = file.length();
+        if (length > CAPACITY || length > Integer.MAX_VALUE) {
+            return null;
+        }
+        String key = file.getAbsolutePath();
+        long lastModified = file.lastModified();
+        synchronized (CACHE) {
+            Content content = CACHE.get(key);
+            if (content != null && content.matches(lastModified, length)) {
+                return content.view();
+            }
+        }
+
+        // 读取在锁外进行，并发首次读取同一文件时以先放入的为准
+        byte[] bytes = read(file);
+        if (bytes.length != length || file.lastModified() != lastModified) {
+            // 读取期间文件发生变化，本次内容不缓存
+            return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        }
+        synchronized (CACHE) {
+            Content content = CACHE.get(key);
+            if (content != null && content.matches(lastModified, length)) {
+                return content.view();
+            }
+            if (content != null) {
+                cachedBytes -= content.bytes.length;
+            }
+            content = new Content(bytes, lastModified);
+            CACHE.put(key, content);
+            cachedBytes += bytes.length;
+            trim();
+            return content.view();
+        }
+    }
+
+    /**
+     * 移除文件的缓存内容，文件被替换或删除时调用
+     *
+     * @param file 文件
+     */
+    public void invalidate(File file) {
+        if (file == null) {
+            return;
+        }
+        synchronized (CACHE) {
+            Content content = CACHE.remove(file.getAbsolutePath());
+            if (content != null) {
+                cachedBytes -= content.bytes.length;
+            }
+        }
+    }
+
+    /**
+     * 缓存内容的总大小
+     *
+     * @return 字节数
+     */
+    public long cachedBytes() {
+        synchronized (CACHE) {
+            return cachedBytes;
+        }
+    }
+
+    private byte[] read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // 读满文件
+            }
+            return buffer.position() == buffer.capacity() ? buffer.array() : Arrays.copyOf(buffer.array(), buffer.position());
+        }
+    }
+
+    /**
+     * 按访问顺序淘汰，直到总大小不超过上限，调用方持有锁
+     */
+    private void trim() {
+        Iterator<Content> iterator = CACHE.values().iterator();
+        while (cachedBytes > CAPACITY && iterator.hasNext()) {
+            cachedBytes -= iterator.next().bytes.length;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 缓存的内容及读取时的文件状态
+     */
+    private static final class Content {
+
+        private final byte[] bytes;
+
+        private final long lastModified;
+
+        private Content(byte[] bytes, long lastModified) {
+            this.bytes = bytes;
+            this.lastModified = lastModified;
+        }
+
+        private boolean matches(long lastModified, long length) {
+            return this.lastModified == lastModified && bytes.length == length;
+        }
+
+        private ByteBuffer view() {
+            return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        }
+    }
+}
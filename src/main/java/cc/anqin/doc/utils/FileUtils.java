@@ -10,11 +10,9 @@ import cn.hutool.core.lang.Opt;
 import cn.hutool.core.util.StrUtil;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.tika.Tika;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
@@ -33,7 +31,7 @@ import java.nio.file.Paths;
  * <ul>
  *   <li>临时文件管理 - 创建和管理临时文件</li>
  *   <li>文件下载 - 从URL下载文件到本地</li>
- *   <li>文件类型检测 - 使用Apache Tika检测文件MIME类型</li>
+ *   <li>文件类型检测 - 通过 {@link FormatDetector} 检测文件MIME类型</li>
  *   <li>Base64转换 - 将Base64编码的数据转换为文件</li>
  *   <li>图片格式转换 - 支持图片格式之间的转换</li>
  * </ul>
@@ -56,7 +54,7 @@ import java.nio.file.Paths;
  * @author Mr.An
  * @date 2024/11/13
  * @see File Java文件操作
- * @see Tika Apache Tika文件类型检测
+ * @see FormatDetector 文件类型检测
  * @see FileUtil Hutool文件工具
  */
 @Slf4j
@@ -108,30 +106,33 @@ public class FileUtils {
      * 获取临时文件
      * <p>
      * 此方法创建一个带有指定后缀的临时文件，文件名基于当前时间戳生成，确保唯一性。
-     * 临时文件位于系统临时目录下，适用于需要临时存储数据的场景。
+     * 临时文件由 {@link TempFileManager} 管理，位于本进程临时目录的分片子目录下，归调用方所有：
+     * 通过 {@link #deleteFileSafely(File)} 或 {@link TempFileManager#find(File)} 取得的句柄释放后在后台回收，
+     * 未释放的文件保留到进程退出，之后由其他进程在超过存活时间后清理。
      * </p>
      *
      * @param suffix 文件后缀，例如 ".docx"、".pdf" 等
      * @return 创建的临时文件对象
+     * @see TempFileManager 临时文件生命周期管理器
      */
     public static File getTemporaryFile(DocumentFormat suffix, String prefix) {
         if (suffix == null) {
             throw new IllegalArgumentException("suffix can not be null");
         }
-        try {
-            return Files.createTempFile(getTempPath(), prefix, suffix.getExtensionWithDot()).toFile();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return TempFileManager.get().create(prefix, suffix.getExtensionWithDot()).getFile();
     }
 
     /**
      * 安全删除单个文件
+     * <p>
+     * 由 {@link TempFileManager} 管理的临时文件释放一个引用，引用计数归零后在后台删除；
+     * 其他文件直接删除。
+     * </p>
      *
      * @param file 要删除的文件，如果为null则直接返回
      */
     public static void deleteFileSafely(File file) {
-        if (file == null || !file.exists()) {
+        if (file == null || TempFileManager.get().release(file) || !file.exists()) {
             return;
         }
 
@@ -182,9 +183,9 @@ public class FileUtils {
 
 
     /**
-     * 使用 Tika 获取文件的 MIME 类型
+     * 获取文件的 MIME 类型
      * <p>
-     * 此方法使用Apache Tika库检测文件的MIME类型，无需依赖文件扩展名。
+     * 此方法通过 {@link FormatDetector} 检测文件的MIME类型，无需依赖文件扩展名，只读取文件头。
      * MIME类型可用于确定文件的实际格式，对于文件类型验证和处理非常有用。
      * </p>
      *
@@ -193,8 +194,7 @@ public class FileUtils {
      * @throws IOException 如果文件读取过程中发生错误
      */
     public static String getMimeType(File file) throws IOException {
-        Tika tika = new Tika();
-        return tika.detect(file);
+        return FormatDetector.detect(file);
     }
 
     /**
@@ -293,7 +293,7 @@ public class FileUtils {
     /**
      * 通过内容检测纯Base64数据的文件类型
      * <p>
-     * 此方法使用Apache Tika库分析已解码的Base64数据的内容，
+     * 此方法通过 {@link FormatDetector} 分析已解码的Base64数据的内容，
      * 确定其实际文件类型并返回相应的文件扩展名。
      * 这对于处理没有类型信息的纯Base64数据特别有用。
      * </p>
@@ -303,14 +303,7 @@ public class FileUtils {
      * @throws RuntimeException 如果内容检测过程中发生错误
      */
     public static String detectExtension(byte[] decoded) {
-
-        // 内容检测（需要引入tika-core依赖）
-        Tika tika = new Tika();
-        try {
-            return parseExtension(tika.detect((new ByteArrayInputStream(decoded))));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return FormatDetector.detectExtension(decoded);
     }
 
 
@@ -0,0 +1,292 @@
+package cc.anqin.doc.utils;
+
+import cc.anqin.doc.ex.DocumentException;
+import cn.hutool.core.util.HexUtil;
+import cn.hutool.core.util.NumberUtil;
+import lombok.experimental.UtilityClass;
+import org.apache.tika.Tika;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 文件类型检测
+ * <p>
+ * 统一的内容类型检测入口，替代每次调用都创建 {@link Tika}（创建时加载 MIME 类型库，开销很大）：
+ * <ul>
+ *   <li>文件头快速判断 - PNG、JPEG、GIF、WebP、PDF、DOCX、ZIP 只读取少量文件头字节即可确定，不经过 Tika</li>
+ *   <li>共享检测器 - 其余类型交给进程内唯一的 Tika 实例，首次使用时才创建</li>
+ *   <li>结果缓存 - Tika 的检测结果按文件头内容（Tika 只读取文件头）的 SHA-256 缓存，重复的输入直接命中</li>
+ * </ul>
+ * 返回的 MIME 类型与 Tika 一致；DOCX 返回完整的 Word 文档类型，而不是 tika-core 的 application/x-tika-ooxml。
+ * </p>
+ * <p>
+ * 配置（系统属性）：
+ * <pre>
+ * -Dsmart.doc.detect.cache.size=1024   // 检测结果缓存条数，默认1024
+ * </pre>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * String mimeType = FormatDetector.detect(file);          // image/png
+ * String extension = FormatDetector.detectExtension(bytes); // jpg
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see FileUtils 文件工具类
+ */
+@UtilityClass
+public class FormatDetector {
+
+    /** 交给 Tika 检测的文件头长度，与 Tika 默认读取的长度一致 */
+    private final int HEADER_LENGTH = 64 * 1024;
+
+    /** 判断 ZIP 容器类型时最多查看的条目数 */
+    private final int ZIP_ENTRIES = 4;
+
+    /** DOCX 的 MIME 类型 */
+    private final String DOCX = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+    /** 检测结果缓存条数 */
+    private final int CACHE_SIZE = NumberUtil.parseInt(System.getProperty("smart.doc.detect.cache.size"), 1024);
+
+    /** 文件头哈希 -> MIME 类型，按访问顺序淘汰 */
+    private final Map<String, String> CACHE = new LinkedHashMap<String, String>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * 检测字节内容的 MIME 类型
+     *
+     * @param bytes 内容
+     * @return MIME 类型，如 "image/png"
+     */
+    public String detect(byte[] bytes) {
+        return detect(bytes, Math.min(bytes.length, HEADER_LENGTH), null);
+    }
+
+    /**
+     * 检测文件的 MIME 类型，只读取文件头，内容无法判断时参考文件名
+     *
+     * @param file 文件
+     * @return MIME 类型
+     * @throws IOException 读取失败
+     */
+    public String detect(File file) throws IOException {
+        byte[] header = new byte[(int) Math.min(file.length(), HEADER_LENGTH)];
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.wrap(header);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // 读满文件头
+            }
+            return detect(header, buffer.position(), file.getName());
+        }
+    }
+
+    /**
+     * 检测输入流的 MIME 类型，读取文件头后复位，流的内容不被消耗
+     *
+     * @param in 支持 mark 的输入流
+     * @return MIME 类型
+     * @throws IOException              读取失败
+     * @throws IllegalArgumentException 输入流不支持 mark
+     */
+    public String detect(InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            throw new IllegalArgumentException("输入流不支持 mark，请使用 BufferedInputStream 包装");
+        }
+        byte[] header = new byte[HEADER_LENGTH];
+        int length = 0;
+        in.mark(HEADER_LENGTH);
+        try {
+            int n;
+            while (length < header.length && (n = in.read(header, length, header.length - length)) > 0) {
+                length += n;
+            }
+        } finally {
+            in.reset();
+        }
+        return detect(header, length, null);
+    }
+
+    /**
+     * 检测字节内容对应的文件扩展名（不含点号）
+     *
+     * @param bytes 内容
+     * @return 扩展名，如 "png"、"jpg"；无法检测时返回null
+     */
+    public String detectExtension(byte[] bytes) {
+        return extension(detect(bytes));
+    }
+
+    /**
+     * 检测输入流对应的文件扩展名（不含点号），流的内容不被消耗
+     *
+     * @param in 支持 mark 的输入流
+     * @return 扩展名；无法检测时返回null
+     * @throws IOException 读取失败
+     */
+    public String detectExtension(InputStream in) throws IOException {
+        return extension(detect(in));
+    }
+
+    /**
+     * MIME 类型对应的文件扩展名（不含点号）
+     *
+     * @param mimeType MIME 类型
+     * @return 扩展名；无法识别时返回null
+     */
+    public String extension(String mimeType) {
+        if (mimeType == null) {
+            return null;
+        }
+        if ("image/jpeg".equals(mimeType)) {
+            return "jpg";
+        }
+        if (DOCX.equals(mimeType)) {
+            return "docx";
+        }
+        return FileUtils.parseExtension(mimeType);
+    }
+
+    /**
+     * 创建共享的 Tika 实例，加载 MIME 类型库，用于预热
+     */
+    public void init() {
+        Holder.TIKA.getDetector();
+    }
+
+    private String detect(byte[] header, int length, String name) {
+        String mimeType = magic(header, length);
+        if (mimeType != null) {
+            return mimeType;
+        }
+        String key = hash(header, length) + (name == null ? "" : "/" + name);
+        synchronized (CACHE) {
+            mimeType = CACHE.get(key);
+        }
+        if (mimeType == null) {
+            byte[] prefix = length == header.length ? header : Arrays.copyOf(header, length);
+            mimeType = name == null ? Holder.TIKA.detect(prefix) : Holder.TIKA.detect(prefix, name);
+            synchronized (CACHE) {
+                CACHE.put(key, mimeType);
+            }
+        }
+        return mimeType;
+    }
+
+    /**
+     * 按文件头判断常见类型，无法确定时返回null
+     */
+    private String magic(byte[] b, int length) {
+        if (startsWith(b, length, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        if (startsWith(b, length, 0, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(b, length, 0, 'G', 'I', 'F', '8', '7', 'a') || startsWith(b, length, 0, 'G', 'I', 'F', '8', '9', 'a')) {
+            return "image/gif";
+        }
+        if (startsWith(b, length, 0, 'R', 'I', 'F', 'F') && startsWith(b, length, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        if (startsWith(b, length, 0, '%', 'P', 'D', 'F', '-')) {
+            return "application/pdf";
+        }
+        if (startsWith(b, length, 0, 'P', 'K', 0x03, 0x04)) {
+            return zip(b, length);
+        }
+        return null;
+    }
+
+    /**
+     * 区分 DOCX 与普通 ZIP：沿本地文件头查看前几个条目名；其他 OOXML、ODF、EPUB 等容器交给 Tika
+     */
+    private String zip(byte[] b, int length) {
+        int offset = 0;
+        boolean container = false;
+        for (int i = 0; i < ZIP_ENTRIES && startsWith(b, length, offset, 'P', 'K', 0x03, 0x04); i++) {
+            if (offset + 30 > length) {
+                break;
+            }
+            int flags = le16(b, offset + 6);
+            long compressed = le16(b, offset + 18) | (long) le16(b, offset + 20) << 16;
+            int nameLength = le16(b, offset + 26);
+            int extraLength = le16(b, offset + 28);
+            if (offset + 30 + nameLength > length) {
+                break;
+            }
+            String name = new String(b, offset + 30, nameLength, StandardCharsets.UTF_8);
+            if (name.startsWith("word/")) {
+                return DOCX;
+            }
+            if (i == 0) {
+                container = name.equals("[Content_Types].xml") || name.startsWith("_rels/")
+                        || name.equals("mimetype") || name.startsWith("META-INF/");
+                if (!container) {
+                    return "application/zip";
+                }
+            }
+            if ((flags & 0x08) != 0) {
+                // 条目大小记录在数据之后，无法跳到下一个条目
+                break;
+            }
+            long next = offset + 30L + nameLength + extraLength + compressed;
+            if (next + 30 > length) {
+                break;
+            }
+            offset = (int) next;
+        }
+        return container ? null : "application/zip";
+    }
+
+    private int le16(byte[] b, int offset) {
+        return (b[offset] & 0xFF) | (b[offset + 1] & 0xFF) << 8;
+    }
+
+    private boolean startsWith(byte[] b, int length, int offset, int... magic) {
+        if (length < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((b[offset + i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String hash(byte[] b, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(b, 0, length);
+            return HexUtil.encodeHexStr(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new DocumentException(e);
+        }
+    }
+
+    /**
+     * 共享的 Tika 实例，首次需要时才加载
+     */
+    private static class Holder {
+        private static final Tika TIKA = new Tika();
+    }
+}
@@ -0,0 +1,77 @@
+package cc.anqin.doc.utils;
+
+import cn.hutool.core.util.NumberUtil;
+import lombok.experimental.UtilityClass;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 文件内存映射
+ * <p>
+ * 以只读方式把文件映射到内存，读取直接访问映射区域，不经过堆上的缓冲区。
+ * 映射区域由操作系统页缓存支撑，并发读取同一文件时共享同一份物理内存。
+ * </p>
+ * <p>
+ * 只映射本库拥有的文件：
+ * <ul>
+ *   <li>受管临时文件 - 由 {@link TempFileManager} 创建，本库之外不会改写</li>
+ *   <li>模板快照 - 写入临时文件后原子替换，已有的快照文件不会被原地改写</li>
+ * </ul>
+ * Java 8 上映射只能由 GC 解除。映射期间文件被原地改写或截断（如 {@code cp new.docx tpl.docx}）时，
+ * 读取方会得到 {@link InternalError} 或读到不一致的内容；在 Windows 上被映射的文件无法被替换。
+ * 因此调用方提供的模板与图片不映射，反复读取的调用方文件由 {@link FileContentCache} 缓存在堆上。
+ * 需要映射的文件只能通过原子重命名替换，不能原地改写。
+ * </p>
+ * <p>
+ * 配置（系统属性）：
+ * <pre>
+ * -Dsmart.doc.io.mmap.threshold=1048576   // 映射读取的最小文件大小（字节），默认1MB，小于等于0时不映射
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see DocumentIO 文档读写
+ * @see ByteBufferInputStream 基于 ByteBuffer 的输入流
+ */
+@UtilityClass
+public class MappedFiles {
+
+    /** 映射读取的最小文件大小 */
+    private final long THRESHOLD = NumberUtil.parseLong(System.getProperty("smart.doc.io.mmap.threshold"), 1024L * 1024);
+
+    /**
+     * 文件是否应当映射读取
+     *
+     * @param file 文件
+     * @return 文件为受管临时文件、达到阈值且能映射为单个缓冲区时为true
+     */
+    public boolean shouldMap(File file) {
+        if (THRESHOLD <= 0) {
+            return false;
+        }
+        long length = file.length();
+        return length >= THRESHOLD && length <= Integer.MAX_VALUE && TempFileManager.get().isManaged(file);
+    }
+
+    /**
+     * 映射文件，每次调用创建新的映射
+     * <p>
+     * 调用方需保证文件归本库所有，映射期间不会被原地改写。
+     * </p>
+     *
+     * @param file 文件
+     * @return 只读缓冲区，位置为0，上限为文件大小
+     * @throws IOException 打开或映射失败
+     */
+    public ByteBuffer map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // 映射建立后关闭通道不影响映射区域
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
@@ -0,0 +1,545 @@
+package cc.anqin.doc.utils;
+
+import cc.anqin.doc.convert.DocumentFormat;
+import cc.anqin.doc.ex.DocumentException;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.NumberUtil;
+import cn.hutool.core.util.RandomUtil;
+import cn.hutool.core.util.RuntimeUtil;
+import cn.hutool.core.util.StrUtil;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 临时文件生命周期管理器
+ * <p>
+ * 原先所有临时文件都创建在同一个平铺目录中，清理分散在 {@link FileUtils#deleteFileSafely(File)}、
+ * FT.clearAll 以及图片填充后的异步删除中，进程异常退出后残留文件无人回收，目录中文件数不断膨胀。
+ * 该管理器统一负责本库临时文件的创建与回收：
+ * </p>
+ * <p>
+ * 主要功能：
+ * <ul>
+ *   <li>进程目录 - 每个管理器在 {@code <临时目录>/smart-doc} 下独占一个进程目录（进程号加随机后缀），
+ *   并在其中持有 {@code .lock} 文件锁直到进程退出，同一主机上的多个实例互不干扰</li>
+ *   <li>分片目录 - 临时文件分散在进程目录下 {@code 00 ~ ff} 256个子目录中</li>
+ *   <li>引用计数 - 每个临时文件带有引用计数，最后一个持有方释放后才会删除，支持 try-with-resources</li>
+ *   <li>后台回收 - 删除操作在专用的后台线程中执行，不阻塞渲染线程</li>
+ *   <li>孤儿清理 - 启动时及之后定期清理：本进程目录中超过存活时间且不再受管理的文件（删除失败的残留），
+ *   以及文件锁已释放（所属进程已退出）的其他进程目录中超过存活时间的文件，清空后移除该目录。
+ *   仍被其他存活进程持有的目录和临时目录根下的任何文件都不会被清理</li>
+ *   <li>运行统计 - 提供受管文件数、占用字节数、待删除数、已回收数</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 只有通过该管理器创建的文件才会被回收，调用方传入的文件不受影响。交给调用方的结果文件在调用方释放、
+ * 删除或进程退出前一直保留；丢弃了 {@link TempFile} 的调用方可以通过 {@link #find(File)} 重新取得句柄。
+ * 存活时间可通过系统属性修改，小于等于0时关闭孤儿清理：
+ * <pre>
+ * System.setProperty("smart.doc.temp.ttl", "86400000");   // 孤儿文件存活时间（毫秒），默认24小时
+ * </pre>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * // 作用域内使用，离开作用域后自动回收
+ * try (TempFileManager.TempFile temp = TempFileManager.get().create(DocumentFormat.PDF)) {
+ *     render(temp.getFile());
+ * }
+ *
+ * // 多个持有方共享同一临时文件
+ * temp.retain();
+ * executor.submit(() -&gt; { upload(temp.getFile()); temp.release(); });
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see FileUtils#getTemporaryFile(DocumentFormat) 临时文件
+ */
+@Slf4j
+public class TempFileManager {
+
+    /** 临时文件默认前缀 */
+    public static final String PREFIX = "smart-doc-";
+
+    /** 分片目录数 */
+    private static final int SHARDS = 256;
+
+    /** 进程目录中的锁文件名 */
+    private static final String LOCK_FILE = ".lock";
+
+    /** 共享实例 */
+    private static volatile TempFileManager instance;
+
+    /** 所有进程目录的上级目录 */
+    @Getter
+    private final Path base;
+
+    /** 本进程独占的根目录 */
+    @Getter
+    private final Path root;
+
+    /** 进程目录的文件锁，进程存活期间一直持有 */
+    private final FileLock lock;
+
+    /** 孤儿文件存活时间（毫秒） */
+    @Getter
+    private final long ttlMillis;
+
+    /** 受管理的临时文件 */
+    private final Map<Path, TempFile> live = new ConcurrentHashMap<>();
+
+    /** 已创建的分片目录 */
+    private final AtomicIntegerArray shardReady = new AtomicIntegerArray(SHARDS);
+
+    /** 后台回收线程 */
+    private final ScheduledExecutorService reclaimer;
+
+    /** 等待删除的文件数 */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /** 已回收的文件数 */
+    private final AtomicLong reclaimed = new AtomicLong();
+
+    /**
+     * 创建管理器，在上级目录下创建并锁定本进程的根目录，并在后台执行一次孤儿清理
+     *
+     * @param base      进程目录的上级目录，不存在时自动创建
+     * @param ttlMillis 孤儿文件存活时间（毫秒），小于等于0时不清理
+     */
+    public TempFileManager(Path base, long ttlMillis) {
+        this.base = base;
+        this.root = base.resolve(RuntimeUtil.getPid() + "-" + RandomUtil.randomString(8));
+        this.ttlMillis = ttlMillis;
+        try {
+            Files.createDirectories(root);
+            FileChannel channel = FileChannel.open(root.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            this.lock = channel.lock();
+        } catch (IOException e) {
+            throw new DocumentException(e, "创建临时目录失败：" + root);
+        }
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("smart-doc-temp-", true));
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.reclaimer = executor;
+        if (ttlMillis > 0) {
+            long period = Math.min(ttlMillis, TimeUnit.HOURS.toMillis(1));
+            reclaimer.scheduleWithFixedDelay(this::sweepQuietly, 0, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 获取共享管理器
+     * <p>
+     * 进程目录位于 {@link FileUtils#getTempDir()} 下的 smart-doc 目录中。
+     * </p>
+     *
+     * @return {@link TempFileManager }
+     */
+    public static TempFileManager get() {
+        if (instance == null) {
+            synchronized (TempFileManager.class) {
+                if (instance == null) {
+                    instance = new TempFileManager(FileUtils.getTempPath().resolve("smart-doc"),
+                            NumberUtil.parseLong(System.getProperty("smart.doc.temp.ttl"), TimeUnit.HOURS.toMillis(24)));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 创建临时文件
+     *
+     * @param format 文件格式，决定扩展名
+     * @return {@link TempFile }，引用计数为1
+     */
+    public TempFile create(DocumentFormat format) {
+        if (format == null) {
+            throw new IllegalArgumentException("suffix can not be null");
+        }
+        return create(PREFIX, format.getExtensionWithDot());
+    }
+
+    /**
+     * 创建临时文件
+     *
+     * @param prefix 文件名前缀
+     * @param suffix 文件名后缀（含点号），可以为空
+     * @return {@link TempFile }，引用计数为1
+     */
+    public TempFile create(String prefix, String suffix) {
+        Path shard = shard();
+        try {
+            Path path = Files.createTempFile(shard, StrUtil.blankToDefault(prefix, PREFIX), StrUtil.emptyIfNull(suffix));
+            TempFile temp = new TempFile(path);
+            live.put(path, temp);
+            return temp;
+        } catch (IOException e) {
+            throw new DocumentException(e, "创建临时文件失败：" + shard);
+        }
+    }
+
+    /**
+     * 文件是否由管理器管理
+     *
+     * @param file 文件
+     * @return boolean
+     */
+    public boolean isManaged(File file) {
+        return file != null && live.containsKey(file.toPath());
+    }
+
+    /**
+     * 查找受管文件的句柄
+     * <p>
+     * 用于只拿到 {@link File} 的调用方（如 {@link FileUtils#getTemporaryFile(DocumentFormat)} 的结果）
+     * 重新取得句柄，以 try-with-resources 方式释放。
+     * </p>
+     *
+     * @param file 文件
+     * @return {@link TempFile }，不受管理或已回收时返回null
+     */
+    public TempFile find(File file) {
+        return file == null ? null : live.get(file.toPath());
+    }
+
+    /**
+     * 增加受管文件的引用计数
+     *
+     * @param file 文件
+     * @return 文件受管理且尚未回收时返回 true
+     */
+    public boolean retain(File file) {
+        TempFile temp = file == null ? null : live.get(file.toPath());
+        return temp != null && temp.retain();
+    }
+
+    /**
+     * 释放受管文件的一个引用，引用计数归零后在后台删除
+     *
+     * @param file 文件
+     * @return 文件受管理时返回 true，非受管文件不做任何处理并返回 false
+     */
+    public boolean release(File file) {
+        TempFile temp = file == null ? null : live.get(file.toPath());
+        if (temp == null) {
+            return false;
+        }
+        temp.release();
+        return true;
+    }
+
+    /**
+     * 受管文件数
+     *
+     * @return int
+     */
+    public int liveCount() {
+        return live.size();
+    }
+
+    /**
+     * 受管文件占用的字节数
+     *
+     * @return long
+     */
+    public long liveBytes() {
+        long bytes = 0;
+        for (Path path : live.keySet()) {
+            bytes += path.toFile().length();
+        }
+        return bytes;
+    }
+
+    /**
+     * 等待后台删除的文件数
+     *
+     * @return int
+     */
+    public int pendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * 已回收的文件数（含孤儿清理）
+     *
+     * @return long
+     */
+    public long reclaimedCount() {
+        return reclaimed.get();
+    }
+
+    /**
+     * 立即执行一次孤儿清理
+     * <p>
+     * 删除本进程分片目录中超过存活时间且不受管理的文件，以及所属进程已退出的进程目录中超过存活时间的文件；
+     * 同时移除已被外部删除或移走的受管条目。其他存活进程的目录不受影响。
+     * </p>
+     *
+     * @return 删除的文件数
+     */
+    public int sweep() {
+        live.keySet().removeIf(path -> !Files.exists(path));
+        if (ttlMillis <= 0) {
+            return 0;
+        }
+        long expireBefore = System.currentTimeMillis() - ttlMillis;
+        int removed = sweepShards(root, expireBefore);
+        try (DirectoryStream<Path> roots = Files.newDirectoryStream(base, Files::isDirectory)) {
+            for (Path other : roots) {
+                if (!other.equals(root)) {
+                    removed += sweepAbandoned(other, expireBefore);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("清理临时目录失败：{}", base, e);
+        }
+        if (removed > 0) {
+            log.info("清理残留临时文件 {} 个：{}", removed, base);
+        }
+        return removed;
+    }
+
+    /**
+     * 清理其他进程目录：只有取得其文件锁（所属进程已退出）时才清理，清空后移除目录
+     */
+    private int sweepAbandoned(Path directory, long expireBefore) {
+        Path lockFile = directory.resolve(LOCK_FILE);
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock owner;
+            try {
+                owner = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                // 本进程内的其他管理器持有
+                return 0;
+            }
+            if (owner == null) {
+                return 0;
+            }
+            int removed;
+            boolean empty;
+            try {
+                // 刚创建、尚未加锁的进程目录同样能取得锁，目录本身超过存活时间才移除
+                boolean expired = Files.getLastModifiedTime(directory).toMillis() < expireBefore;
+                removed = sweepShards(directory, expireBefore);
+                empty = expired && removeEmptyShards(directory);
+            } finally {
+                owner.release();
+            }
+            if (empty) {
+                Files.deleteIfExists(lockFile);
+                Files.deleteIfExists(directory);
+                log.debug("已移除退出进程的临时目录：{}", directory);
+            }
+            return removed;
+        } catch (IOException e) {
+            log.debug("清理临时目录失败：{}", directory, e);
+            return 0;
+        }
+    }
+
+    private int sweepShards(Path directory, long expireBefore) {
+        int removed = 0;
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path shard : shards) {
+                removed += sweepDirectory(shard, expireBefore);
+            }
+        } catch (IOException e) {
+            log.warn("清理临时目录失败：{}", directory, e);
+        }
+        return removed;
+    }
+
+    /**
+     * 移除空的分片目录
+     *
+     * @return 除锁文件外目录已为空时返回 true
+     */
+    private boolean removeEmptyShards(Path directory) throws IOException {
+        boolean empty = true;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                if (entry.getFileName().toString().equals(LOCK_FILE)) {
+                    continue;
+                }
+                if (Files.isDirectory(entry)) {
+                    try (DirectoryStream<Path> files = Files.newDirectoryStream(entry)) {
+                        if (!files.iterator().hasNext()) {
+                            Files.deleteIfExists(entry);
+                            continue;
+                        }
+                    }
+                }
+                empty = false;
+            }
+        }
+        return empty;
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (Exception e) {
+            log.warn("清理临时目录失败：{}", root, e);
+        }
+    }
+
+    private int sweepDirectory(Path directory, long expireBefore) {
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, Files::isRegularFile)) {
+            for (Path file : files) {
+                if (live.containsKey(file) || file.toFile().lastModified() >= expireBefore) {
+                    continue;
+                }
+                if (delete(file)) {
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("清理临时目录失败：{}", directory, e);
+        }
+        return removed;
+    }
+
+    private Path shard() {
+        int index = ThreadLocalRandom.current().nextInt(SHARDS);
+        Path shard = root.resolve(String.format("%02x", index));
+        if (shardReady.get(index) == 0) {
+            try {
+                Files.createDirectories(shard);
+                shardReady.set(index, 1);
+            } catch (IOException e) {
+                throw new DocumentException(e, "创建临时目录失败：" + shard);
+            }
+        }
+        return shard;
+    }
+
+    private void reclaim(TempFile temp) {
+        live.remove(temp.path, temp);
+        pending.incrementAndGet();
+        try {
+            reclaimer.execute(() -> {
+                try {
+                    delete(temp.path);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (Exception e) {
+            // 回收线程不可用时在当前线程删除
+            pending.decrementAndGet();
+            delete(temp.path);
+        }
+    }
+
+    private boolean delete(Path path) {
+        try {
+            if (Files.deleteIfExists(path)) {
+                reclaimed.incrementAndGet();
+                log.debug("已回收临时文件 : {}", path);
+                return true;
+            }
+        } catch (IOException e) {
+            // 文件仍被占用时留给之后的孤儿清理
+            log.debug("回收临时文件失败 : {}", path, e);
+        }
+        return false;
+    }
+
+    /**
+     * 受管临时文件
+     * <p>
+     * 创建时引用计数为1，每次 {@link #retain()} 加1，每次 {@link #release()} 或 {@link #close()} 减1，
+     * 归零后交由后台线程删除，之后的 retain 返回 false。
+     * </p>
+     */
+    public final class TempFile implements AutoCloseable {
+
+        /** 文件路径 */
+        @Getter
+        private final Path path;
+
+        /** 引用计数 */
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        private TempFile(Path path) {
+            this.path = path;
+        }
+
+        /**
+         * 获取文件
+         *
+         * @return {@link File }
+         */
+        public File getFile() {
+            return path.toFile();
+        }
+
+        /**
+         * 增加一个引用
+         *
+         * @return 尚未回收时返回 true
+         */
+        public boolean retain() {
+            int count;
+            do {
+                count = refs.get();
+                if (count <= 0) {
+                    return false;
+                }
+            } while (!refs.compareAndSet(count, count + 1));
+            return true;
+        }
+
+        /**
+         * 释放一个引用，引用计数归零后在后台删除，重复释放不做任何处理
+         */
+        public void release() {
+            int count;
+            do {
+                count = refs.get();
+                if (count <= 0) {
+                    return;
+                }
+            } while (!refs.compareAndSet(count, count - 1));
+            if (count == 1) {
+                reclaim(this);
+            }
+        }
+
+        /**
+         * 当前引用计数
+         *
+         * @return int
+         */
+        public int refCount() {
+            return refs.get();
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package cc.anqin.doc.word;
+
+import cc.anqin.doc.concurrent.Deadline;
+import cc.anqin.doc.convert.DocumentFormat;
+import cc.anqin.doc.convert.OutputProfile;
+import cc.anqin.doc.convert.PdfStitcher;
+import cc.anqin.doc.entity.TemplateInterface;
+import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.ex.RenderCancelledException;
+import cc.anqin.doc.ex.RenderTimeoutException;
+import cc.anqin.doc.utils.DocumentIO;
+import cc.anqin.doc.utils.TempFileManager;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.thread.ExecutorBuilder;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.NumberUtil;
+import com.aspose.words.*;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * 分块并行渲染器
+ * <p>
+ * 上千页的报表通过 {@code FT.fer()} 渲染时，排版与PDF输出都在单线程中完成。分块并行渲染器先在内存中完成填充，
+ * 然后按分节边界（可选地先把超长表格按行数拆分到新的分节）把文档切分为多个分块，
+ * 各分块在有界线程池中并行排版并输出为PDF，最后按顺序拼接。
+ * </p>
+ * <p>
+ * 页码一致性：
+ * <ul>
+ *   <li>第一轮并行排版得到各分块的页数，计算每个分块的起始页码与总页数</li>
+ *   <li>每个分块的首个分节从对应的起始页码开始编号（原本就重新编号的分节保持不变）</li>
+ *   <li>NUMPAGES（总页数）域替换为整份报表的总页数</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 拼接：Aspose.Words 无法拼接已生成的PDF，拼接通过 {@link PdfStitcher} 完成，核心库不带拼接实现。未设置也未在classpath中声明拼接实现时，
+ * {@link #toFile(TemplateInterface, File)} 与 {@link #toStream(TemplateInterface, OutputStream)} 退回为整份文档单线程输出，
+ * 结果正确但不并行，每次退回都会记录警告；{@link #toParts(TemplateInterface)} 始终并行，返回按顺序排列的分块PDF。
+ * </p>
+ * <p>
+ * 注意：每个分块从新页开始，表格按行拆分后拆分处会换页，分页位置可能与整份输出略有不同。
+ * </p>
+ * <p>
+ * 并发数可通过系统属性修改：
+ * <pre>
+ * System.setProperty("smart.doc.chunk.concurrency", "8");  // 分块渲染线程数，默认CPU核数
+ * </pre>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * File pdf = ChunkedRenderer.of(templateFile)
+ *     .setRowsPerChunk(500)
+ *     .setStitcher(new PdfBoxStitcher())
+ *     .toFile(report, new File("/data/report.pdf"));
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see PdfStitcher PDF拼接SPI
+ * @see CompiledTemplate 已编译模板
+ */
+@Slf4j
+@Data
+@Accessors(chain = true)
+public class ChunkedRenderer {
+
+    /**
+     * 分块渲染共享线程池
+     * <p>
+     * 线程数默认等于CPU核数，队列有界，队列满时由提交线程自行执行。
+     * </p>
+     */
+    private static final ExecutorService CHUNK_POOL = ExecutorBuilder.create()
+            .setCorePoolSize(concurrency())
+            .setMaxPoolSize(concurrency())
+            .setWorkQueue(new LinkedBlockingQueue<>(1024))
+            .setThreadFactory(new NamedThreadFactory("smart-doc-chunk-", true))
+            .setHandler(new ThreadPoolExecutor.CallerRunsPolicy())
+            .build();
+
+    /** 模板文件 */
+    private File templateFile;
+
+    /** 每个分块包含的分节数 */
+    private int sectionsPerChunk = 1;
+
+    /** 表格按行拆分的行数（不含标题行），小于等于0时不拆分表格 */
+    private int rowsPerChunk = 0;
+
+    /** 输出配置档位，为null时使用Aspose默认PDF参数 */
+    private OutputProfile profile;
+
+    /** PDF拼接实现，为null时使用classpath中声明的实现 */
+    private PdfStitcher stitcher;
+
+    /**
+     * 私有构造方法 - 使用 {@link #of(File)} 创建实例
+     */
+    private ChunkedRenderer() {
+    }
+
+    /**
+     * 创建分块并行渲染器
+     *
+     * @param templateFile 模板文件
+     * @return {@link ChunkedRenderer }
+     */
+    public static ChunkedRenderer of(File templateFile) {
+        return new ChunkedRenderer().setTemplateFile(templateFile);
+    }
+
+    /**
+     * 渲染到PDF文件
+     *
+     * @param entity 模板数据实体
+     * @param output 输出PDF文件
+     * @return 输出文件
+     */
+    public <T extends TemplateInterface> File toFile(T entity, File output) {
+        FileUtil.mkParentDirs(output);
+        try (OutputStream out = DocumentIO.openOutput(output)) {
+            toStream(entity, out);
+        } catch (DocumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DocumentException(e, "写出PDF失败：" + output.getAbsolutePath());
+        }
+        return output;
+    }
+
+    /**
+     * 渲染到输出流
+     * <p>
+     * 输出流由调用方负责关闭。
+     * </p>
+     *
+     * @param entity 模板数据实体
+     * @param out    输出流
+     */
+    public <T extends TemplateInterface> void toStream(T entity, OutputStream out) {
+        PdfStitcher stitch = stitcher == null ? PdfStitcher.load() : stitcher;
+        if (stitch == null) {
+            log.warn("未设置也未在classpath中声明PdfStitcher实现，模板:{} 的 toFile/toStream 退回为单线程整份输出，"
+                    + "只有 toParts 并行；需要并行输出单个PDF时请通过 setStitcher 或 ServiceLoader 提供拼接实现", templateFile.getName());
+            try {
+                save(fill(entity), out);
+            } catch (DocumentException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new DocumentException(e, "输出PDF失败：" + templateFile.getName());
+            }
+            return;
+        }
+        List<File> parts = toParts(entity);
+        try {
+            stitch.stitch(parts, out);
+        } catch (Exception e) {
+            throw new DocumentException(e, "拼接PDF失败：" + templateFile.getName());
+        } finally {
+            parts.forEach(TempFileManager.get()::release);
+        }
+    }
+
+    /**
+     * 并行渲染为分块PDF
+     * <p>
+     * 分块PDF为受管临时文件，按页码顺序返回，由调用方使用完毕后通过 {@link TempFileManager#release(File)} 释放。
+     * </p>
+     *
+     * @param entity 模板数据实体
+     * @return 分块PDF文件
+     */
+    public <T extends TemplateInterface> List<File> toParts(T entity) {
+        List<Document> chunks = split(fill(entity));
+        Deadline deadline = Deadline.current();
+
+        // 第一轮：并行排版，得到各分块页数
+        List<Integer> pages = runAll(deadline, chunks, chunk -> {
+            chunk.updatePageLayout();
+            return chunk.getPageCount();
+        });
+        int total = pages.stream().mapToInt(Integer::intValue).sum();
+
+        // 第二轮：设置起始页码与总页数后并行输出
+        List<File> parts = new ArrayList<>(chunks.size());
+        List<Callable<File>> jobs = new ArrayList<>(chunks.size());
+        int offset = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            Document chunk = chunks.get(i);
+            int startPage = offset + 1;
+            offset += pages.get(i);
+            jobs.add(() -> {
+                numbering(chunk, startPage, total);
+                // 起始页码与总页数改变了页面内容，重新排版，否则保存时沿用第一轮的排版结果
+                chunk.updatePageLayout();
+                File part = TempFileManager.get().create(DocumentFormat.PDF).getFile();
+                synchronized (parts) {
+                    parts.add(part);
+                }
+                try (OutputStream out = DocumentIO.openOutput(part)) {
+                    save(chunk, out);
+                }
+                return part;
+            });
+        }
+        try {
+            List<File> ordered = invokeAll(deadline, jobs);
+            log.info("模板:{} 分块并行渲染 {} 块，共 {} 页", templateFile.getName(), ordered.size(), total);
+            return ordered;
+        } catch (RuntimeException e) {
+            parts.forEach(TempFileManager.get()::release);
+            throw e;
+        }
+    }
+
+    /**
+     * 基于已编译模板在内存中填充
+     *
+     * @param entity 模板数据实体
+     * @return 填充后的文档
+     */
+    private <T extends TemplateInterface> Document fill(T entity) {
+        return PlaceholderFactory.fillDocument(entity, TemplateCache.shared().get(templateFile));
+    }
+
+    /**
+     * 按分节边界切分文档
+     *
+     * @param doc 填充后的文档
+     * @return 分块文档
+     */
+    private List<Document> split(Document doc) {
+        if (sectionsPerChunk <= 0) {
+            throw new IllegalArgumentException("每个分块的分节数必须大于0");
+        }
+        try {
+            if (rowsPerChunk > 0) {
+                splitTables(doc);
+            }
+            List<Document> chunks = new ArrayList<>();
+            Document chunk = null;
+            int inChunk = 0;
+            for (Section section : doc.getSections().toArray()) {
+                if (chunk == null) {
+                    // 不拷贝子节点，保留样式、列表与文档设置
+                    chunk = (Document) doc.deepClone(false);
+                }
+                chunk.appendChild(chunk.importNode(section, true, ImportFormatMode.USE_DESTINATION_STYLES));
+                if (++inChunk >= sectionsPerChunk) {
+                    chunks.add(chunk);
+                    chunk = null;
+                    inChunk = 0;
+                }
+            }
+            if (chunk != null) {
+                chunks.add(chunk);
+            }
+            return chunks;
+        } catch (Exception e) {
+            throw new DocumentException(e, "切分文档失败：" + templateFile.getName());
+        }
+    }
+
+    /**
+     * 将正文中的超长表格按行拆分，各部分之间插入分节符，拆分后的表格重复原表格的标题行
+     *
+     * @param doc 文档
+     */
+    private void splitTables(Document doc) throws Exception {
+        List<Table> tables = new ArrayList<>();
+        for (Object node : doc.getChildNodes(NodeType.TABLE, true)) {
+            Table table = (Table) node;
+            if (table.getParentNode() != null && table.getParentNode().getNodeType() == NodeType.BODY) {
+                tables.add(table);
+            }
+        }
+        DocumentBuilder builder = new DocumentBuilder(doc);
+        for (Table table : tables) {
+            int heading = headingRows(table);
+            Table current = table;
+            while (current.getRows().getCount() - heading > rowsPerChunk) {
+                Table tail = (Table) current.deepClone(false);
+                Paragraph gap = new Paragraph(doc);
+                current.getParentNode().insertAfter(gap, current);
+                gap.getParentNode().insertAfter(tail, gap);
+                for (int i = 0; i < heading; i++) {
+                    tail.appendChild(current.getRows().get(i).deepClone(true));
+                }
+                while (current.getRows().getCount() > heading + rowsPerChunk) {
+                    tail.appendChild(current.getRows().get(heading + rowsPerChunk));
+                }
+                builder.moveTo(gap);
+                builder.insertBreak(BreakType.SECTION_BREAK_NEW_PAGE);
+                current = tail;
+            }
+        }
+    }
+
+    private static int headingRows(Table table) {
+        int heading = 0;
+        for (Row row : table.getRows()) {
+            if (!row.getRowFormat().getHeadingFormat()) {
+                break;
+            }
+            heading++;
+        }
+        return heading;
+    }
+
+    /**
+     * 设置分块的起始页码与总页数
+     *
+     * @param chunk     分块
+     * @param startPage 起始页码
+     * @param total     总页数
+     */
+    private static void numbering(Document chunk, int startPage, int total) throws Exception {
+        PageSetup pageSetup = chunk.getFirstSection().getPageSetup();
+        if (!pageSetup.getRestartPageNumbering()) {
+            pageSetup.setRestartPageNumbering(true);
+            pageSetup.setPageStartingNumber(startPage);
+        }
+        // 先收集再替换，避免在遍历域集合时修改文档
+        List<Field> numPages = new ArrayList<>();
+        for (Field field : chunk.getRange().getFields()) {
+            if (field.getType() == FieldType.FIELD_NUM_PAGES) {
+                numPages.add(field);
+            }
+        }
+        for (Field field : numPages) {
+            field.setResult(String.valueOf(total));
+            field.unlink();
+        }
+    }
+
+    private void save(Document doc, OutputStream out) throws Exception {
+        SaveOptions options = profile == null ? null : profile.saveOptions(DocumentFormat.PDF);
+        if (options == null) {
+            doc.save(out, SaveFormat.PDF);
+        } else {
+            doc.save(out, options);
+        }
+    }
+
+    /**
+     * 对每个分块并行执行任务，按分块顺序返回结果
+     */
+    private <R> List<R> runAll(Deadline deadline, List<Document> chunks, ChunkJob<R> job) {
+        List<Callable<R>> jobs = new ArrayList<>(chunks.size());
+        for (Document chunk : chunks) {
+            jobs.add(() -> job.apply(chunk));
+        }
+        return invokeAll(deadline, jobs);
+    }
+
+    /**
+     * 在分块线程池中执行任务，任一任务失败、超时或被中断时取消其余任务
+     */
+    private <R> List<R> invokeAll(Deadline deadline, List<Callable<R>> jobs) {
+        List<Future<R>> futures = new ArrayList<>(jobs.size());
+        for (Callable<R> job : jobs) {
+            futures.add(CHUNK_POOL.submit(() -> {
+                deadline.checkpoint("分块渲染 " + templateFile.getName());
+                return job.call();
+            }));
+        }
+        List<R> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<R> future : futures) {
+                results.add(deadline.isBounded()
+                        ? future.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS)
+                        : future.get());
+            }
+            return results;
+        } catch (TimeoutException e) {
+            futures.forEach(f -> f.cancel(true));
+            deadline.cancel();
+            throw new RenderTimeoutException(e, "分块渲染超时：" + templateFile.getName());
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RenderCancelledException(e, "分块渲染被中断：" + templateFile.getName());
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof DocumentException) {
+                throw (DocumentException) e.getCause();
+            }
+            throw new DocumentException(e.getCause(), "分块渲染失败：" + templateFile.getName());
+        }
+    }
+
+    private static int concurrency() {
+        return NumberUtil.parseInt(System.getProperty("smart.doc.chunk.concurrency"),
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 分块任务
+     */
+    @FunctionalInterface
+    private interface ChunkJob<R> {
+        R apply(Document chunk) throws Exception;
+    }
+}
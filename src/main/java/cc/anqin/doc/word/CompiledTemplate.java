@@ -0,0 +1,175 @@
+package cc.anqin.doc.word;
+
+import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.utils.DocumentIO;
+import cc.anqin.doc.word.placeholder.PlaceholderIndex;
+import cn.hutool.core.io.FileUtil;
+import com.aspose.words.Document;
+import com.aspose.words.SaveFormat;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已编译模板
+ * <p>
+ * 模板文件只解析一次，保存解析后的 Aspose 文档对象。每次渲染通过 {@link #newDocument()} 取得一份深拷贝，
+ * 在拷贝上填充，模板本身不被修改。批量渲染同一模板时省去了重复的文件读取与文档解析。
+ * </p>
+ * <p>
+ * 模板文件的修改时间或大小发生变化后 {@link #isStale()} 返回true，由 {@link TemplateCache} 重新编译。
+ * </p>
+ * <p>
+ * 模板中出现的占位符按前缀与后缀扫描一次后缓存（{@link #index(String, String)}），供清除阶段使用。
+ * </p>
+ * <p>
+ * 开启模板快照（{@link TemplateSnapshotStore}）后，编译结果按模板内容的哈希持久化，之后的进程直接从快照加载。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see TemplateCache 模板缓存
+ */
+@Getter
+public final class CompiledTemplate {
+
+    /** 模板文件 */
+    private final File file;
+
+    /** 编译时模板文件的修改时间 */
+    private final long lastModified;
+
+    /** 编译时模板文件的大小 */
+    private final long length;
+
+    /** 编译时间（毫秒时间戳） */
+    private final long compiledAt;
+
+    /** 解析后的模板文档，只用于拷贝 */
+    @Getter(AccessLevel.NONE)
+    private final Document document;
+
+    /** 前缀与后缀 -> 占位符索引 */
+    @Getter(AccessLevel.NONE)
+    private final Map<String, PlaceholderIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * 由解析结果或快照创建
+     *
+     * @param file         模板文件
+     * @param document     模板文档
+     * @param lastModified 读取模板或快照前模板文件的修改时间
+     * @param length       读取模板或快照前模板文件的大小
+     * @param indexes      快照中的占位符索引，解析时为空
+     */
+    CompiledTemplate(File file, Document document, long lastModified, long length, Collection<PlaceholderIndex> indexes) {
+        this.file = file;
+        this.lastModified = lastModified;
+        this.length = length;
+        this.compiledAt = System.currentTimeMillis();
+        this.document = document;
+        indexes.forEach(index -> this.indexes.put(key(index.getPrefix(), index.getSuffix()), index));
+    }
+
+    /**
+     * 编译模板文件，开启模板快照时优先从快照加载
+     *
+     * @param file 模板文件
+     * @return {@link CompiledTemplate }
+     * @throws DocumentException 模板不存在或解析失败
+     */
+    public static CompiledTemplate compile(File file) {
+        TemplateSnapshotStore store = TemplateSnapshotStore.shared();
+        return store == null ? parse(file) : store.compile(file);
+    }
+
+    /**
+     * 解析模板文件
+     *
+     * @param file 模板文件
+     * @return {@link CompiledTemplate }
+     * @throws DocumentException 模板不存在或解析失败
+     */
+    static CompiledTemplate parse(File file) {
+        if (!FileUtil.isFile(file)) {
+            throw new DocumentException("模板文件不存在：" + (file == null ? null : file.getAbsolutePath()));
+        }
+        // 先记录修改时间与大小再解析，解析期间的修改会在下一次获取时被发现
+        long lastModified = file.lastModified();
+        long length = file.length();
+        try {
+            return new CompiledTemplate(file, DocumentIO.load(file), lastModified, length, Collections.emptyList());
+        } catch (Exception e) {
+            throw new DocumentException(e, "编译模板失败：" + file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * 获取模板的一份深拷贝，用于填充
+     *
+     * @return {@link Document }
+     */
+    public Document newDocument() {
+        // Aspose 文档对象不保证并发读取安全，拷贝时串行化
+        synchronized (document) {
+            return document.deepClone();
+        }
+    }
+
+    /**
+     * 模板中出现的占位符
+     *
+     * @param prefix 占位符前缀
+     * @param suffix 占位符后缀
+     * @return {@link PlaceholderIndex }
+     */
+    public PlaceholderIndex index(String prefix, String suffix) {
+        return indexes.computeIfAbsent(key(prefix, suffix), key -> {
+            synchronized (document) {
+                return PlaceholderIndex.of(document, prefix, suffix);
+            }
+        });
+    }
+
+    /**
+     * 已扫描的占位符索引
+     *
+     * @return {@link Collection }
+     */
+    Collection<PlaceholderIndex> indexes() {
+        return Collections.unmodifiableCollection(indexes.values());
+    }
+
+    /**
+     * 模板文档保存为 DOCX 字节，用于写入快照
+     *
+     * @return DOCX 字节
+     * @throws Exception 保存失败
+     */
+    byte[] toDocx() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        synchronized (document) {
+            document.save(out, SaveFormat.DOCX);
+        }
+        return out.toByteArray();
+    }
+
+    private static String key(String prefix, String suffix) {
+        return prefix + '\0' + suffix;
+    }
+
+    /**
+     * 模板文件是否在编译后被修改
+     *
+     * @return boolean
+     */
+    public boolean isStale() {
+        return file.lastModified() != lastModified || file.length() != length;
+    }
+}
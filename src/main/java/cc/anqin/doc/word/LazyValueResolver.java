@@ -0,0 +1,178 @@
+package cc.anqin.doc.word;
+
+import cc.anqin.doc.concurrent.Deadline;
+import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.ex.RenderCancelledException;
+import cc.anqin.doc.ex.RenderTimeoutException;
+import cc.anqin.doc.metrics.MetricNames;
+import cc.anqin.doc.metrics.Metrics;
+import cc.anqin.doc.word.enums.PlaceholderType;
+import cc.anqin.doc.word.placeholder.PlaceholderIndex;
+import cc.anqin.doc.word.schema.PlaceholderSpec;
+import cn.hutool.core.thread.ExecutorBuilder;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.NumberUtil;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 延迟取值解析器
+ * <p>
+ * 实体字段（或 Map 实体的值）可以是 {@link Supplier} 或 {@link Future}（含 {@link CompletableFuture}），
+ * 用于信用分、支付二维码等需要调用外部服务才能取得的值。填充前由该类统一解析：
+ * <ul>
+ *   <li>按需解析 - 只解析模板中存在对应占位符的值，模板未使用的 Supplier 不会被调用，Future 不会被等待</li>
+ *   <li>并发解析 - 需要解析的 Supplier 提交到独立的线程池同时执行，总耗时取决于最慢的一个</li>
+ *   <li>截止时间 - 等待受渲染截止时间约束，超时后取消未完成的 Supplier 并抛出 {@link RenderTimeoutException}</li>
+ * </ul>
+ * 模板中不存在的延迟值从数据中移除，不会以对象的 toString 写入文档。数据中没有延迟值时原样返回，不产生额外开销。
+ * </p>
+ * <p>
+ * 配置（系统属性）：
+ * <pre>
+ * -Dsmart.doc.lazy.threads=32   // 解析线程数，默认CPU核数的4倍（取值通常是IO等待）
+ * </pre>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * public class LoanTemplate extends Template {
+ *     private String name;
+ *     private Supplier&lt;String&gt; creditScore = () -&gt; creditClient.score(userId);
+ *     &#064;Placeholder(value = PlaceholderType.PIC, pic = &#064;Placeholder.PicWord(width = 30, height = 30))
+ *     private CompletableFuture&lt;byte[]&gt; payQr = qrClient.generateAsync(orderId);
+ * }
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see PlaceholderFactory 文档模板占位符填充工厂
+ */
+@Slf4j
+@UtilityClass
+public class LazyValueResolver {
+
+    /** 解析线程池，Supplier 通常阻塞在IO上，线程数高于CPU核数 */
+    private final ExecutorService POOL = ExecutorBuilder.create()
+            .setCorePoolSize(NumberUtil.parseInt(System.getProperty("smart.doc.lazy.threads"),
+                    Runtime.getRuntime().availableProcessors() * 4))
+            .setMaxPoolSize(NumberUtil.parseInt(System.getProperty("smart.doc.lazy.threads"),
+                    Runtime.getRuntime().availableProcessors() * 4))
+            .setWorkQueue(new LinkedBlockingQueue<>())
+            .setThreadFactory(new NamedThreadFactory("smart-doc-lazy-", true))
+            .build();
+
+    /**
+     * 是否为延迟值
+     *
+     * @param value 值
+     * @return boolean
+     */
+    public boolean isLazy(Object value) {
+        return value instanceof Supplier || value instanceof Future;
+    }
+
+    /**
+     * 解析数据中的延迟值
+     *
+     * @param index    模板占位符索引，用于判断占位符是否存在
+     * @param specs    占位符描述
+     * @param data     占位符数据
+     * @param deadline 截止时间
+     * @return 延迟值已替换为实际值的数据；没有延迟值时返回传入的数据
+     * @throws DocumentException        取值失败
+     * @throws RenderTimeoutException   等待超时
+     * @throws RenderCancelledException 等待被中断
+     */
+    public Map<String, Object> resolve(PlaceholderIndex index, List<PlaceholderSpec> specs, Map<String, Object> data,
+                                       Deadline deadline) {
+        Map<String, PlaceholderSpec> lazy = new LinkedHashMap<>();
+        for (PlaceholderSpec spec : specs) {
+            if (isLazy(data.get(spec.getName()))) {
+                lazy.put(spec.getName(), spec);
+            }
+        }
+        if (lazy.isEmpty()) {
+            return data;
+        }
+
+        long start = Metrics.start();
+        Map<String, Object> resolved = new HashMap<>(data);
+        Map<String, Future<?>> pending = new LinkedHashMap<>();
+        List<Future<?>> submitted = new ArrayList<>();
+        lazy.forEach((name, spec) -> {
+            Object value = resolved.remove(name);
+            if (!present(index, spec)) {
+                log.debug("模板中没有占位符 {}，跳过延迟取值", name);
+                return;
+            }
+            if (value instanceof Future) {
+                pending.put(name, (Future<?>) value);
+            } else {
+                CompletableFuture<?> future = CompletableFuture.supplyAsync((Supplier<?>) value, POOL);
+                submitted.add(future);
+                pending.put(name, future);
+            }
+        });
+
+        try {
+            for (Map.Entry<String, Future<?>> entry : pending.entrySet()) {
+                Object value = await(entry.getKey(), entry.getValue(), deadline);
+                if (value != null) {
+                    resolved.put(entry.getKey(), value);
+                }
+            }
+        } catch (RuntimeException e) {
+            // 放弃本次渲染时不再执行尚未开始的取值，调用方传入的 Future 不受影响
+            submitted.forEach(future -> future.cancel(true));
+            throw e;
+        } finally {
+            Metrics.stop(MetricNames.LAZY_RESOLVE, start);
+        }
+        return resolved;
+    }
+
+    /**
+     * 占位符是否存在于模板中，动态行按列判断
+     * <p>
+     * 动态行的名称不出现在模板中，列名未知时无法判断，按存在处理。
+     * </p>
+     */
+    private boolean present(PlaceholderIndex index, PlaceholderSpec spec) {
+        if (spec.getType() == PlaceholderType.DYNAMIC_ROW) {
+            return spec.getColumns().isEmpty() || spec.getColumns().stream().anyMatch(index::contains);
+        }
+        return index.contains(spec.getName());
+    }
+
+    /**
+     * 在截止时间内等待取值
+     */
+    private Object await(String name, Future<?> future, Deadline deadline) {
+        try {
+            return future.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new RenderTimeoutException(e, "延迟取值超时：" + name);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RenderCancelledException(e, "延迟取值被中断：" + name);
+        } catch (ExecutionException e) {
+            throw new DocumentException(e.getCause(), "延迟取值失败：" + name);
+        }
+    }
+}
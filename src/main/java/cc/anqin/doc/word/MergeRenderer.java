@@ -0,0 +1,345 @@
+package cc.anqin.doc.word;
+
+import cc.anqin.doc.concurrent.Deadline;
+import cc.anqin.doc.convert.DocumentFormat;
+import cc.anqin.doc.convert.OutputProfile;
+import cc.anqin.doc.convert.PdfStitcher;
+import cc.anqin.doc.entity.TemplateInterface;
+import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.utils.DocumentIO;
+import cc.anqin.doc.utils.TempFileManager;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.NumberUtil;
+import com.aspose.words.Document;
+import com.aspose.words.ImportFormatMode;
+import com.aspose.words.PageSetup;
+import com.aspose.words.SaveOptions;
+import com.aspose.words.SectionStart;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 合并渲染器（邮件合并）
+ * <p>
+ * 批量信函等场景需要用同一个模板渲染成千上万个实体，并合并为一个输出文档。原先只能对每个实体分别调用
+ * {@code FT.fer()} 后再拼接输出文件。合并渲染器把每个实体填充到已编译模板的拷贝中，
+ * 通过 {@code appendDocument} 以分节符追加，最终输出为一个 DOCX 或 PDF 等格式的文档。
+ * </p>
+ * <p>
+ * 内存控制：
+ * <ul>
+ *   <li>实体按迭代器逐个读取，调用方可以传入惰性的数据源，不需要一次性加载全部实体</li>
+ *   <li>每累计 chunkSize 个实体，当前分块即保存为受管临时分块文件并释放，内存中只保留一个分块</li>
+ *   <li>{@link #toParts(Iterable)} 直接输出各分块文件，内存始终受分块大小约束</li>
+ *   <li>输出PDF且有 {@link PdfStitcher} 实现（通过 {@link #setStitcher(PdfStitcher)} 设置或在classpath中声明）时，
+ *   {@link #toFile(Iterable, File)} 与 {@link #toStream(Iterable, OutputStream)} 把各分块保存为PDF后拼接，内存同样受分块大小约束；
+ *   分块之间页码连续，每个分块从新页开始，NUMPAGES（总页数）域只统计所在分块的页数</li>
+ *   <li>其它格式，或没有拼接实现时，Aspose 只能从一个完整的 {@link Document} 保存，toFile / toStream 会把全部分块依次追加为
+ *   一个文档后再保存，<b>峰值内存随整批实体数增长，不受分块大小约束</b>，并记录警告</li>
+ * </ul>
+ * 没有拼接实现时，大批量合并（超过几个分块）应使用 {@link #toParts(Iterable)}，由调用方逐个上传或交给外部工具拼接。
+ * </p>
+ * <p>
+ * 分块大小可通过系统属性修改：
+ * <pre>
+ * System.setProperty("smart.doc.merge.chunk", "500");  // 每个分块的实体数，默认200
+ * </pre>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * // 合并为一个PDF
+ * MergeRenderer.of(templateFile).setFormat(DocumentFormat.PDF).toFile(letters, new File("/data/letters.pdf"));
+ *
+ * // 直接写入响应流
+ * MergeRenderer.of(templateFile).toStream(letters, response.getOutputStream());
+ *
+ * // 只输出分块文件，由调用方逐个上传
+ * List&lt;File&gt; parts = MergeRenderer.of(templateFile).setFormat(DocumentFormat.PDF).toParts(letters);
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see CompiledTemplate 已编译模板
+ * @see PlaceholderFactory#fillDocument(TemplateInterface, CompiledTemplate) 基于已编译模板填充
+ */
+@Slf4j
+@Data
+@Accessors(chain = true)
+public class MergeRenderer {
+
+    /** 默认分块实体数 */
+    private static final int DEFAULT_CHUNK = NumberUtil.parseInt(System.getProperty("smart.doc.merge.chunk"), 200);
+
+    /** 模板文件 */
+    private File templateFile;
+
+    /** 输出格式，默认DOCX */
+    private DocumentFormat format = DocumentFormat.DOCX;
+
+    /** 每个分块的实体数 */
+    private int chunkSize = DEFAULT_CHUNK;
+
+    /** 每个实体起始分节的方式，默认新页（见 {@link SectionStart}） */
+    private int sectionStart = SectionStart.NEW_PAGE;
+
+    /** 输出配置档位，为null时使用Aspose默认保存参数 */
+    private OutputProfile profile;
+
+    /** PDF拼接实现，为null时使用classpath中声明的实现 */
+    private PdfStitcher stitcher;
+
+    /**
+     * 私有构造方法 - 使用 {@link #of(File)} 创建实例
+     */
+    private MergeRenderer() {
+    }
+
+    /**
+     * 创建合并渲染器
+     *
+     * @param templateFile 模板文件
+     * @return {@link MergeRenderer }
+     */
+    public static MergeRenderer of(File templateFile) {
+        return new MergeRenderer().setTemplateFile(templateFile);
+    }
+
+    /**
+     * 合并渲染到文件
+     * <p>
+     * 与 {@link #toStream(Iterable, OutputStream)} 相同，只有输出PDF且有拼接实现时内存受分块大小约束。
+     * </p>
+     *
+     * @param entities 实体，按迭代顺序合并
+     * @param output   输出文件
+     * @return 输出文件
+     */
+    public <T extends TemplateInterface> File toFile(Iterable<T> entities, File output) {
+        FileUtil.mkParentDirs(output);
+        try (OutputStream out = DocumentIO.openOutput(output)) {
+            toStream(entities, out);
+        } catch (DocumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DocumentException(e, "写出合并文档失败：" + output.getAbsolutePath());
+        }
+        return output;
+    }
+
+    /**
+     * 合并渲染到输出流
+     * <p>
+     * 输出PDF且有拼接实现时，各分块保存为PDF后通过 {@link PdfStitcher} 拼接写出，内存受分块大小约束。
+     * 否则全部分块在内存中追加为一个文档后保存，峰值内存随整批实体数增长；大批量合并请使用 {@link #toParts(Iterable)}。
+     * 输出流由调用方负责关闭。
+     * </p>
+     *
+     * @param entities 实体，按迭代顺序合并
+     * @param out      输出流
+     * @return 合并的实体数
+     */
+    public <T extends TemplateInterface> int toStream(Iterable<T> entities, OutputStream out) {
+        PdfStitcher stitch = format != DocumentFormat.PDF ? null : stitcher == null ? PdfStitcher.load() : stitcher;
+        if (stitch != null) {
+            return stitch(entities, out, stitch);
+        }
+        if (format == DocumentFormat.PDF) {
+            log.warn("未设置也未在classpath中声明PdfStitcher实现，模板:{} 的合并PDF退回为整份文档在内存中合并后输出，"
+                    + "需要内存受分块大小约束时请通过 setStitcher 或 ServiceLoader 提供拼接实现", templateFile.getName());
+        }
+        List<File> parts = new ArrayList<>();
+        try {
+            int count = render(entities.iterator(), DocumentFormat.DOCX, parts, false);
+            Document merged = null;
+            for (File part : parts) {
+                Deadline.current().checkpoint("合并分块 " + part.getName());
+                Document doc = load(part);
+                if (merged == null) {
+                    merged = doc;
+                } else {
+                    merged.appendDocument(doc, ImportFormatMode.KEEP_SOURCE_FORMATTING);
+                }
+                TempFileManager.get().release(part);
+            }
+            if (merged == null) {
+                throw new DocumentException("没有需要合并的实体");
+            }
+            if (parts.size() > 1) {
+                log.warn("模板:{} 合并 {} 个分块为单个文档，整份文档驻留内存，大批量合并请使用 toParts", templateFile.getName(), parts.size());
+            }
+            save(merged, out, format);
+            log.info("模板:{} 合并渲染 {} 份，分块 {} 个", templateFile.getName(), count, parts.size());
+            return count;
+        } catch (DocumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DocumentException(e, "合并渲染失败：" + templateFile.getName());
+        } finally {
+            // 已在追加后释放的分块重复释放不做任何处理
+            parts.forEach(TempFileManager.get()::release);
+        }
+    }
+
+    /**
+     * 各分块保存为PDF后拼接写出
+     *
+     * @param entities 实体，按迭代顺序合并
+     * @param out      输出流
+     * @param stitch   拼接实现
+     * @return 合并的实体数
+     */
+    private <T extends TemplateInterface> int stitch(Iterable<T> entities, OutputStream out, PdfStitcher stitch) {
+        List<File> parts = new ArrayList<>();
+        try {
+            int count = render(entities.iterator(), DocumentFormat.PDF, parts, true);
+            if (parts.isEmpty()) {
+                throw new DocumentException("没有需要合并的实体");
+            }
+            Deadline.current().checkpoint("拼接分块 " + templateFile.getName());
+            stitch.stitch(parts, out);
+            log.info("模板:{} 合并渲染 {} 份，分块 {} 个，已拼接", templateFile.getName(), count, parts.size());
+            return count;
+        } catch (DocumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DocumentException(e, "拼接合并PDF失败：" + templateFile.getName());
+        } finally {
+            parts.forEach(TempFileManager.get()::release);
+        }
+    }
+
+    /**
+     * 合并渲染为分块文件
+     * <p>
+     * 每个分块包含 chunkSize 个实体，按输出格式保存为受管临时文件，按顺序返回。
+     * 分块文件由调用方使用完毕后通过 {@link TempFileManager#release(File)} 释放，未释放的由管理器过期回收。
+     * </p>
+     *
+     * @param entities 实体，按迭代顺序合并
+     * @return 分块文件
+     */
+    public <T extends TemplateInterface> List<File> toParts(Iterable<T> entities) {
+        List<File> parts = new ArrayList<>();
+        try {
+            render(entities.iterator(), format, parts, false);
+            return parts;
+        } catch (RuntimeException e) {
+            parts.forEach(TempFileManager.get()::release);
+            throw e;
+        }
+    }
+
+    /**
+     * 逐个填充实体，按分块保存
+     *
+     * @param entities      实体迭代器
+     * @param partFormat    分块文件格式
+     * @param parts         接收分块文件
+     * @param continuePages 各分块的页码是否接续前一个分块，用于拼接为单个PDF
+     * @return 填充的实体数
+     */
+    private <T extends TemplateInterface> int render(Iterator<T> entities, DocumentFormat partFormat, List<File> parts,
+                                                     boolean continuePages) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("分块大小必须大于0");
+        }
+        CompiledTemplate compiled = TemplateCache.shared().get(templateFile);
+        Deadline deadline = Deadline.current();
+        Document chunk = null;
+        int inChunk = 0;
+        int count = 0;
+        int pages = 0;
+        try {
+            while (entities.hasNext()) {
+                T entity = entities.next();
+                deadline.checkpoint("合并渲染 第" + (count + 1) + "份");
+                Document filled = PlaceholderFactory.fillDocument(entity, compiled);
+                filled.getFirstSection().getPageSetup().setSectionStart(sectionStart);
+                if (chunk == null) {
+                    chunk = filled;
+                } else {
+                    chunk.appendDocument(filled, ImportFormatMode.KEEP_SOURCE_FORMATTING);
+                }
+                count++;
+                if (++inChunk >= chunkSize) {
+                    if (continuePages) {
+                        pages = continuePages(chunk, pages);
+                    }
+                    parts.add(flush(chunk, partFormat));
+                    chunk = null;
+                    inChunk = 0;
+                }
+            }
+            if (chunk != null) {
+                if (continuePages) {
+                    continuePages(chunk, pages);
+                }
+                parts.add(flush(chunk, partFormat));
+            }
+            return count;
+        } catch (DocumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DocumentException(e, "合并渲染失败：第" + (count + 1) + "份");
+        }
+    }
+
+    /**
+     * 分块的页码接续前面的分块
+     * <p>
+     * 首个分节原本就重新编号时保持不变。排版在保存前完成，保存时沿用同一排版结果。
+     * </p>
+     *
+     * @param chunk       分块
+     * @param pagesBefore 前面分块的总页数
+     * @return 包含该分块在内的总页数
+     */
+    private static int continuePages(Document chunk, int pagesBefore) throws Exception {
+        PageSetup pageSetup = chunk.getFirstSection().getPageSetup();
+        if (pagesBefore > 0 && !pageSetup.getRestartPageNumbering()) {
+            pageSetup.setRestartPageNumbering(true);
+            pageSetup.setPageStartingNumber(pagesBefore + 1);
+        }
+        return pagesBefore + chunk.getPageCount();
+    }
+
+    /**
+     * 保存分块到受管临时文件
+     *
+     * @param chunk      分块文档
+     * @param partFormat 分块格式
+     * @return 分块文件
+     */
+    private File flush(Document chunk, DocumentFormat partFormat) throws Exception {
+        File part = TempFileManager.get().create(partFormat).getFile();
+        try (OutputStream out = DocumentIO.openOutput(part)) {
+            save(chunk, out, partFormat);
+        } catch (Exception e) {
+            TempFileManager.get().release(part);
+            throw e;
+        }
+        return part;
+    }
+
+    private void save(Document doc, OutputStream out, DocumentFormat type) throws Exception {
+        SaveOptions options = profile == null ? null : profile.saveOptions(type);
+        if (options == null) {
+            doc.save(out, type.getValue());
+        } else {
+            doc.save(out, options);
+        }
+    }
+
+    private static Document load(File file) throws Exception {
+        return DocumentIO.load(file);
+    }
+}
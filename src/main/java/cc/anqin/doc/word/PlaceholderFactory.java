@@ -1,32 +1,46 @@
 package cc.anqin.doc.word;
 
+import cc.anqin.doc.concurrent.Deadline;
 import cc.anqin.doc.convert.DocumentFormat;
+import cc.anqin.doc.convert.OutputProfile;
+import cc.anqin.doc.entity.MapEntity;
 import cc.anqin.doc.entity.Template;
 import cc.anqin.doc.entity.TemplateInterface;
 import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.ex.RenderCancelledException;
+import cc.anqin.doc.metrics.MetricNames;
+import cc.anqin.doc.metrics.Metrics;
+import cc.anqin.doc.metrics.RenderTrace;
+import cc.anqin.doc.metrics.ResourceMeter;
+import cc.anqin.doc.metrics.ResourceUsage;
+import cc.anqin.doc.utils.CountingOutputStream;
+import cc.anqin.doc.utils.DocumentIO;
 import cc.anqin.doc.utils.FileUtils;
 import cc.anqin.doc.utils.Pair;
 import cc.anqin.doc.word.annotation.Placeholder;
 import cc.anqin.doc.word.placeholder.DynamicRowPlaceholderFiller;
 import cc.anqin.doc.word.placeholder.ImagePlaceholderFiller;
 import cc.anqin.doc.word.placeholder.PlaceholderFillerService;
+import cc.anqin.doc.word.placeholder.PlaceholderIndex;
 import cc.anqin.doc.word.placeholder.TextPlaceholderFiller;
+import cc.anqin.doc.word.schema.PlaceholderSchema;
+import cc.anqin.doc.word.schema.PlaceholderSpec;
+import cc.anqin.processor.base.ConvertMap;
 import cn.hutool.core.collection.ListUtil;
 import cn.hutool.core.exceptions.ExceptionUtil;
-import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.RandomUtil;
-import cn.hutool.core.util.ReflectUtil;
 import com.aspose.words.Document;
 import com.aspose.words.SaveFormat;
+import com.aspose.words.SaveOptions;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.print.Doc;
 import java.io.File;
-import java.lang.reflect.Field;
-import java.nio.file.Files;
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -45,6 +59,7 @@ import java.util.List;
  *   <li>反射机制自动处理 - 通过反射自动识别和处理不同类型的占位符</li>
  *   <li>并行处理策略 - 使用并行流提高处理效率</li>
  *   <li>占位符清理 - 自动清理未使用的占位符</li>
+ *   <li>延迟取值 - Supplier/Future 类型的值只在模板使用对应占位符时并发解析（{@link LazyValueResolver}）</li>
  * </ul>
  * </p>
  * <p>
@@ -98,12 +113,28 @@ public class PlaceholderFactory {
      * @throws DocumentException 如果模板填充过程中发生错误
      */
     public <T extends TemplateInterface> Pair<File, File> fillTemplate(T source, File template, DocumentFormat currentType) {
+        return fillTemplate(source, template, currentType, null);
+    }
+
+    /**
+     * 填充模板并按指定档位输出到临时文件
+     *
+     * @param source 包含填充数据的源对象
+     * @param template 要填充的模板文件
+     * @param currentType 当前类型
+     * @param profile 输出配置档位，为null时使用Aspose默认保存参数
+     * @return Pair对象，key为模板记录文件，value为输出文件
+     * @param <T> 模板数据类型
+     * @see OutputProfile 输出配置档位
+     */
+    public <T extends TemplateInterface> Pair<File, File> fillTemplate(T source, File template, DocumentFormat currentType,
+                                                                       OutputProfile profile) {
 
         File record = FileUtils.getTemporaryFile(DocumentFormat.DOCX);
 
         File current = FileUtils.getTemporaryFile(currentType);
 
-        return fillTemplate(source, template, record, current, currentType);
+        return fillTemplate(source, template, record, current, currentType, profile);
     }
 
     /**
@@ -113,6 +144,7 @@ public class PlaceholderFactory {
      * <ol>
      * <li>创建临时文件用于存储处理结果</li>
      * <li>加载模板文档</li>
+     * <li>解析模板中用到的延迟取值</li>
      * <li>并行执行各种占位符填充策略</li>
      * <li>保存填充后的文档</li>
      * <li>清除未替换的变量</li>
@@ -133,38 +165,248 @@ public class PlaceholderFactory {
      */
     public <T extends TemplateInterface>
     Pair<File, File> fillTemplate(T source, File template, File record, File current, DocumentFormat currentType) {
+        return fillTemplate(source, template, record, current, currentType, null);
+    }
+
+    /**
+     * 填充Word模板文件，并按指定档位保存当前文件
+     * <p>
+     * 与 {@link #fillTemplate(TemplateInterface, File, File, File, DocumentFormat)} 相同，
+     * 当前文件为PDF、图片等有专用保存选项的格式时，使用按档位参数创建的SaveOptions保存。
+     * </p>
+     * <p>
+     * 填充在当前线程绑定的截止时间（{@link Deadline#current()}）下执行，各阶段之间及每个字段处理前检查截止时间，
+     * 超时或被取消时抛出 {@link RenderCancelledException} 及其子类。
+     * 当前线程绑定了渲染追踪（{@link RenderTrace#current()}）时，记录各阶段、填充器与字段的耗时。
+     * 填充在所有参与线程上分配的内存与CPU时间通过 {@link ResourceMeter} 计量并上报指标。
+     * </p>
+     *
+     * @param source 包含填充数据的源对象
+     * @param template 要填充的模板文件
+     * @param record 模板记录文件，为null时不生成记录
+     * @param current 当前 清空变量的文件
+     * @param currentType 当前类型
+     * @param profile 输出配置档位，为null时使用Aspose默认保存参数
+     * @return Pair对象，key为模板记录文件，value为清除变量后的文件
+     * @see OutputProfile 输出配置档位
+     */
+    public <T extends TemplateInterface>
+    Pair<File, File> fillTemplate(T source, File template, File record, File current, DocumentFormat currentType,
+                                  OutputProfile profile) {
+        try (OutputStream recordOut = record == null ? null : DocumentIO.openOutput(record);
+             OutputStream currentOut = DocumentIO.openOutput(current)) {
+            fillTemplate(source, template, recordOut, currentOut, currentType, profile);
+        } catch (IOException e) {
+            throw new DocumentException(e);
+        }
+        log.debug("模板:{} 文档记录：{}，文档：{}", template.getName(),
+                record == null ? null : record.getAbsolutePath(), current.getAbsolutePath());
 
+        // key 作为 docx 模板记录，value 作为 要转换的 PDF 文件
+        return Pair.of(record, current);
+    }
+
+    /**
+     * 填充Word模板并写入调用方提供的输出流
+     * <p>
+     * 与文件版本的处理流程相同，但记录与结果直接保存到输出流，不产生任何文件，
+     * 适用于直接写入HTTP响应、对象存储分片上传等场景。记录输出流为null时不生成记录，
+     * 填充后直接在内存中清除未填充的占位符。输出流由调用方负责关闭。
+     * </p>
+     *
+     * @param source 包含填充数据的源对象
+     * @param template 要填充的模板文件
+     * @param record 模板记录（DOCX）的输出流，为null时不生成记录
+     * @param current 清除占位符后的文档的输出流
+     * @param currentType 输出格式
+     * @param profile 输出配置档位，为null时使用Aspose默认保存参数
+     * @param <T> 模板数据类型
+     * @throws DocumentException 填充或保存失败
+     * @throws RenderCancelledException 超时或被取消
+     */
+    public <T extends TemplateInterface>
+    void fillTemplate(T source, File template, OutputStream record, OutputStream current, DocumentFormat currentType,
+                      OutputProfile profile) {
+
+        Deadline deadline = Deadline.current();
+        RenderTrace trace = RenderTrace.current();
+        ResourceMeter meter = ResourceMeter.start();
+        long renderStart = System.nanoTime();
 
         // 加载模板并处理
         try {
-            // 过滤 final 修饰的属性
-            Field[] fields = Arrays.stream(ReflectUtil.getFields(source.getClass()))
-                    .filter(field -> !java.lang.reflect.Modifier.isFinal(field.getModifiers()))
-                    .toArray(Field[]::new);
+            List<PlaceholderSpec> specs = specs(source);
+            Map<String, Object> data = data(source);
 
+            long start = System.nanoTime();
             Document doc = doc(template);
+            record(trace, MetricNames.TEMPLATE_LOAD, start);
+            deadline.checkpoint("加载模板 " + template.getName());
+
+            PlaceholderIndex index = PlaceholderIndex.of(doc, source.getPrefix(), source.getSuffix());
+            data = LazyValueResolver.resolve(index, specs, data, deadline);
 
-            parallelExecuteStrategy(doc, source);
+            parallelExecuteStrategy(doc, source, specs, data, deadline, trace, meter);
+            deadline.checkpoint("填充占位符 " + template.getName());
 
-            doc.save(Files.newOutputStream(record.toPath()), SaveFormat.DOCX);
+            if (record != null) {
+                start = System.nanoTime();
+                save(doc, record, SaveFormat.DOCX, null, trace);
+                record(trace, MetricNames.RECORD_SAVE, start);
+                log.info("模板:{} 文档记录生成成功", template.getName());
+            }
 
-            log.info("模板:{} 文档记录生成成功：{}", template.getName(), record.getAbsolutePath());
+            // 记录已经保存，直接在同一文档上清除变量，不再重新加载记录
+            start = System.nanoTime();
+            clearPlaceholders(index, doc, trace);
+            record(trace, MetricNames.CLEAR_VARIABLE, start);
+            deadline.checkpoint("清除占位符 " + template.getName());
 
-            // 清除变量
-            Document docClearVariable = doc(record);
+            start = System.nanoTime();
+            save(doc, current, currentType.getValue(), profile == null ? null : profile.saveOptions(currentType), trace);
+            record(trace, MetricNames.FINAL_SAVE, start);
 
-            executeClearVariable(fields, docClearVariable, source);
+            log.info("模板:{} 文档生成成功", template.getName());
+            record(trace, MetricNames.RENDER, renderStart);
+        } catch (RenderCancelledException e) {
+            log.warn("模板:{} 文档生成已停止：{}", template.getName(), e.getErrMsg());
+            throw e;
+        } catch (Exception e) {
+            log.error("模板:{} 文档生成失败，error：{}", template.getName(), ExceptionUtil.stacktraceToString(e));
+            throw new DocumentException(e);
+        } finally {
+            ResourceUsage usage = meter.stop();
+            Metrics.count(MetricNames.FILL_ALLOCATED_BYTES, usage.getAllocatedBytes());
+            Metrics.time(MetricNames.FILL_CPU, usage.getCpuNanos());
+            trace.count(RenderTrace.ALLOCATED_BYTES, usage.getAllocatedBytes());
+            trace.count(RenderTrace.CPU_NANOS, usage.getCpuNanos());
+        }
+    }
+
+    /**
+     * 在内存中填充文档
+     * <p>
+     * 直接在传入的文档上执行所有占位符填充策略并清除未填充的占位符，不生成记录文件和中间文件。
+     * 适用于基于 {@link CompiledTemplate#newDocument()} 的批量渲染，调用方负责保存或合并填充后的文档。
+     * </p>
+     * <p>
+     * 与 {@link #fillTemplate(TemplateInterface, File, File, File, DocumentFormat, OutputProfile)} 一样，
+     * 在当前线程绑定的截止时间与渲染追踪下执行。
+     * </p>
+     *
+     * @param source 包含填充数据的源对象
+     * @param doc 要填充的文档，通常是已编译模板的拷贝
+     * @return 填充后的文档（即传入的文档）
+     * @param <T> 模板数据类型
+     * @see CompiledTemplate 已编译模板
+     */
+    public <T extends TemplateInterface> Document fillDocument(T source, Document doc) {
+        return fillDocument(source, doc, PlaceholderIndex.of(doc, source.getPrefix(), source.getSuffix()));
+    }
 
-            docClearVariable.save(Files.newOutputStream(current.toPath()), currentType.getValue());
+    /**
+     * 基于已编译模板在内存中填充
+     * <p>
+     * 在模板的一份拷贝上填充，清除阶段使用模板缓存的占位符索引，不再扫描文档文本。
+     * </p>
+     *
+     * @param source 包含填充数据的源对象
+     * @param template 已编译模板
+     * @return 填充后的文档
+     * @param <T> 模板数据类型
+     */
+    public <T extends TemplateInterface> Document fillDocument(T source, CompiledTemplate template) {
+        return fillDocument(source, template.newDocument(), template.index(source.getPrefix(), source.getSuffix()));
+    }
 
-            log.info("模板:{} 文档生成成功：{}", template.getName(), current.getAbsolutePath());
+    private <T extends TemplateInterface> Document fillDocument(T source, Document doc, PlaceholderIndex index) {
+        Deadline deadline = Deadline.current();
+        RenderTrace trace = RenderTrace.current();
+        ResourceMeter meter = ResourceMeter.start();
+        long renderStart = System.nanoTime();
+        try {
+            List<PlaceholderSpec> specs = specs(source);
+            Map<String, Object> data = LazyValueResolver.resolve(index, specs, data(source), deadline);
+            parallelExecuteStrategy(doc, source, specs, data, deadline, trace, meter);
+            deadline.checkpoint("填充占位符");
 
-            // key 作为 docx 模板记录，value 作为 要转换的 PDF 文件
-            return Pair.of(record, current);
+            long start = System.nanoTime();
+            clearPlaceholders(index, doc, trace);
+            record(trace, MetricNames.CLEAR_VARIABLE, start);
+            record(trace, MetricNames.RENDER, renderStart);
+            return doc;
+        } catch (DocumentException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("模板:{} 文档生成失败，error：{}", template.getName(), ExceptionUtil.stacktraceToString(e));
             throw new DocumentException(e);
+        } finally {
+            ResourceUsage usage = meter.stop();
+            Metrics.count(MetricNames.FILL_ALLOCATED_BYTES, usage.getAllocatedBytes());
+            Metrics.time(MetricNames.FILL_CPU, usage.getCpuNanos());
+        }
+    }
+
+    /**
+     * 获取实体中需要处理的占位符描述
+     * <p>
+     * Map 实体使用其携带的声明；实体类使用按类缓存的注解声明（过滤 final 修饰的属性），不再每次渲染反射解析字段。
+     * </p>
+     *
+     * @param source 实体
+     * @return 占位符描述
+     */
+    private List<PlaceholderSpec> specs(TemplateInterface source) {
+        if (source instanceof MapEntity) {
+            return ((MapEntity) source).getSchema().getSpecs();
         }
+        return PlaceholderSchema.of(source.getClass()).getSpecs();
+    }
+
+    /**
+     * 获取实体的占位符数据，各填充器共享，只读
+     *
+     * @param source 实体
+     * @return 占位符名称 -&gt; 值
+     */
+    private Map<String, Object> data(TemplateInterface source) {
+        if (source instanceof MapEntity) {
+            return ((MapEntity) source).getData();
+        }
+        return ConvertMap.toMap(source, source.getClass());
+    }
+
+    /**
+     * 同时上报阶段耗时指标与渲染追踪
+     *
+     * @param trace 渲染追踪
+     * @param name  阶段指标名
+     * @param start 开始时刻（纳秒）
+     */
+    private void record(RenderTrace trace, String name, long start) {
+        Metrics.stop(name, start);
+        trace.phase(name, start);
+    }
+
+    /**
+     * 保存文档到输出流并上报写入字节数，输出流不关闭
+     *
+     * @param doc 文档
+     * @param out 输出流
+     * @param format 保存格式，options为null时使用
+     * @param options 保存选项，可为null
+     * @param trace 渲染追踪
+     * @throws Exception 保存失败
+     */
+    private void save(Document doc, OutputStream out, int format, SaveOptions options, RenderTrace trace) throws Exception {
+        CountingOutputStream counting = new CountingOutputStream(out);
+        if (options == null) {
+            doc.save(counting, format);
+        } else {
+            doc.save(counting, options);
+        }
+        counting.flush();
+        Metrics.count(MetricNames.BYTES_WRITTEN, counting.getCount());
+        trace.count(RenderTrace.BYTES_WRITTEN, counting.getCount());
     }
 
     /**
@@ -180,7 +422,7 @@ public class PlaceholderFactory {
      * @throws Exception 当文件加载失败时抛出，包括文件不存在、格式不支持等错误
      */
     private Document doc(File file) throws Exception {
-        return new Document(FileUtil.getInputStream(file));
+        return DocumentIO.load(file);
     }
 
     /**
@@ -197,40 +439,42 @@ public class PlaceholderFactory {
      *
      * @param doc Aspose文档对象，包含要填充的模板内容
      * @param entity 包含填充数据的实体对象，必须实现AsposePlaceholder接口
+     * @param specs 实体的占位符描述，各填充器从中筛选自己处理的部分
+     * @param data 占位符数据
+     * @param deadline 截止时间，并行流的工作线程不继承调用线程的绑定，需要显式传递给各填充器
+     * @param trace 渲染追踪，与截止时间一样需要显式传递
+     * @param meter 资源计量器，工作线程上的内存分配与CPU时间通过它汇总
      * @param <T> 实体类型，必须实现AsposePlaceholder接口
      */
     private <T extends TemplateInterface> void
-    parallelExecuteStrategy(Document doc, T entity) {
-        getStrategy().parallelStream().forEach(f -> f.create(f.supports(entity.getClass()), doc, entity).filler());
-    }
-
-    /**
-     * 执行占位符清理操作（使用默认模板）
-     * <p>
-     * 该方法使用默认模板清理文档中未使用的占位符，将它们替换为空白内容。
-     * 默认模板提供了标准的占位符前缀和后缀配置。
-     * </p>
-     *
-     * @param fields 需要清理的字段数组，通常是通过反射获取的非final字段
-     * @param doc 要清理的Aspose文档对象
-     */
-    private void executeClearVariable(Field[] fields, Document doc) {
-        executeClearVariable(fields, doc, Template.defaultTemplate());
+    parallelExecuteStrategy(Document doc, T entity, List<PlaceholderSpec> specs, Map<String, Object> data,
+                            Deadline deadline, RenderTrace trace, ResourceMeter meter) {
+        getStrategy().parallelStream().forEach(f -> meter.track(() -> {
+            f.setDeadline(deadline);
+            f.setTrace(trace);
+            long start = System.nanoTime();
+            f.create(f.supports(specs), doc, data, entity).filler();
+            Metrics.stop(f.metricName(), start);
+            trace.filler(f.metricName(), start);
+        }));
     }
 
     /**
-     * 执行占位符清理操作（使用指定模板）
+     * 一次性清除未填充的占位符
      * <p>
-     * 该方法使用指定的模板清理文档中未使用的占位符，将它们替换为空白内容。
-     * 清理过程会遍历所有指定的字段，将对应的占位符替换为预定义的空白字符。
+     * 按模板占位符索引对整篇文档做一次查找替换，未填充的文本、图片占位符及未填充的动态行模板行中的占位符都替换为空白。
      * </p>
      *
-     * @param fields 需要清理的字段数组，通常是通过反射获取的非final字段
-     * @param doc 要清理的Aspose文档对象
-     * @param placeholder 用于清理的占位符模板，定义了占位符的前缀和后缀
+     * @param index 模板占位符索引
+     * @param doc 已填充的文档
+     * @param trace 渲染追踪
      */
-    private void executeClearVariable(Field[] fields, Document doc, TemplateInterface placeholder) {
-        getStrategy().parallelStream().forEach(r -> r.setEntity(placeholder).empty(doc, r.supports(fields)));
+    private void clearPlaceholders(PlaceholderIndex index, Document doc, RenderTrace trace) {
+        int cleared = index.clear(doc);
+        if (!index.isEmpty()) {
+            trace.count(RenderTrace.REPLACE_CALLS, 1);
+        }
+        log.debug("清除未填充的占位符 {} 个", cleared);
     }
 
     /**
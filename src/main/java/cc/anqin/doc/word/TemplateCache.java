@@ -0,0 +1,308 @@
+package cc.anqin.doc.word;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.NumberUtil;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * 已编译模板缓存
+ * <p>
+ * 以模板文件的绝对路径为键缓存 {@link CompiledTemplate}，按最近使用淘汰。模板文件被修改（修改时间或大小变化）后
+ * 下一次获取时自动重新编译。
+ * </p>
+ * <p>
+ * 由 {@link TemplateWatcher} 监听的目录中的模板不在获取时检查修改，而是由监听器在后台重新编译后原子替换：
+ * 进行中的渲染继续使用旧版本，之后的渲染取得新版本，获取模板的线程不会被重新编译阻塞。
+ * </p>
+ * <p>
+ * 共享实例的容量可通过系统属性修改：
+ * <pre>
+ * System.setProperty("smart.doc.template.cache.size", "128");  // 最多缓存的模板数，默认64
+ * </pre>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * CompiledTemplate compiled = TemplateCache.shared().get(templateFile);
+ * Document doc = compiled.newDocument();
+ *
+ * // 启动时预先编译模板目录
+ * TemplateCache.shared().preload(new File("/data/templates"));
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see CompiledTemplate 已编译模板
+ */
+@Slf4j
+public class TemplateCache {
+
+    /** 共享实例，首次使用时按系统属性创建 */
+    private static volatile TemplateCache shared;
+
+    /** 最多缓存的模板数 */
+    @Getter
+    private final int maxEntries;
+
+    /** 按访问顺序排列的缓存 */
+    private final LinkedHashMap<String, CompiledTemplate> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** 命中次数 */
+    private final AtomicLong hits = new AtomicLong();
+
+    /** 未命中（含过期重新编译）次数 */
+    private final AtomicLong misses = new AtomicLong();
+
+    /** 被监听的模板目录（绝对路径），其中的模板由监听器负责重新编译 */
+    private final Set<String> watchedDirectories = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 创建模板缓存
+     *
+     * @param maxEntries 最多缓存的模板数，必须大于0
+     */
+    public TemplateCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("模板缓存容量必须大于 0");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 获取共享模板缓存
+     *
+     * @return {@link TemplateCache }
+     */
+    public static TemplateCache shared() {
+        if (shared == null) {
+            synchronized (TemplateCache.class) {
+                if (shared == null) {
+                    shared = new TemplateCache(NumberUtil.parseInt(System.getProperty("smart.doc.template.cache.size"), 64));
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * 获取已编译模板，未缓存或模板已修改时编译并缓存
+     * <p>
+     * 编译在锁外进行，同一模板被并发首次获取时可能重复编译。写入缓存时，缓存中的条目在编译期间已被替换
+     * （如被 {@link #reload(File)} 放入）且仍与文件当前的修改时间和大小一致则返回该条目，否则以新编译的版本替换。不按修改时间先后判断新旧，
+     * 修改时间相同但内容不同、或以更早的修改时间还原的模板都会被替换。
+     * </p>
+     *
+     * @param template 模板文件
+     * @return {@link CompiledTemplate }
+     */
+    public CompiledTemplate get(File template) {
+        String key = template.getAbsolutePath();
+        CompiledTemplate compiled;
+        synchronized (entries) {
+            compiled = entries.get(key);
+        }
+        if (compiled != null && (!compiled.isStale() || isWatched(template))) {
+            hits.incrementAndGet();
+            return compiled;
+        }
+        misses.incrementAndGet();
+        CompiledTemplate cached = compiled;
+        compiled = CompiledTemplate.compile(template);
+        synchronized (entries) {
+            CompiledTemplate current = entries.get(key);
+            if (current != null && current != cached && !current.isStale()) {
+                return current;
+            }
+            entries.put(key, compiled);
+            trim();
+        }
+        log.debug("模板已编译：{}", key);
+        return compiled;
+    }
+
+    /**
+     * 预先编译目录下的全部模板
+     * <p>
+     * 只处理目录下（不含子目录）扩展名为 docx/doc 的文件，并行编译后放入缓存，按文件名排序返回。
+     * 单个模板编译失败只记录日志，不影响其它模板。预加载的模板数超过缓存容量时，先编译的会被淘汰。
+     * </p>
+     *
+     * @param directory 模板目录
+     * @return 编译成功的模板
+     * @throws IllegalArgumentException 目录不存在
+     */
+    public List<CompiledTemplate> preload(File directory) {
+        return preload(directory, (file, e) -> {
+        });
+    }
+
+    /**
+     * 预先编译目录下的全部模板，并把每个编译失败的模板交给回调
+     * <p>
+     * 回调在编译线程中并发调用，需要线程安全。
+     * </p>
+     *
+     * @param directory 模板目录
+     * @param failed    编译失败的回调，参数为模板文件与异常
+     * @return 编译成功的模板
+     * @throws IllegalArgumentException 目录不存在
+     */
+    public List<CompiledTemplate> preload(File directory, BiConsumer<File, RuntimeException> failed) {
+        if (!FileUtil.isDirectory(directory)) {
+            throw new IllegalArgumentException("模板目录不存在：" + (directory == null ? null : directory.getAbsolutePath()));
+        }
+        File[] files = directory.listFiles(file -> file.isFile()
+                && ("docx".equalsIgnoreCase(FileUtil.getSuffix(file)) || "doc".equalsIgnoreCase(FileUtil.getSuffix(file))));
+        List<CompiledTemplate> compiled = new ArrayList<>();
+        if (files == null) {
+            return compiled;
+        }
+        Arrays.sort(files);
+        Arrays.stream(files).parallel().map(file -> {
+            try {
+                return get(file);
+            } catch (RuntimeException e) {
+                log.warn("模板预编译失败：{}", file.getAbsolutePath(), e);
+                failed.accept(file, e);
+                return null;
+            }
+        }).forEachOrdered(template -> {
+            if (template != null) {
+                compiled.add(template);
+            }
+        });
+        log.info("模板目录预编译完成：{}，共 {} 个", directory.getAbsolutePath(), compiled.size());
+        return compiled;
+    }
+
+    /**
+     * 重新编译模板并原子替换缓存
+     * <p>
+     * 编译在锁外进行，成功后才替换，编译失败时缓存中的旧版本保持不变。已经取得旧版本的渲染不受影响。
+     * 缓存中的条目在编译期间已被替换且仍与文件当前的修改时间和大小一致时保留该条目，否则以新编译的版本替换。
+     * </p>
+     *
+     * @param template 模板文件
+     * @return 新编译的模板
+     * @throws cc.anqin.doc.ex.DocumentException 模板不存在或解析失败
+     */
+    public CompiledTemplate reload(File template) {
+        CompiledTemplate cached;
+        synchronized (entries) {
+            cached = entries.get(template.getAbsolutePath());
+        }
+        CompiledTemplate compiled = CompiledTemplate.compile(template);
+        synchronized (entries) {
+            CompiledTemplate current = entries.get(template.getAbsolutePath());
+            if (current != null && current != cached && !current.isStale()) {
+                return current;
+            }
+            entries.put(template.getAbsolutePath(), compiled);
+            trim();
+        }
+        log.debug("模板已重新编译：{}", template.getAbsolutePath());
+        return compiled;
+    }
+
+    /**
+     * 模板是否已缓存
+     *
+     * @param template 模板文件
+     * @return boolean
+     */
+    public boolean contains(File template) {
+        synchronized (entries) {
+            return entries.containsKey(template.getAbsolutePath());
+        }
+    }
+
+    /**
+     * 标记目录由监听器负责重新编译
+     *
+     * @param directory 模板目录
+     * @param watched   是否被监听
+     */
+    void watched(File directory, boolean watched) {
+        if (watched) {
+            watchedDirectories.add(directory.getAbsolutePath());
+        } else {
+            watchedDirectories.remove(directory.getAbsolutePath());
+        }
+    }
+
+    private boolean isWatched(File template) {
+        File parent = template.getAbsoluteFile().getParentFile();
+        return parent != null && watchedDirectories.contains(parent.getAbsolutePath());
+    }
+
+    /**
+     * 移除指定模板
+     *
+     * @param template 模板文件
+     */
+    public void invalidate(File template) {
+        synchronized (entries) {
+            entries.remove(template.getAbsolutePath());
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * 当前缓存的模板数
+     *
+     * @return int
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 命中次数
+     *
+     * @return long
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     * 未命中次数
+     *
+     * @return long
+     */
+    public long missCount() {
+        return misses.get();
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, CompiledTemplate>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package cc.anqin.doc.word;
+
+import lombok.Getter;
+
+import java.io.File;
+
+/**
+ * 模板重载事件
+ * <p>
+ * 由 {@link TemplateWatcher} 在模板重新编译、移除或编译失败后发布。编译失败时缓存中的旧版本保持可用，
+ * {@link #getError()} 为失败原因。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see TemplateWatcher 模板监听器
+ */
+@Getter
+public final class TemplateReloadEvent {
+
+    /**
+     * 事件类型
+     */
+    public enum Type {
+        /** 已重新编译并替换 */
+        RELOADED,
+        /** 模板已删除，已移出缓存 */
+        REMOVED,
+        /** 重新编译失败，保留旧版本 */
+        FAILED
+    }
+
+    /** 事件类型 */
+    private final Type type;
+
+    /** 模板文件 */
+    private final File file;
+
+    /** 重新编译耗时（毫秒），移除事件为0 */
+    private final long millis;
+
+    /** 失败原因，仅失败事件有值 */
+    private final Throwable error;
+
+    /** 事件时间戳（毫秒） */
+    private final long timestamp = System.currentTimeMillis();
+
+    TemplateReloadEvent(Type type, File file, long millis, Throwable error) {
+        this.type = type;
+        this.file = file;
+        this.millis = millis;
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + file.getName() + (type == Type.RELOADED ? "（" + millis + " ms）" : "")
+                + (error == null ? "" : "：" + error.getMessage());
+    }
+}
@@ -0,0 +1,269 @@
+package cc.anqin.doc.word;
+
+import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.metrics.MetricNames;
+import cc.anqin.doc.metrics.Metrics;
+import cc.anqin.doc.utils.BufferPool;
+import cc.anqin.doc.utils.ByteBufferInputStream;
+import cc.anqin.doc.utils.DocumentIO;
+import cc.anqin.doc.utils.MappedFiles;
+import cc.anqin.doc.word.placeholder.PlaceholderIndex;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.HexUtil;
+import cn.hutool.core.util.StrUtil;
+import com.aspose.words.Document;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 模板快照存储
+ * <p>
+ * 把已编译模板持久化为快照文件，新进程启动时直接加载快照，不再重新编译。快照包含：
+ * <ul>
+ *   <li>模板文档 - 解析后重新保存的 DOCX（doc 模板在快照中已转换为 DOCX）</li>
+ *   <li>占位符索引 - 默认前缀与后缀（${ 与 }）及编译时已扫描的索引，以紧凑的二进制格式保存</li>
+ * </ul>
+ * 快照以模板内容的 SHA-256 命名，模板内容不变即命中，与路径与修改时间无关；格式版本不匹配或文件损坏时重新编译并覆盖。
+ * 快照归本库所有且只通过原子替换更新，因此通过内存映射读取，文档直接从映射区域解析，不复制到堆数组。写入先写临时文件再原子替换，多个进程共享同一目录是安全的。
+ * 模板修改后旧快照不再被引用，可以随时删除。
+ * </p>
+ * <p>
+ * 配置（系统属性）：
+ * <pre>
+ * -Dsmart.doc.template.snapshot=true               // 开启模板快照，默认false
+ * -Dsmart.doc.template.snapshot.dir=/data/snap     // 快照目录，默认为模板所在目录下的 .snapshots
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see CompiledTemplate 已编译模板
+ * @see TemplateCache 模板缓存
+ */
+@Slf4j
+@Getter
+public class TemplateSnapshotStore {
+
+    /** 文件头 "SDTS" */
+    private static final int MAGIC = 0x53445453;
+
+    /** 格式版本，格式变化时递增 */
+    private static final int VERSION = 1;
+
+    /** 快照文件扩展名 */
+    private static final String SUFFIX = ".snapshot";
+
+    /** 默认快照目录名（位于模板所在目录下） */
+    private static final String DEFAULT_DIRECTORY = ".snapshots";
+
+    private static volatile TemplateSnapshotStore shared;
+
+    private static volatile boolean resolved;
+
+    /** 快照目录，为null时使用模板所在目录下的 .snapshots */
+    private final File directory;
+
+    /**
+     * 创建快照存储
+     *
+     * @param directory 快照目录，为null时使用模板所在目录下的 .snapshots
+     */
+    public TemplateSnapshotStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * 按系统属性创建的共享存储
+     *
+     * @return {@link TemplateSnapshotStore }，未开启时为null
+     */
+    public static TemplateSnapshotStore shared() {
+        if (!resolved) {
+            synchronized (TemplateSnapshotStore.class) {
+                if (!resolved) {
+                    if (Boolean.getBoolean("smart.doc.template.snapshot")) {
+                        String dir = System.getProperty("smart.doc.template.snapshot.dir");
+                        shared = new TemplateSnapshotStore(StrUtil.isBlank(dir) ? null : new File(dir));
+                    }
+                    resolved = true;
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * 加载模板快照，没有可用快照时编译模板并写入快照
+     * <p>
+     * 写入快照失败只记录日志，不影响编译结果。
+     * </p>
+     *
+     * @param file 模板文件
+     * @return {@link CompiledTemplate }
+     * @throws DocumentException 模板不存在或解析失败
+     */
+    public CompiledTemplate compile(File file) {
+        if (!FileUtil.isFile(file)) {
+            throw new DocumentException("模板文件不存在：" + (file == null ? null : file.getAbsolutePath()));
+        }
+        // 先记录修改时间与大小再计算哈希，计算期间的修改会在下一次获取时被发现
+        long lastModified = file.lastModified();
+        long length = file.length();
+        String hash = hash(file);
+        File snapshot = snapshotFile(file, hash);
+
+        long start = Metrics.start();
+        if (snapshot.isFile()) {
+            try {
+                CompiledTemplate compiled = read(file, snapshot, hash, lastModified, length);
+                Metrics.stop(MetricNames.TEMPLATE_SNAPSHOT_HIT, start);
+                log.debug("从快照加载模板：{} <- {}", file.getAbsolutePath(), snapshot.getAbsolutePath());
+                return compiled;
+            } catch (Exception e) {
+                log.warn("模板快照不可用，重新编译：{}", snapshot.getAbsolutePath(), e);
+            }
+        }
+
+        CompiledTemplate compiled = CompiledTemplate.parse(file);
+        try {
+            write(compiled, hash, snapshot);
+        } catch (Exception e) {
+            log.warn("写入模板快照失败：{}", snapshot.getAbsolutePath(), e);
+        }
+        Metrics.stop(MetricNames.TEMPLATE_SNAPSHOT_MISS, start);
+        return compiled;
+    }
+
+    /**
+     * 模板对应的快照文件
+     */
+    private File snapshotFile(File template, String hash) {
+        File dir = directory == null ? new File(template.getAbsoluteFile().getParentFile(), DEFAULT_DIRECTORY) : directory;
+        return new File(dir, hash + SUFFIX);
+    }
+
+    /**
+     * 读取快照
+     */
+    private CompiledTemplate read(File template, File snapshot, String hash, long lastModified, long length) throws Exception {
+        ByteBuffer buffer = MappedFiles.map(snapshot);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new DocumentException("快照格式不匹配");
+        }
+        if (!hash.equals(string(buffer))) {
+            throw new DocumentException("快照与模板内容不匹配");
+        }
+
+        int docxLength = buffer.getInt();
+        ByteBuffer docx = buffer.slice();
+        docx.limit(docxLength);
+        buffer.position(buffer.position() + docxLength);
+
+        int count = buffer.getInt();
+        List<PlaceholderIndex> indexes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String prefix = string(buffer);
+            String suffix = string(buffer);
+            int size = buffer.getInt();
+            List<String> names = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                names.add(string(buffer));
+            }
+            indexes.add(PlaceholderIndex.of(prefix, suffix, names));
+        }
+
+        Document document = new Document(new ByteBufferInputStream(docx));
+        return new CompiledTemplate(template, document, lastModified, length, indexes);
+    }
+
+    /**
+     * 写入快照，先写临时文件再原子替换
+     */
+    private void write(CompiledTemplate compiled, String hash, File snapshot) throws Exception {
+        // 默认前缀与后缀的索引随快照保存，加载后首次渲染不必再扫描文档
+        compiled.index("${", "}");
+        byte[] docx = compiled.toDocx();
+        Collection<PlaceholderIndex> indexes = compiled.indexes();
+
+        FileUtil.mkdir(snapshot.getParentFile());
+        // 临时文件名由文件系统保证唯一，不同进程同时写入同一快照时互不覆盖
+        File temp = Files.createTempFile(snapshot.getParentFile().toPath(), hash, ".tmp").toFile();
+        try {
+            writeTo(temp, hash, docx, indexes);
+            Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            FileUtil.del(temp);
+            throw e;
+        }
+        log.debug("写入模板快照：{} -> {}", compiled.getFile().getAbsolutePath(), snapshot.getAbsolutePath());
+    }
+
+    /**
+     * 按快照格式写入文件
+     */
+    private static void writeTo(File temp, String hash, byte[] docx, Collection<PlaceholderIndex> indexes) throws IOException {
+        try (DataOutputStream data = new DataOutputStream(DocumentIO.openOutput(temp))) {
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            string(data, hash);
+            data.writeInt(docx.length);
+            data.write(docx);
+            data.writeInt(indexes.size());
+            for (PlaceholderIndex index : indexes) {
+                string(data, index.getPrefix());
+                string(data, index.getSuffix());
+                data.writeInt(index.getNames().size());
+                for (String name : index.getNames()) {
+                    string(data, name);
+                }
+            }
+        }
+    }
+
+    /**
+     * 模板内容的 SHA-256
+     * <p>
+     * 模板归调用方所有，可能被原地改写，按块读取而不做内存映射。
+     * </p>
+     */
+    private static String hash(File file) {
+        byte[] buffer = BufferPool.acquire();
+        try (InputStream in = DocumentIO.openInput(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, n);
+            }
+            return HexUtil.encodeHexStr(digest.digest());
+        } catch (Exception e) {
+            throw new DocumentException(e, "读取模板失败：" + file.getAbsolutePath());
+        } finally {
+            BufferPool.release(buffer);
+        }
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void string(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,326 @@
+package cc.anqin.doc.word;
+
+import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.utils.FileContentCache;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.NumberUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 模板监听器
+ * <p>
+ * 监听模板目录的文件变化，在后台重新编译被修改的模板并原子替换 {@link TemplateCache} 中的版本：
+ * <ul>
+ *   <li>不阻塞渲染 - 被监听目录中的模板不再在获取时检查修改时间，渲染线程始终直接取得缓存版本</li>
+ *   <li>版本一致 - 进行中的渲染持有旧的 {@link CompiledTemplate}，替换后新的渲染取得新版本</li>
+ *   <li>合并变更 - 同一文件在防抖间隔内的多次变化（编辑器保存常产生多个事件）只重新编译一次</li>
+ *   <li>失败保留 - 重新编译失败（如文件尚未写完）时保留旧版本，并发布失败事件</li>
+ * </ul>
+ * 只处理目录下（不含子目录）扩展名为 docx/doc 的文件，忽略 Office 的 ~$ 临时文件。
+ * 事件队列溢出时重新编译目录下的全部模板。
+ * </p>
+ * <p>
+ * 配置（系统属性）：
+ * <pre>
+ * -Dsmart.doc.template.watch.debounce=500   // 防抖间隔（毫秒），默认500
+ * </pre>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * TemplateWatcher watcher = TemplateWatcher.of(TemplateCache.shared())
+ *         .watch(new File("/data/templates"))
+ *         .addListener(event -&gt; log.info("模板变更：{}", event))
+ *         .start();
+ * // 停止监听
+ * watcher.close();
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see TemplateCache 模板缓存
+ * @see TemplateReloadEvent 模板重载事件
+ */
+@Slf4j
+public class TemplateWatcher implements Closeable {
+
+    /** 保留的最近事件数 */
+    private static final int RECENT_EVENTS = 64;
+
+    /** 模板缓存 */
+    private final TemplateCache cache;
+
+    /** 监听的目录 */
+    private final List<File> directories = new ArrayList<>();
+
+    /** 事件监听器 */
+    private final List<Consumer<TemplateReloadEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    /** 文件 -> 待执行的重新编译 */
+    private final Map<File, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+
+    /** 最近的事件，按时间先后 */
+    private final Deque<TemplateReloadEvent> recent = new ArrayDeque<>();
+
+    /** 防抖间隔 */
+    private Duration debounce = Duration.ofMillis(NumberUtil.parseLong(
+            System.getProperty("smart.doc.template.watch.debounce"), 500L));
+
+    private WatchService watchService;
+
+    private ScheduledExecutorService scheduler;
+
+    private volatile boolean running;
+
+    private TemplateWatcher(TemplateCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * 创建监听器
+     *
+     * @param cache 模板缓存
+     * @return {@link TemplateWatcher }
+     */
+    public static TemplateWatcher of(TemplateCache cache) {
+        return new TemplateWatcher(cache);
+    }
+
+    /**
+     * 添加监听目录，需在 {@link #start()} 之前调用
+     *
+     * @param directory 模板目录
+     * @return {@link TemplateWatcher }
+     * @throws DocumentException 目录不存在
+     */
+    public TemplateWatcher watch(File directory) {
+        if (!FileUtil.isDirectory(directory)) {
+            throw new DocumentException("模板目录不存在：" + directory);
+        }
+        directories.add(directory.getAbsoluteFile());
+        return this;
+    }
+
+    /**
+     * 设置防抖间隔
+     *
+     * @param debounce 同一文件的变化在该间隔内没有新的变化时才重新编译
+     * @return {@link TemplateWatcher }
+     */
+    public TemplateWatcher setDebounce(Duration debounce) {
+        this.debounce = debounce;
+        return this;
+    }
+
+    /**
+     * 添加事件监听器，监听器在重新编译线程中调用，应尽快返回
+     *
+     * @param listener 事件监听器
+     * @return {@link TemplateWatcher }
+     */
+    public TemplateWatcher addListener(Consumer<TemplateReloadEvent> listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * 开始监听
+     *
+     * @return {@link TemplateWatcher }
+     * @throws DocumentException 无法注册监听
+     */
+    public synchronized TemplateWatcher start() {
+        if (running) {
+            return this;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (File directory : directories) {
+                directory.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            closeQuietly();
+            throw new DocumentException(e, "无法监听模板目录：" + directories);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("smart-doc-template-reload-", true));
+        directories.forEach(directory -> cache.watched(directory, true));
+        running = true;
+
+        Thread thread = new Thread(this::loop, "smart-doc-template-watch");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("开始监听模板目录：{}", directories);
+        return this;
+    }
+
+    /**
+     * 最近的事件
+     *
+     * @return 最近的事件，按时间先后
+     */
+    public List<TemplateReloadEvent> getRecentEvents() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    /**
+     * 是否正在监听
+     *
+     * @return boolean
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 停止监听，未执行的重新编译被取消，被监听目录中的模板恢复获取时检查修改
+     */
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        directories.forEach(directory -> cache.watched(directory, false));
+        closeQuietly();
+        scheduler.shutdownNow();
+        pending.clear();
+        log.info("停止监听模板目录：{}", directories);
+    }
+
+    /**
+     * 事件循环
+     */
+    private void loop() {
+        while (running) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            }
+            Path directory = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    log.warn("模板目录事件溢出，重新编译全部模板：{}", directory);
+                    File[] files = directory.toFile().listFiles(file -> file.isFile() && isTemplate(file.getName()));
+                    if (files != null) {
+                        for (File file : files) {
+                            schedule(file);
+                        }
+                    }
+                    continue;
+                }
+                Path name = (Path) event.context();
+                if (isTemplate(name.toString())) {
+                    schedule(directory.resolve(name).toFile());
+                }
+            }
+            if (!key.reset()) {
+                // 监听已失效，恢复该目录的过期检查
+                cache.watched(directory.toFile(), false);
+                log.warn("模板目录已不可访问，停止监听：{}", directory);
+            }
+        }
+    }
+
+    /**
+     * 安排重新编译，已安排的同一文件重新计时
+     */
+    private void schedule(File file) {
+        try {
+            pending.compute(file, (f, previous) -> {
+                if (previous != null) {
+                    previous.cancel(false);
+                }
+                return scheduler.schedule(() -> reload(f), debounce.toMillis(), TimeUnit.MILLISECONDS);
+            });
+        } catch (RuntimeException e) {
+            // 关闭过程中调度器已停止
+            log.debug("忽略模板变化：{}", file, e);
+        }
+    }
+
+    /**
+     * 重新编译或移除模板
+     */
+    private void reload(File file) {
+        pending.remove(file);
+        FileContentCache.invalidate(file);
+        if (!file.isFile()) {
+            cache.invalidate(file);
+            publish(new TemplateReloadEvent(TemplateReloadEvent.Type.REMOVED, file, 0, null));
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            cache.reload(file);
+            publish(new TemplateReloadEvent(TemplateReloadEvent.Type.RELOADED, file,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), null));
+        } catch (RuntimeException e) {
+            log.warn("模板重新编译失败，保留旧版本：{}", file, e);
+            publish(new TemplateReloadEvent(TemplateReloadEvent.Type.FAILED, file,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), e));
+        }
+    }
+
+    private void publish(TemplateReloadEvent event) {
+        log.info("模板变更：{}", event);
+        synchronized (recent) {
+            if (recent.size() >= RECENT_EVENTS) {
+                recent.removeFirst();
+            }
+            recent.addLast(event);
+        }
+        for (Consumer<TemplateReloadEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("模板变更监听器执行失败", e);
+            }
+        }
+    }
+
+    private static boolean isTemplate(String name) {
+        return !name.startsWith("~$")
+                && ("docx".equalsIgnoreCase(FileUtil.getSuffix(name)) || "doc".equalsIgnoreCase(FileUtil.getSuffix(name)));
+    }
+
+    private void closeQuietly() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("关闭模板监听失败", e);
+            }
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package cc.anqin.doc.word.placeholder;
 
+import cc.anqin.doc.concurrent.Deadline;
 import cc.anqin.doc.entity.TemplateInterface;
 import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.metrics.MetricNames;
+import cc.anqin.doc.metrics.Metrics;
+import cc.anqin.doc.metrics.RenderTrace;
 import cc.anqin.doc.word.annotation.Placeholder;
-import cc.anqin.processor.base.ConvertMap;
+import cc.anqin.doc.word.schema.PlaceholderSchema;
+import cc.anqin.doc.word.schema.PlaceholderSpec;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.StrUtil;
@@ -14,9 +19,10 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * 抽象占位符填充服务
@@ -45,19 +51,19 @@ import java.util.Set;
  *         // 实现特定类型占位符的填充逻辑
  *         if (fieldsEmpty()) return;
  *         
- *         for (Field field : fields) {
- *             String placeholder = placeholderText(field.getName());
- *             Object value = dataMap.get(field.getName());
+ *         for (PlaceholderSpec spec : specs) {
+ *             String placeholder = placeholderText(spec.getName());
+ *             Object value = dataMap.get(spec.getName());
  *             // 执行具体的填充操作
  *         }
  *     }
  *
  *     &#064;Override
- *     public Field[] supports(Field[] fields) {
- *         // 实现对特定字段类型的支持判断
- *         return Arrays.stream(fields)
- *             .filter(field -> field.getType() == String.class)
- *             .toArray(Field[]::new);
+ *     public List&lt;PlaceholderSpec&gt; supports(Collection&lt;PlaceholderSpec&gt; specs) {
+ *         // 实现对特定占位符类型的支持判断
+ *         return specs.stream()
+ *             .filter(spec -&gt; spec.getType() == PlaceholderType.TEXT)
+ *             .collect(Collectors.toList());
  *     }
  * }
  * </pre>
@@ -127,8 +133,8 @@ public abstract class AbstractPlaceholderFillerService implements PlaceholderFil
      * <p>
      * 数据映射的生成：
      * <ul>
-     *   <li>自动生成 - 通过ConvertMap.toMap()方法自动生成</li>
-     *   <li>字段映射 - 基于实体类的字段结构自动映射</li>
+     *   <li>自动生成 - 实体类通过ConvertMap.toMap()方法自动生成</li>
+     *   <li>直接使用 - Map 实体（{@link cc.anqin.doc.entity.MapEntity}）直接使用其数据 Map</li>
      *   <li>类型保持 - 保持原始数据的类型信息</li>
      * </ul>
      * </p>
@@ -136,21 +142,13 @@ public abstract class AbstractPlaceholderFillerService implements PlaceholderFil
     protected Map<String, Object> dataMap;
 
     /**
-     * 字段集合 - 需要处理的字段集合
+     * 占位符描述 - 需要处理的占位符集合
      * <p>
-     * 该字段存储需要处理的字段集合，通常是通过反射获取的非final字段。
-     * 字段集合决定了哪些占位符需要被处理，过滤掉不需要处理的字段。
-     * </p>
-     * <p>
-     * 字段过滤规则：
-     * <ul>
-     *   <li>排除final字段 - 通常final字段不需要动态填充</li>
-     *   <li>排除静态字段 - 静态字段不属于实例数据</li>
-     *   <li>包含业务字段 - 包含需要填充到模板的业务数据</li>
-     * </ul>
+     * 实体类由非final字段的注解生成（{@link PlaceholderSchema#of(Class)}），
+     * Map 实体由调用方提供的占位符声明给出。填充器只依据描述工作，不访问实体字段。
      * </p>
      */
-    protected Set<Field> fields;
+    protected List<PlaceholderSpec> specs;
 
     /**
      * Aspose文档对象 - 要处理的Word文档
@@ -171,6 +169,24 @@ public abstract class AbstractPlaceholderFillerService implements PlaceholderFil
      */
     protected Document doc;
 
+    /**
+     * 截止时间 - 当前渲染任务的截止时间与取消标记
+     * <p>
+     * 由 {@link cc.anqin.doc.word.PlaceholderFactory} 在执行填充前设置，子类在处理每个字段前调用
+     * {@link Deadline#checkpoint(String)}，超时或取消时停止处理。未设置超时时为 {@link Deadline#none()}。
+     * </p>
+     */
+    protected Deadline deadline = Deadline.none();
+
+    /**
+     * 渲染追踪 - 当前渲染的追踪报告
+     * <p>
+     * 由 {@link cc.anqin.doc.word.PlaceholderFactory} 在执行填充前设置，子类按字段记录耗时，
+     * 通过 {@link #replace(Range, String, String)} 的替换自动计数。未启用追踪时为 {@link RenderTrace#none()}。
+     * </p>
+     */
+    protected RenderTrace trace = RenderTrace.none();
+
     /**
      * 创建占位符填充服务实例
      * <p>
@@ -197,7 +213,9 @@ public abstract class AbstractPlaceholderFillerService implements PlaceholderFil
      * </ul>
      * </p>
      *
+     * @param specs 需要处理的占位符描述
      * @param doc 要处理的Word文档对象，不能为null
+     * @param data 占位符名称 -&gt; 值，为null时视为没有数据
      * @param entity 包含占位符数据的实体对象，必须实现AsposePlaceholder接口
      * @param <T> 实现AsposePlaceholder接口的泛型类型
      * @return 当前占位符填充服务实例，用于链式调用
@@ -205,10 +223,10 @@ public abstract class AbstractPlaceholderFillerService implements PlaceholderFil
      */
     @Override
     public <T extends TemplateInterface>
-    PlaceholderFillerService create(Field[] fields, Document doc, T entity) {
+    PlaceholderFillerService create(List<PlaceholderSpec> specs, Document doc, Map<String, Object> data, T entity) {
         this.doc = Assert.notNull(doc, () -> new DocumentException("Document cannot be null"));
-        this.fields = CollUtil.newHashSet(fields);
-        this.dataMap = ConvertMap.toMap(entity, entity.getClass());
+        this.specs = specs == null ? Collections.emptyList() : specs;
+        this.dataMap = data == null ? Collections.emptyMap() : data;
         setEntity(entity);
         return this;
     }
@@ -265,17 +283,19 @@ public abstract class AbstractPlaceholderFillerService implements PlaceholderFil
      * </p>
      *
      * @param doc 要处理的Word文档对象，不能为null
-     * @param fields 需要清空占位符的字段数组，可以为null或空数组
+     * @param specs 需要清空的占位符描述，可以为空
      * @throws DocumentException 如果在替换过程中发生错误
      */
     @Override
-    public void empty(Document doc, Field... fields) {
-        for (Field field : fields) {
-            String placeholderText = placeholderText(field.getName());
+    public void empty(Document doc, Collection<PlaceholderSpec> specs) {
+        for (PlaceholderSpec spec : specs) {
+            deadline.checkpoint("清除占位符 " + spec.getName());
+            String placeholderText = placeholderText(spec.getName());
             Range range = doc.getRange();
             if (range.getText().contains(placeholderText)) {
                 try {
                     range.replace(placeholderText, SPACE, new FindReplaceOptions());
+                    trace.count(RenderTrace.REPLACE_CALLS, 1);
                 } catch (Exception e) {
                     throw new DocumentException(e);
                 }
@@ -293,7 +313,7 @@ public abstract class AbstractPlaceholderFillerService implements PlaceholderFil
      * <p>
      * 实现要求：
      * <ul>
-     *   <li>字段验证 - 在开始处理前应该调用fieldsEmpty()检查字段集合</li>
+     *   <li>字段验证 - 在开始处理前应该调用fieldsEmpty()检查占位符描述集合</li>
      *   <li>数据获取 - 从dataMap中获取对应的数据值</li>
      *   <li>占位符生成 - 使用placeholderText()方法生成完整的占位符文本</li>
      *   <li>异常处理 - 适当的异常处理和错误报告</li>
@@ -348,6 +368,27 @@ public abstract class AbstractPlaceholderFillerService implements PlaceholderFil
         return String.format("%s%s%s", entity.getPrefix(), text, entity.getSuffix());
     }
 
+    /**
+     * 替换占位符并统计替换次数
+     * <p>
+     * 所有填充器的文本替换都应通过该方法进行，替换次数计入
+     * {@link MetricNames#PLACEHOLDERS_REPLACED} 指标与渲染追踪。
+     * </p>
+     *
+     * @param range           替换范围
+     * @param placeholderText 占位符文本
+     * @param value           替换内容
+     * @return 替换次数
+     * @throws Exception 替换失败
+     */
+    protected int replace(Range range, String placeholderText, String value) throws Exception {
+        int replaced = range.replace(placeholderText, value, new FindReplaceOptions());
+        Metrics.count(MetricNames.PLACEHOLDERS_REPLACED, replaced);
+        trace.count(RenderTrace.REPLACE_CALLS, 1);
+        trace.count(RenderTrace.PLACEHOLDERS_REPLACED, replaced);
+        return replaced;
+    }
+
     /**
      * 检查字段集合是否为空
      * <p>
@@ -375,7 +416,7 @@ public abstract class AbstractPlaceholderFillerService implements PlaceholderFil
      * @return 如果字段集合为空返回true，否则返回false
      */
     protected boolean fieldsEmpty() {
-        if (CollUtil.isEmpty(fields)) {
+        if (CollUtil.isEmpty(specs)) {
             log.info("模板在 {} 中,字段为空", this.getClass().getName());
             return true;
         }
@@ -1,10 +1,14 @@
 package cc.anqin.doc.word.placeholder;
 
 import cc.anqin.doc.ex.DocumentException;
-import cc.anqin.doc.word.annotation.Placeholder;
+import cc.anqin.doc.ex.RenderCancelledException;
+import cc.anqin.doc.metrics.MetricNames;
+import cc.anqin.doc.metrics.Metrics;
+import cc.anqin.doc.metrics.RenderTrace;
 import cc.anqin.doc.word.enums.PlaceholderType;
 import cc.anqin.processor.base.ConvertMap;
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.convert.Convert;
 import cn.hutool.core.exceptions.ExceptionUtil;
 import cn.hutool.core.util.StrUtil;
 import com.aspose.words.*;
@@ -13,8 +17,11 @@ import lombok.extern.slf4j.Slf4j;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -60,17 +67,21 @@ public class DynamicRowPlaceholderFiller extends AbstractPlaceholderFillerServic
      * 确保文档中不会显示原始的占位符文本。
      * </p>
      *
-     * @param doc    文档对象，要处理的Word文档
-     * @param fields 需要处理的字段数组，包含动态行占位符信息的字段
+     * @param doc   文档对象，要处理的Word文档
+     * @param specs 需要处理的动态行占位符描述，列名决定需要清除的模板行
      * @throws DocumentException 如果在处理过程中发生错误
      */
     @Override
-    public void empty(Document doc, Field... fields) {
+    public void empty(Document doc, Collection<PlaceholderSpec> specs) {
         try {
-            for (Field field : fields) {
-                Map<String, Object> defaultCollMap = getFieldsFromList(field);
+            for (PlaceholderSpec spec : specs) {
+                deadline.checkpoint("清除动态行 " + spec.getName());
+                Map<String, Object> defaultCollMap = new HashMap<>();
+                spec.getColumns().forEach(column -> defaultCollMap.put(column, SPACE));
                 dynamicTable(doc, Collections.singletonList(defaultCollMap), defaultCollMap.keySet());
             }
+        } catch (DocumentException e) {
+            throw e;
         } catch (Exception e) {
             throw new DocumentException(e);
         }
@@ -82,36 +93,56 @@ public class DynamicRowPlaceholderFiller extends AbstractPlaceholderFillerServic
      * <p>
      * 此方法用于分析字段的泛型类型，如果字段是List类型，则获取List中元素类型的所有字段，
      * 并返回一个包含这些字段名称和空值的Map。这对于动态行处理非常重要，因为它提供了
-     * 表格列的结构信息。
+     * 表格列的结构信息。延迟取值的字段（{@link Supplier}、{@link Future}）按其结果类型分析。
      * </p>
      *
      * @param field 要分析的字段对象
      * @return 包含字段名称和默认空值的Map，如果字段不是List类型或无法获取泛型信息则返回空Map
      */
     public static Map<String, Object> getFieldsFromList(Field field) {
-        // 判断字段是否是 List 类型
-        if (List.class.isAssignableFrom(field.getType())) {
-            // 获取 List 的泛型类型
-            if (field.getGenericType() instanceof ParameterizedType) {
-                // 获取泛型类型参数
-                Type[] actualTypeArguments = ((ParameterizedType) field.getGenericType()).getActualTypeArguments();
-                if (actualTypeArguments.length > 0) {
-                    if (actualTypeArguments[0] instanceof Class<?>) {
-                        // 获取 List 中元素的类型
+        // 获取 List 中元素的类型
+        Class<?> itemType = listItemType(field.getGenericType());
+        if (itemType == null) {
+            return Collections.emptyMap();
+        }
 
-                        // 获取该类型的所有字段
-                        Field[] itemFields = ((Class<?>) actualTypeArguments[0]).getDeclaredFields();
-                        Map<String, Object> fieldMap = new HashMap<>();
+        // 获取该类型的所有字段
+        Field[] itemFields = itemType.getDeclaredFields();
+        Map<String, Object> fieldMap = new HashMap<>();
 
-                        for (Field itemField : itemFields) {
-                            fieldMap.put(itemField.getName(), SPACE);
-                        }
-                        return fieldMap;
-                    }
-                }
-            }
+        for (Field itemField : itemFields) {
+            fieldMap.put(itemField.getName(), SPACE);
+        }
+        return fieldMap;
+    }
+
+    /**
+     * 获取 List 类型（或结果为 List 的 Supplier、Future 类型）的元素类型
+     *
+     * @param type 字段的泛型类型
+     * @return 元素类型，无法确定时返回null
+     */
+    private static Class<?> listItemType(Type type) {
+        if (type instanceof WildcardType) {
+            Type[] upperBounds = ((WildcardType) type).getUpperBounds();
+            return upperBounds.length > 0 ? listItemType(upperBounds[0]) : null;
+        }
+        if (!(type instanceof ParameterizedType)) {
+            return null;
+        }
+        ParameterizedType parameterized = (ParameterizedType) type;
+        Type[] actualTypeArguments = parameterized.getActualTypeArguments();
+        if (!(parameterized.getRawType() instanceof Class<?>) || actualTypeArguments.length == 0) {
+            return null;
+        }
+        Class<?> rawType = (Class<?>) parameterized.getRawType();
+        if (Supplier.class.isAssignableFrom(rawType) || Future.class.isAssignableFrom(rawType)) {
+            return listItemType(actualTypeArguments[0]);
+        }
+        if (List.class.isAssignableFrom(rawType) && actualTypeArguments[0] instanceof Class<?>) {
+            return (Class<?>) actualTypeArguments[0];
         }
-        return Collections.emptyMap();
+        return null;
     }
 
     /**
@@ -131,20 +162,26 @@ public class DynamicRowPlaceholderFiller extends AbstractPlaceholderFillerServic
         }
 
         // 处理每个字段
-        for (Field field : fields) {
+        for (PlaceholderSpec spec : specs) {
+            deadline.checkpoint("动态行占位符 " + spec.getName());
 
-            Object data = dataMap.get(field.getName());
+            Object data = dataMap.get(spec.getName());
 
             if (data == null) continue;
 
             if (data instanceof List) {
+                long mark = trace.mark();
                 try {
-                    processDynamicTable(doc, (List<?>) data);
+                    processDynamicTable(doc, spec, (List<?>) data);
+                } catch (RenderCancelledException e) {
+                    throw e;
                 } catch (Exception e) {
                     throw new DocumentException(ExceptionUtil.stacktraceToString(e));
+                } finally {
+                    trace.field(metricName(), spec.getName(), mark);
                 }
             } else {
-                throw new DocumentException("Expected a List for field " + field.getName());
+                throw new DocumentException("Expected a List for field " + spec.getName());
             }
         }
     }
@@ -153,22 +190,23 @@ public class DynamicRowPlaceholderFiller extends AbstractPlaceholderFillerServic
      * 处理动态表格数据
      * <p>
      * 此方法将List类型的数据转换为Map列表，然后调用dynamicTable方法进行实际的表格填充。
-     * 如果数据列表为空，则不进行任何操作。
+     * 行数据本身是Map时直接使用，列名为声明的列与首行键的并集。如果数据列表为空，则不进行任何操作。
      * </p>
      *
      * @param doc 要处理的Word文档对象
+     * @param spec 动态行占位符描述
      * @param dataList 包含动态行数据的列表
      * @throws Exception 如果在数据转换或表格处理过程中发生错误
      */
-    private void processDynamicTable(Document doc, List<?> dataList) throws Exception {
+    private void processDynamicTable(Document doc, PlaceholderSpec spec, List<?> dataList) throws Exception {
         if (CollUtil.isEmpty(dataList)) {
             return; // 如果数据为空，则跳过
         }
 
         // 将数据转化为 Map 列表，便于后续操作
         List<Map<String, Object>> dynamicMap = dataList.stream()
-                .map(r -> ConvertMap.toMap(r, r.getClass()))
                 .filter(Objects::nonNull)
+                .map(DynamicRowPlaceholderFiller::rowMap)
                 .collect(Collectors.toList());
 
         if (dynamicMap.isEmpty()) {
@@ -177,8 +215,26 @@ public class DynamicRowPlaceholderFiller extends AbstractPlaceholderFillerServic
         }
 
         // 获取字段名称
-        Set<String> fields = dynamicMap.get(0).keySet();
-        dynamicTable(doc, dynamicMap, fields);
+        Set<String> fields = new LinkedHashSet<>(spec.getColumns());
+        fields.addAll(dynamicMap.get(0).keySet());
+        int generated = dynamicTable(doc, dynamicMap, fields);
+        Metrics.count(MetricNames.ROWS_GENERATED, generated);
+        trace.count(RenderTrace.ROWS_GENERATED, generated);
+    }
+
+    /**
+     * 行数据转换为Map，Map行的键统一转为字符串
+     *
+     * @param row 行数据
+     * @return {@link Map }
+     */
+    private static Map<String, Object> rowMap(Object row) {
+        if (row instanceof Map) {
+            Map<String, Object> map = new HashMap<>();
+            ((Map<?, ?>) row).forEach((k, v) -> map.put(String.valueOf(k), v));
+            return map;
+        }
+        return ConvertMap.toMap(row, row.getClass());
     }
 
     /**
@@ -191,16 +247,20 @@ public class DynamicRowPlaceholderFiller extends AbstractPlaceholderFillerServic
      * @param doc        要处理的Word文档对象
      * @param dynamicMap 包含动态行数据的Map列表，每个Map代表一行数据
      * @param fields     需要处理的字段名称集合，用于识别表格中的占位符
+     * @return 生成的行数
      * @throws Exception 如果在表格处理过程中发生错误
      */
-    private void dynamicTable(Document doc, List<Map<String, Object>> dynamicMap, Set<String> fields) throws Exception {
+    private int dynamicTable(Document doc, List<Map<String, Object>> dynamicMap, Set<String> fields) throws Exception {
+        int generated = 0;
         // 遍历文档中的每个表格
         @SuppressWarnings("unchecked")
         Iterable<Table> childNodes = doc.getChildNodes(NodeType.TABLE, true);
 
         for (Table table : childNodes) {
+            trace.count(RenderTrace.TABLES_SCANNED, 1);
             RowCollection rows = table.getRows();
             for (Row templateRow : rows) {
+                trace.count(RenderTrace.ROWS_SCANNED, 1);
 
                 // 获取表格中一整行的 文本
                 String rowText = templateRow.getText();
@@ -212,12 +272,15 @@ public class DynamicRowPlaceholderFiller extends AbstractPlaceholderFillerServic
 
                 // 遍历数据
                 for (Map<String, Object> dataMap : dynamicMap) {
+                    deadline.checkpoint("动态行填充");
                     fillCellsByRow(doc, table, templateRow, fieldVariables, dataMap);
+                    generated++;
                 }
                 // 全部数据填充完毕后,删除模板行
                 templateRow.remove();
             }
         }
+        return generated;
     }
 
     /**
@@ -249,7 +312,7 @@ public class DynamicRowPlaceholderFiller extends AbstractPlaceholderFillerServic
                 if (text.contains(placeholderText(fieldVariable))) {
                     // 使用模板行填充数据
                     cell.getFirstParagraph().getRuns().clear();
-                    cell.getFirstParagraph().appendChild(new Run(doc, StrUtil.blankToDefault((String) dataMap.get(fieldVariable), StrUtil.EMPTY)));
+                    cell.getFirstParagraph().appendChild(new Run(doc, StrUtil.blankToDefault(Convert.toStr(dataMap.get(fieldVariable)), StrUtil.EMPTY)));
                 }
             }
         }
@@ -257,29 +320,25 @@ public class DynamicRowPlaceholderFiller extends AbstractPlaceholderFillerServic
     }
 
 
+    @Override
+    public String metricName() {
+        return MetricNames.FILLER_DYNAMIC_ROW;
+    }
+
+
     /**
-     * 筛选支持的字段
+     * 筛选支持的占位符
      * <p>
-     * 此方法实现了AbstractPlaceholderFillerService中的抽象方法，用于筛选出标记为DYNAMIC_ROW类型的字段。
-     * 它会检查字段是否有@Placeholder注解，以及注解的值是否为DYNAMIC_ROW类型。
-     * 如果字段标记为DYNAMIC_ROW类型但没有提供dynamicRow属性，则会抛出异常。
+     * 此方法实现了PlaceholderFillerService中的抽象方法，用于筛选出DYNAMIC_ROW类型的占位符。
      * </p>
      *
-     * @param fields 要筛选的字段数组
-     * @return 支持的字段数组，只包含DYNAMIC_ROW类型的字段
-     * @throws DocumentException 如果字段标记为DYNAMIC_ROW类型但缺少必要的注解属性
+     * @param specs 要筛选的占位符描述
+     * @return 支持的占位符描述，只包含DYNAMIC_ROW类型
      */
     @Override
-    public Field[] supports(Field[] fields) {
-        return Arrays.stream(fields).filter(f -> {
-            Placeholder placeholder = f.getAnnotation(Placeholder.class);
-            if (placeholder != null && placeholder.value().equals(PlaceholderType.DYNAMIC_ROW)) {
-                Placeholder.DynamicRow dynamicRow = placeholder.dynamicRow();
-                if (dynamicRow == null)
-                    throw new DocumentException(String.format("Field '%s' must have @Placeholder.DynamicHeader annotation for type DYNAMIC_ROW.", f.getName()));
-                return true;
-            }
-            return false;
-        }).toArray(Field[]::new);
+    public List<PlaceholderSpec> supports(Collection<PlaceholderSpec> specs) {
+        return specs.stream()
+                .filter(spec -> spec.getType() == PlaceholderType.DYNAMIC_ROW)
+                .collect(Collectors.toList());
     }
 }
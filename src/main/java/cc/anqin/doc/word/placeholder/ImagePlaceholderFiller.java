@@ -3,32 +3,39 @@ package cc.anqin.doc.word.placeholder;
 import cc.anqin.doc.convert.CF;
 import cc.anqin.doc.convert.DocumentFormat;
 import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.metrics.MetricNames;
+import cc.anqin.doc.metrics.Metrics;
+import cc.anqin.doc.metrics.RenderTrace;
+import cc.anqin.doc.utils.ByteBufferInputStream;
+import cc.anqin.doc.utils.DocumentIO;
 import cc.anqin.doc.utils.FileDownloader;
 import cc.anqin.doc.utils.FileUtils;
+import cc.anqin.doc.utils.FormatDetector;
+import cc.anqin.doc.utils.TempFileManager;
 import cc.anqin.doc.utils.VariableUtils;
-import cc.anqin.doc.word.annotation.Placeholder;
 import cc.anqin.doc.word.enums.PlaceholderType;
+import cc.anqin.doc.word.schema.PlaceholderSpec;
 import cn.hutool.core.exceptions.ExceptionUtil;
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.io.resource.ClassPathResource;
 import cn.hutool.core.lang.Opt;
+import cn.hutool.core.util.StrUtil;
 import cn.hutool.core.util.URLUtil;
 import com.aspose.words.*;
 import com.aspose.words.Shape;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.tika.Tika;
 
 import java.awt.*;
 import java.io.*;
-import java.lang.reflect.Field;
 import java.math.BigDecimal;
+import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -83,52 +90,71 @@ public class ImagePlaceholderFiller extends AbstractPlaceholderFillerService {
         // 获取所有段落节点
         @SuppressWarnings("unchecked")
         NodeCollection<Paragraph> paragraphs = doc.getChildNodes(NodeType.PARAGRAPH, true);
-        for (Field field : fields) {
-            String fieldName = field.getName();
+        // 模板中不存在的占位符不下载、不解码图片
+        String text = doc.getRange().getText();
+        for (PlaceholderSpec spec : specs) {
+            String fieldName = spec.getName();
+            deadline.checkpoint("图片占位符 " + fieldName);
             String placeholderText = placeholderText(fieldName);
-            Placeholder placeholder = field.getAnnotation(Placeholder.class);
-            assert placeholder != null;
-            Placeholder.PicWord pic = placeholder.pic();
+            if (!text.contains(placeholderText)) {
+                continue;
+            }
 
-            Object o = dataMap.get(field.getName());
+            Object o = dataMap.get(fieldName);
 
             if (o == null) {
                 log.warn("Field '{}' is null, skipping...", fieldName);
                 continue;
             }
 
-            // 文件对象
-            File image = parse(o);
+            // 内存中的图片直接插入，其余解析为文件
+            long mark = trace.mark();
+            long start = Metrics.start();
+            ByteBuffer bytes = inMemory(o);
+            File image = bytes == null ? parse(o) : null;
+            Metrics.stop(MetricNames.IMAGE_FETCH, start);
+            trace.fetch(fieldName, mark);
+            if (bytes != null) {
+                trace.count(RenderTrace.IMAGE_BYTES, bytes.remaining());
+            } else if (image != null) {
+                trace.count(RenderTrace.IMAGE_BYTES, image.length());
+            }
 
             try {
                 HashSet<String> filled = new HashSet<>();
                 // 遍历段落，查找并替换占位符
                 for (Paragraph paragraph : paragraphs) {
-                    replacePlaceholderWithImage(filled, paragraph, fieldName, image, documentBuilder, pic);
+                    replacePlaceholderWithImage(filled, paragraph, fieldName, image, bytes, documentBuilder, spec);
                 }
             } catch (Exception e) {
                 throw new DocumentException("插入图片占位符失败: " + placeholderText + ExceptionUtil.stacktraceToString(e));
+            } finally {
+                // 下载或解码产生的临时图片交由管理器回收，调用方传入的文件不受影响
+                TempFileManager.get().release(image);
+                trace.field(metricName(), fieldName, mark);
             }
         }
     }
 
+    @Override
+    public String metricName() {
+        return MetricNames.FILLER_IMAGE;
+    }
+
     /**
      * 支持的
+     * <p>
+     * 宽或高小于等于0的图片占位符仅作为标识使用，不做填充。
+     * </p>
      *
-     * @param fields@return {@link Field[] }
+     * @param specs 占位符描述
+     * @return 图片类型且声明了尺寸的占位符描述
      */
     @Override
-    public Field[] supports(Field[] fields) {
-        return Arrays.stream(fields).filter(f -> {
-            Placeholder placeholder = f.getAnnotation(Placeholder.class);
-            if (placeholder != null && placeholder.value().equals(PlaceholderType.PIC)) {
-                Placeholder.PicWord pic = placeholder.pic();
-                if (pic == null)
-                    throw new RuntimeException(String.format("Field '%s' must have  @Placeholder.PicWord annotation for type PIC.", f.getName()));
-                return pic.width() > 0 && pic.height() > 0;
-            }
-            return false;
-        }).toArray(Field[]::new);
+    public List<PlaceholderSpec> supports(Collection<PlaceholderSpec> specs) {
+        return specs.stream()
+                .filter(spec -> spec.getType() == PlaceholderType.PIC && spec.getWidth() > 0 && spec.getHeight() > 0)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -138,12 +164,13 @@ public class ImagePlaceholderFiller extends AbstractPlaceholderFillerService {
      * @param paragraph 段
      * @param fieldName 字段名称
      * @param image  图像File
+     * @param bytes     内存中的图片内容，不为null时忽略image
      * @param builder   builder
-     * @param pic       pic
+     * @param pic       图片占位符描述，提供宽高
      * @throws Exception 例外
      */
     private void replacePlaceholderWithImage(HashSet<String> filled, Paragraph paragraph, String fieldName, File image,
-                                             DocumentBuilder builder, Placeholder.PicWord pic) throws Exception {
+                                             ByteBuffer bytes, DocumentBuilder builder, PlaceholderSpec pic) throws Exception {
 
 
         RunCollection runs = paragraph.getRuns();
@@ -161,10 +188,14 @@ public class ImagePlaceholderFiller extends AbstractPlaceholderFillerService {
             return;
         }
 
-        if (image == null) return;
+        if (image == null && bytes == null) return;
 
         // 校验文件
-        validateImageFile(image);
+        if (bytes == null) {
+            validateImageFile(image);
+        } else {
+            validateImageSize(bytes.remaining());
+        }
 
 
         // 遍历每个 Run，检查是否包含占位符
@@ -214,8 +245,10 @@ public class ImagePlaceholderFiller extends AbstractPlaceholderFillerService {
                     filled.add(placeholderText);
 
                     try {
-                        try (BufferedInputStream inputStream = FileUtil.getInputStream(image)) {
-                            builder.insertImage(inputStream, pic.width(), pic.height());
+                        try (InputStream inputStream = openImage(image, bytes)) {
+                            builder.insertImage(inputStream, pic.getWidth(), pic.getHeight());
+                            Metrics.count(MetricNames.PLACEHOLDERS_REPLACED, 1);
+                            trace.count(RenderTrace.PLACEHOLDERS_REPLACED, 1);
                         }
 
                     } catch (Exception e) {
@@ -225,9 +258,6 @@ public class ImagePlaceholderFiller extends AbstractPlaceholderFillerService {
                                 ExceptionUtil.stacktraceToString(e)
                         );
                         throw new DocumentException(e);
-                    } finally {
-                        File finalImage = image;
-                        CompletableFuture.runAsync(() -> FileUtil.del(finalImage));
                     }
                 }
             }
@@ -235,6 +265,36 @@ public class ImagePlaceholderFiller extends AbstractPlaceholderFillerService {
     }
 
 
+    /**
+     * 内存中的图片内容，字节数组与 {@link ByteBuffer} 直接插入，不写临时文件
+     *
+     * @param o 字段值
+     * @return 图片内容的独立视图；不是内存中的图片或内容为空时返回null
+     */
+    private static ByteBuffer inMemory(Object o) {
+        ByteBuffer bytes = null;
+        if (o instanceof byte[]) {
+            bytes = ByteBuffer.wrap((byte[]) o);
+        }
+        if (o instanceof ByteBuffer) {
+            bytes = ((ByteBuffer) o).duplicate();
+        }
+        return bytes == null || !bytes.hasRemaining() ? null : bytes;
+    }
+
+    /**
+     * 打开图片输入流
+     * <p>
+     * 调用方提供的图片文件多次渲染共用，内容缓存后共享；下载或解码产生的临时文件直接读取（大文件映射），删除后不被继续持有。
+     * </p>
+     */
+    private static InputStream openImage(File image, ByteBuffer bytes) throws IOException {
+        if (bytes != null) {
+            return new ByteBufferInputStream(bytes);
+        }
+        return TempFileManager.get().isManaged(image) ? DocumentIO.openInput(image) : DocumentIO.openShared(image);
+    }
+
     private static File parse(Object o) {
 
         try {
@@ -247,18 +307,18 @@ public class ImagePlaceholderFiller extends AbstractPlaceholderFillerService {
             if (o instanceof String) {
                 image = downloadTemplate((String) o);
             }
-
-            if (o instanceof byte[]) {
-                byte[] bytes = (byte[]) o;
-                String extension = FileUtils.parseExtension(new Tika().detect(bytes));
-                File temporaryFile = FileUtils.getTemporaryFile(DocumentFormat.fromExtension(extension));
-                Files.write(Paths.get(temporaryFile.getAbsolutePath()), bytes);
-                image = temporaryFile;
+            if (o instanceof URL) {
+                image = downloadTemplate(o.toString());
             }
 
+            // 非空的字节数组与 ByteBuffer 由 inMemory 处理，空内容在下方使用默认图片
+
             if (o instanceof InputStream) {
                 InputStream inputStream = (InputStream) o;
-                String extension = FileUtils.parseExtension(new Tika().detect(inputStream));
+                if (!inputStream.markSupported()) {
+                    inputStream = new BufferedInputStream(inputStream);
+                }
+                String extension = FormatDetector.detectExtension(inputStream);
                 File temporaryFile = FileUtils.getTemporaryFile(DocumentFormat.fromExtension(extension));
                 Files.copy(inputStream, Paths.get(temporaryFile.getAbsolutePath()), StandardCopyOption.REPLACE_EXISTING);
                 image = temporaryFile;
@@ -298,10 +358,18 @@ public class ImagePlaceholderFiller extends AbstractPlaceholderFillerService {
      * @return {@link File }
      */
     protected static File downloadTemplate(String fileUrl) {
+        // 下载到受管临时文件，避免并发下载同名文件互相覆盖
+        String extName = FileUtil.extName(URLUtil.getPath(fileUrl));
+        File target = TempFileManager.get().create(TempFileManager.PREFIX, StrUtil.isBlank(extName) ? null : "." + extName).getFile();
         try {
             log.info("下载文件URL：{}", fileUrl);
-            return FileUtils.downloadFile(fileUrl, FileUtil.getTmpDirPath());
+            File file = FileUtils.downloadFile(fileUrl, target.getParent(), target.getName());
+            if (file == null) {
+                TempFileManager.get().release(target);
+            }
+            return file;
         } catch (Exception e) {
+            TempFileManager.get().release(target);
             log.error(ExceptionUtil.stacktraceToString(e));
             log.info("下载失败 URL：{} 使用默认图片", fileUrl, e);
             ClassPathResource resource = new ClassPathResource("img/default.png");
@@ -325,8 +393,15 @@ public class ImagePlaceholderFiller extends AbstractPlaceholderFillerService {
         if (file == null || !file.exists()) {
             throw new FileNotFoundException("图片文件不存在");
         }
-        // 检查文件大小限制（例如最大10MB）
-        long fileSize = file.length();
+        validateImageSize(file.length());
+    }
+
+    /**
+     * 检查图片大小限制（最大10MB）
+     *
+     * @param fileSize 图片大小
+     */
+    private static void validateImageSize(long fileSize) {
         log.info("图片大小: {} KB", fileSize / 1024);
         if (fileSize > 10 * 1024 * 1024) {
             throw new DocumentException("图片文件过大: " + fileSize / 1024 + "KB");
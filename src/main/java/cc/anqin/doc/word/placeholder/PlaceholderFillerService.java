@@ -1,12 +1,22 @@
 package cc.anqin.doc.word.placeholder;
 
+import cc.anqin.doc.concurrent.Deadline;
 import cc.anqin.doc.entity.TemplateInterface;
+import cc.anqin.doc.metrics.RenderTrace;
 import cc.anqin.doc.word.annotation.Placeholder;
+import cc.anqin.doc.word.schema.PlaceholderSpec;
+import cc.anqin.processor.base.ConvertMap;
 import cn.hutool.core.util.ReflectUtil;
 import com.aspose.words.Document;
 import lombok.SneakyThrows;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 占位符填充服务接口
@@ -53,6 +63,43 @@ public interface PlaceholderFillerService {
     <T extends TemplateInterface> PlaceholderFillerService setEntity(T entity);
 
 
+    /**
+     * 设置截止时间
+     * <p>
+     * 填充器在处理各个字段之前检查截止时间，到期或被取消时停止处理。默认实现忽略截止时间。
+     * </p>
+     *
+     * @param deadline 截止时间
+     * @see Deadline 截止时间
+     */
+    default void setDeadline(Deadline deadline) {
+    }
+
+
+    /**
+     * 设置渲染追踪
+     * <p>
+     * 填充器按字段记录耗时与替换次数，追踪未启用时为 {@link RenderTrace#none()}。默认实现忽略追踪。
+     * </p>
+     *
+     * @param trace 渲染追踪
+     * @see RenderTrace 渲染追踪
+     */
+    default void setTrace(RenderTrace trace) {
+    }
+
+
+    /**
+     * 填充耗时的指标名
+     *
+     * @return 指标名，默认为 smart.doc.filler.&lt;类名&gt;
+     * @see cc.anqin.doc.metrics.MetricNames 指标名
+     */
+    default String metricName() {
+        return "smart.doc.filler." + getClass().getSimpleName();
+    }
+
+
     /**
      * 创建占位符填充服务实例
      * <p>
@@ -65,7 +112,26 @@ public interface PlaceholderFillerService {
      * @param <T>    实现AsposePlaceholder接口的泛型类型
      * @return 当前占位符填充服务实例，用于链式调用
      */
-    <T extends TemplateInterface> PlaceholderFillerService create(Field[] fields, Document doc, T entity);
+    default <T extends TemplateInterface> PlaceholderFillerService create(Field[] fields, Document doc, T entity) {
+        return create(specs(fields), doc, ConvertMap.toMap(entity, entity.getClass()), entity);
+    }
+
+    /**
+     * 按占位符描述创建占位符填充服务实例
+     * <p>
+     * 填充器只依据占位符描述与数据 Map 工作，不再访问实体字段。实体类与 Map 实体
+     * （{@link cc.anqin.doc.entity.MapEntity}）都经由该方法创建。
+     * </p>
+     *
+     * @param specs  需要处理的占位符描述，通常是 {@link #supports(Collection)} 的结果
+     * @param doc    要处理的Word文档对象
+     * @param data   占位符名称 -&gt; 值
+     * @param entity 实体，提供占位符前缀与后缀
+     * @param <T>    实体类型
+     * @return 当前占位符填充服务实例，用于链式调用
+     */
+    <T extends TemplateInterface> PlaceholderFillerService create(List<PlaceholderSpec> specs, Document doc,
+                                                                  Map<String, Object> data, T entity);
 
 
     /**
@@ -84,7 +150,19 @@ public interface PlaceholderFillerService {
         return supports(ReflectUtil.getFields(clazz));
     }
 
-    Field[] supports(Field[] fields);
+    default Field[] supports(Field[] fields) {
+        return Arrays.stream(fields)
+                .filter(field -> !supports(Collections.singletonList(PlaceholderSpec.of(field))).isEmpty())
+                .toArray(Field[]::new);
+    }
+
+    /**
+     * 筛选该填充器处理的占位符描述
+     *
+     * @param specs 占位符描述
+     * @return 该填充器处理的描述
+     */
+    List<PlaceholderSpec> supports(Collection<PlaceholderSpec> specs);
 
 
     /**
@@ -97,5 +175,25 @@ public interface PlaceholderFillerService {
      * @param doc    要处理的Word文档对象
      * @param fields 需要清空占位符的字段数组
      */
-    void empty(Document doc, Field... fields);
+    default void empty(Document doc, Field... fields) {
+        empty(doc, specs(fields));
+    }
+
+    /**
+     * 将指定描述的占位符替换为空白
+     *
+     * @param doc   要处理的Word文档对象
+     * @param specs 需要清空的占位符描述
+     */
+    void empty(Document doc, Collection<PlaceholderSpec> specs);
+
+    /**
+     * 字段转换为占位符描述
+     *
+     * @param fields 实体字段
+     * @return 占位符描述
+     */
+    static List<PlaceholderSpec> specs(Field[] fields) {
+        return Arrays.stream(fields).map(PlaceholderSpec::of).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,164 @@
+package cc.anqin.doc.word.placeholder;
+
+import cc.anqin.doc.ex.DocumentException;
+import com.aspose.words.Document;
+import com.aspose.words.FindReplaceOptions;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 模板占位符索引
+ * <p>
+ * 记录模板中实际出现的占位符名称（按实体的前缀与后缀识别），在填充前由模板文本扫描一次得到，
+ * 已编译模板按前缀与后缀缓存（{@link cc.anqin.doc.word.CompiledTemplate#index(String, String)}）。
+ * </p>
+ * <p>
+ * 清除阶段使用索引一次完成：把索引中的全部占位符合并成一个正则，对整篇文档只做一次查找替换，
+ * 所有未填充的文本、图片占位符以及未填充的动态行模板行中的占位符都被替换为空白。
+ * 不再按实体字段逐个读取文档文本、逐个替换，也不再为每个列表字段重新扫描全部表格。
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see AbstractPlaceholderFillerService 抽象占位符填充服务
+ */
+@Getter
+public final class PlaceholderIndex {
+
+    /** 占位符名称的最大长度，超过时视为普通文本 */
+    private static final int MAX_NAME_LENGTH = 128;
+
+    /** 占位符前缀 */
+    private final String prefix;
+
+    /** 占位符后缀 */
+    private final String suffix;
+
+    /** 模板中出现的占位符名称，按名称排序 */
+    private final Set<String> names;
+
+    /** 全部占位符合并的正则，索引为空时为null */
+    private final Pattern pattern;
+
+    private PlaceholderIndex(String prefix, String suffix, Set<String> names) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.names = Collections.unmodifiableSet(names);
+        this.pattern = names.isEmpty() ? null : Pattern.compile(Pattern.quote(prefix)
+                + names.stream().map(Pattern::quote).collect(Collectors.joining("|", "(?:", ")"))
+                + Pattern.quote(suffix));
+    }
+
+    /**
+     * 由文本扫描占位符
+     *
+     * @param text   模板文本
+     * @param prefix 占位符前缀
+     * @param suffix 占位符后缀
+     * @return {@link PlaceholderIndex }
+     */
+    public static PlaceholderIndex scan(String text, String prefix, String suffix) {
+        Set<String> names = new TreeSet<>();
+        int from = 0;
+        while (true) {
+            int start = text.indexOf(prefix, from);
+            if (start < 0) {
+                break;
+            }
+            int nameStart = start + prefix.length();
+            int end = text.indexOf(suffix, nameStart);
+            if (end < 0) {
+                break;
+            }
+            String name = text.substring(nameStart, end);
+            if (valid(name, prefix)) {
+                names.add(name);
+                from = end + suffix.length();
+            } else {
+                // 不是占位符，从下一个字符继续查找，避免漏掉紧随其后的占位符
+                from = start + 1;
+            }
+        }
+        return new PlaceholderIndex(prefix, suffix, names);
+    }
+
+    /**
+     * 由已知的占位符名称创建索引，用于从模板快照恢复
+     *
+     * @param prefix 占位符前缀
+     * @param suffix 占位符后缀
+     * @param names  占位符名称
+     * @return {@link PlaceholderIndex }
+     */
+    public static PlaceholderIndex of(String prefix, String suffix, Collection<String> names) {
+        return new PlaceholderIndex(prefix, suffix, new TreeSet<>(names));
+    }
+
+    /**
+     * 扫描文档中的占位符
+     *
+     * @param doc    文档
+     * @param prefix 占位符前缀
+     * @param suffix 占位符后缀
+     * @return {@link PlaceholderIndex }
+     */
+    public static PlaceholderIndex of(Document doc, String prefix, String suffix) {
+        return scan(doc.getRange().getText(), prefix, suffix);
+    }
+
+    /**
+     * 占位符是否出现在模板中
+     *
+     * @param name 占位符名称
+     * @return boolean
+     */
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+
+    /**
+     * 模板中是否没有占位符
+     *
+     * @return boolean
+     */
+    public boolean isEmpty() {
+        return names.isEmpty();
+    }
+
+    /**
+     * 一次性清除文档中剩余的占位符，替换为空白
+     *
+     * @param doc 已填充的文档
+     * @return 替换的占位符个数
+     * @throws DocumentException 替换失败
+     */
+    public int clear(Document doc) {
+        if (pattern == null) {
+            return 0;
+        }
+        try {
+            return doc.getRange().replace(pattern, AbstractPlaceholderFillerService.SPACE, new FindReplaceOptions());
+        } catch (Exception e) {
+            throw new DocumentException(e);
+        }
+    }
+
+    private static boolean valid(String name, String prefix) {
+        if (name.isEmpty() || name.length() > MAX_NAME_LENGTH || name.contains(prefix)) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            // 段落、单元格等结构控制字符说明前缀与后缀不在同一段落中
+            if (Character.isISOControl(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,20 +1,20 @@
 package cc.anqin.doc.word.placeholder;
 
 import cc.anqin.doc.ex.DocumentException;
+import cc.anqin.doc.metrics.MetricNames;
 import cc.anqin.doc.utils.DynamicListModifier;
-import cc.anqin.doc.word.annotation.Placeholder;
 import cc.anqin.doc.word.enums.PlaceholderType;
+import cc.anqin.doc.word.schema.PlaceholderSpec;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.exceptions.ExceptionUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
 import com.aspose.words.Document;
-import com.aspose.words.FindReplaceOptions;
 import com.aspose.words.Range;
 
-import java.lang.reflect.Field;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * 文本占位符填充器
@@ -69,9 +69,17 @@ public class TextPlaceholderFiller extends AbstractPlaceholderFillerService {
             return;
         }
 
-        for (Field field : fields) {
-            String fieldName = field.getName();
+        // 填充前的文档文本，模板中不存在的占位符直接跳过，不再逐个字段读取整篇文档文本
+        String text = doc.getRange().getText();
+
+        for (PlaceholderSpec spec : specs) {
+            String fieldName = spec.getName();
+            deadline.checkpoint("文本占位符 " + fieldName);
             String placeholderText = placeholderText(fieldName);
+            if (!text.contains(placeholderText)) {
+                continue;
+            }
+            long mark = trace.mark();
             try {
                 Range range = doc.getRange();
                 Object defaultValue = dataMap.get(fieldName);
@@ -82,21 +90,15 @@ public class TextPlaceholderFiller extends AbstractPlaceholderFillerService {
 
                 if( defaultValue instanceof Character || defaultValue instanceof Boolean || defaultValue instanceof Enum
                     || defaultValue instanceof Number){
-                    if (range.getText().contains(placeholderText)) {
-                        range.replace(placeholderText, StrUtil.toString(defaultValue), new FindReplaceOptions());
-                    }
+                    replace(range, placeholderText, StrUtil.toString(defaultValue));
                 }
 
                 if (defaultValue instanceof Date) {
-                    if (range.getText().contains(placeholderText)) {
-                        range.replace(placeholderText, DateUtil.format((Date) defaultValue, "yyyy-MM-dd"), new FindReplaceOptions());
-                    }
+                    replace(range, placeholderText, DateUtil.format((Date) defaultValue, "yyyy-MM-dd"));
                     continue;
                 }
                 if (defaultValue instanceof String) {
-                    if (range.getText().contains(placeholderText)) {
-                        range.replace(placeholderText, (String) defaultValue, new FindReplaceOptions());
-                    }
+                    replace(range, placeholderText, (String) defaultValue);
                     continue;
                 }
                 if (defaultValue instanceof List) {
@@ -111,7 +113,7 @@ public class TextPlaceholderFiller extends AbstractPlaceholderFillerService {
                         continue;
                     }
 
-                    Placeholder.MultipleSplicing splicing = field.getAnnotation(Placeholder.class).splicing();
+                    List<String> splicing = spec.getSplicing();
 
                     List<List<String>> data = new ArrayList<>();
                     multiple.stream()
@@ -133,6 +135,8 @@ public class TextPlaceholderFiller extends AbstractPlaceholderFillerService {
 //                empty(range, placeholderText);
             } catch (Exception e) {
                 throw new DocumentException("替换文本占位符失败：" + placeholderText + ExceptionUtil.stacktraceToString(e));
+            } finally {
+                trace.field(metricName(), fieldName, mark);
             }
         }
     }
@@ -150,34 +154,38 @@ public class TextPlaceholderFiller extends AbstractPlaceholderFillerService {
      * @param dataMultiple    包含多个文本列表的数据集合
      * @throws Exception 如果在文本拼接或替换过程中发生错误
      */
-    private void multipleSplicing(Placeholder.MultipleSplicing splicing,
+    private void multipleSplicing(List<String> splicing,
                                   Document doc,
                                   String placeholderText,
                                   List<List<String>> dataMultiple) throws Exception {
         Range range = doc.getRange();
         if (range.getText().contains(placeholderText)) {
-            List<List<String>> data = DynamicListModifier.normalizeData(dataMultiple, Arrays.asList(splicing.value()));
-            range.replace(placeholderText, CollUtil.join(data, ""), new FindReplaceOptions());
+            List<List<String>> data = DynamicListModifier.normalizeData(dataMultiple, splicing);
+            replace(range, placeholderText, CollUtil.join(data, ""));
         }
     }
 
 
+    @Override
+    public String metricName() {
+        return MetricNames.FILLER_TEXT;
+    }
+
+
     /**
-     * 筛选支持的字段
+     * 筛选支持的占位符
      * <p>
-     * 此方法实现了AbstractPlaceholderFillerService中的抽象方法，用于筛选出文本类型的占位符字段。
-     * 它会检查字段是否有@Placeholder注解，如果没有注解或注解的值为TEXT类型，则认为该字段是文本类型。
-     * 这意味着文本占位符是默认的占位符类型。
+     * 此方法实现了PlaceholderFillerService中的抽象方法，用于筛选出文本类型的占位符。
+     * 没有@Placeholder注解的字段生成的描述也是TEXT类型，这意味着文本占位符是默认的占位符类型。
      * </p>
      *
-     * @param fields 要筛选的字段数组
-     * @return 支持的字段数组，只包含文本类型的占位符字段
+     * @param specs 要筛选的占位符描述
+     * @return 支持的占位符描述，只包含文本类型
      */
     @Override
-    public Field[] supports(Field[] fields) {
-        return Arrays.stream(fields).filter(f -> {
-            Placeholder placeholder = f.getAnnotation(Placeholder.class);
-            return placeholder == null || placeholder.value().equals(PlaceholderType.TEXT);
-        }).toArray(Field[]::new);
+    public List<PlaceholderSpec> supports(Collection<PlaceholderSpec> specs) {
+        return specs.stream()
+                .filter(spec -> spec.getType() == PlaceholderType.TEXT)
+                .collect(Collectors.toList());
     }
 }
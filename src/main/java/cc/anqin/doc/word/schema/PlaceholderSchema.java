@@ -0,0 +1,227 @@
+package cc.anqin.doc.word.schema;
+
+import cc.anqin.doc.word.enums.PlaceholderType;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.ReflectUtil;
+import cn.hutool.core.util.StrUtil;
+
+import java.io.File;
+import java.io.Reader;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 占位符声明
+ * <p>
+ * 一组 {@link PlaceholderSpec}，描述模板中有哪些占位符及其类型。渲染 Map 实体（{@link cc.anqin.doc.entity.MapEntity}）时
+ * 由调用方提供，填充器据此处理数据而不需要实体类与反射；实体类的声明由 {@link #of(Class)} 从注解生成，
+ * 每个类只解析一次。
+ * </p>
+ * <p>
+ * 声明可以在代码中构建，也可以从 properties 文件读取，每行一个占位符：
+ * <pre>
+ * name=TEXT
+ * children=TEXT:子女姓名|出身日期|地址      // 列表值按标签拼接
+ * logo=PIC:30x30                          // 图片宽x高
+ * items=DYNAMIC_ROW:name|qty|price         // 动态行及其列名
+ * </pre>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * PlaceholderSchema schema = PlaceholderSchema.create()
+ *         .text("name")
+ *         .pic("logo", 30, 30)
+ *         .rows("items", "name", "qty", "price");
+ *
+ * PlaceholderSchema fromFile = PlaceholderSchema.load(new File("/data/templates/invoice.schema.properties"));
+ * </pre>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see PlaceholderSpec 占位符描述
+ */
+public final class PlaceholderSchema {
+
+    /** 实体类 -> 注解生成的声明 */
+    private static final Map<Class<?>, PlaceholderSchema> CLASS_SCHEMAS = new ConcurrentHashMap<>();
+
+    /** 名称 -> 描述，保持声明顺序 */
+    private final Map<String, PlaceholderSpec> specs = new LinkedHashMap<>();
+
+    /** 描述列表快照，声明变化后重新生成 */
+    private volatile List<PlaceholderSpec> snapshot;
+
+    /** 是否只读，注解生成的声明在实体类之间共享，不允许修改 */
+    private boolean readOnly;
+
+    private PlaceholderSchema() {
+    }
+
+    /**
+     * 创建空声明
+     *
+     * @return {@link PlaceholderSchema }
+     */
+    public static PlaceholderSchema create() {
+        return new PlaceholderSchema();
+    }
+
+    /**
+     * 获取实体类的声明
+     * <p>
+     * 根据实体类（含父类）中非 final 字段的 {@link cc.anqin.doc.word.annotation.Placeholder} 注解生成，
+     * 结果按类缓存且只读。
+     * </p>
+     *
+     * @param type 实体类
+     * @return {@link PlaceholderSchema }
+     */
+    public static PlaceholderSchema of(Class<?> type) {
+        return CLASS_SCHEMAS.computeIfAbsent(type, clazz -> {
+            PlaceholderSchema schema = new PlaceholderSchema();
+            Arrays.stream(ReflectUtil.getFields(clazz))
+                    .filter(field -> !Modifier.isFinal(field.getModifiers()))
+                    .forEach(field -> schema.add(PlaceholderSpec.of(field)));
+            schema.readOnly = true;
+            return schema;
+        });
+    }
+
+    /**
+     * 从 properties 文件读取声明
+     *
+     * @param file 声明文件，UTF-8编码
+     * @return {@link PlaceholderSchema }
+     * @throws IllegalArgumentException 文件不存在或声明无效
+     */
+    public static PlaceholderSchema load(File file) {
+        if (!FileUtil.isFile(file)) {
+            throw new IllegalArgumentException("占位符声明文件不存在：" + (file == null ? null : file.getAbsolutePath()));
+        }
+        Properties properties = new Properties();
+        try (Reader reader = FileUtil.getUtf8Reader(file)) {
+            properties.load(reader);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("读取占位符声明失败：" + file.getAbsolutePath(), e);
+        }
+        return parse(properties);
+    }
+
+    /**
+     * 解析 properties 形式的声明，格式见类说明
+     *
+     * @param properties 声明
+     * @return {@link PlaceholderSchema }
+     * @throws IllegalArgumentException 声明无效
+     */
+    public static PlaceholderSchema parse(Properties properties) {
+        PlaceholderSchema schema = new PlaceholderSchema();
+        for (String name : new TreeSet<>(properties.stringPropertyNames())) {
+            String declared = properties.getProperty(name).trim();
+            PlaceholderType type = PlaceholderType.valueOf(StrUtil.subBefore(declared, ":", false).trim().toUpperCase());
+            String args = declared.contains(":") ? StrUtil.subAfter(declared, ":", false).trim() : "";
+            String[] parts = StrUtil.isEmpty(args) ? new String[0] : args.split("\\|", -1);
+            switch (type) {
+                case PIC:
+                    String[] size = args.toLowerCase().split("x");
+                    if (size.length != 2) {
+                        throw new IllegalArgumentException("图片占位符需要声明尺寸（宽x高）：" + name);
+                    }
+                    schema.pic(name, Double.parseDouble(size[0].trim()), Double.parseDouble(size[1].trim()));
+                    break;
+                case DYNAMIC_ROW:
+                    schema.rows(name, parts);
+                    break;
+                case TEXT:
+                    schema.text(name, parts);
+                    break;
+                default:
+                    throw new IllegalArgumentException("不支持在声明中使用的占位符类型：" + type + "（" + name + "）");
+            }
+        }
+        return schema;
+    }
+
+    /**
+     * 声明文本占位符
+     *
+     * @param name     名称
+     * @param splicing 列表值的拼接标签，可省略
+     * @return {@link PlaceholderSchema }
+     */
+    public PlaceholderSchema text(String name, String... splicing) {
+        return add(PlaceholderSpec.text(name, splicing));
+    }
+
+    /**
+     * 声明图片占位符
+     *
+     * @param name   名称
+     * @param width  宽度
+     * @param height 高度
+     * @return {@link PlaceholderSchema }
+     */
+    public PlaceholderSchema pic(String name, double width, double height) {
+        return add(PlaceholderSpec.pic(name, width, height));
+    }
+
+    /**
+     * 声明动态行占位符
+     *
+     * @param name    名称
+     * @param columns 行数据的列名
+     * @return {@link PlaceholderSchema }
+     */
+    public PlaceholderSchema rows(String name, String... columns) {
+        return add(PlaceholderSpec.rows(name, columns));
+    }
+
+    /**
+     * 添加占位符描述，同名的描述被替换
+     *
+     * @param spec 描述
+     * @return {@link PlaceholderSchema }
+     * @throws IllegalStateException 实体类生成的只读声明
+     */
+    public PlaceholderSchema add(PlaceholderSpec spec) {
+        if (readOnly) {
+            throw new IllegalStateException("实体类生成的占位符声明不允许修改");
+        }
+        specs.put(spec.getName(), spec);
+        snapshot = null;
+        return this;
+    }
+
+    /**
+     * 按名称获取描述
+     *
+     * @param name 名称
+     * @return {@link PlaceholderSpec }，未声明时返回null
+     */
+    public PlaceholderSpec get(String name) {
+        return specs.get(name);
+    }
+
+    /**
+     * 全部描述，按声明顺序排列
+     *
+     * @return 只读列表
+     */
+    public List<PlaceholderSpec> getSpecs() {
+        List<PlaceholderSpec> list = snapshot;
+        if (list == null) {
+            snapshot = list = Collections.unmodifiableList(new ArrayList<>(specs.values()));
+        }
+        return list;
+    }
+}
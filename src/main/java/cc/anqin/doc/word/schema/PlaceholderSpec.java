@@ -0,0 +1,132 @@
+package cc.anqin.doc.word.schema;
+
+import cc.anqin.doc.word.annotation.Placeholder;
+import cc.anqin.doc.word.enums.PlaceholderType;
+import cc.anqin.doc.word.placeholder.DynamicRowPlaceholderFiller;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 占位符描述
+ * <p>
+ * 描述一个占位符的名称、类型及其类型相关的参数，是填充器处理占位符的依据。
+ * 实体类的描述由 {@link #of(Field)} 从 {@link Placeholder} 注解生成，
+ * Map 实体的描述在 {@link PlaceholderSchema} 中声明，填充器不再依赖反射字段。
+ * </p>
+ * <p>
+ * 类型相关参数：
+ * <ul>
+ *   <li>{@link PlaceholderType#TEXT} - splicing，列表值的拼接标签，等同于 {@link Placeholder.MultipleSplicing}</li>
+ *   <li>{@link PlaceholderType#PIC} - width、height，图片尺寸，等同于 {@link Placeholder.PicWord}</li>
+ *   <li>{@link PlaceholderType#DYNAMIC_ROW} - columns，行数据的列名，用于清除未填充的模板行</li>
+ * </ul>
+ * </p>
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ * @see PlaceholderSchema 占位符声明
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class PlaceholderSpec {
+
+    /** 占位符名称 */
+    private final String name;
+
+    /** 占位符类型 */
+    private final PlaceholderType type;
+
+    /** 列表文本的拼接标签 */
+    private final List<String> splicing;
+
+    /** 图片宽度 */
+    private final double width;
+
+    /** 图片高度 */
+    private final double height;
+
+    /** 动态行的列名 */
+    private final Set<String> columns;
+
+    private PlaceholderSpec(String name, PlaceholderType type, List<String> splicing, double width, double height,
+                            Set<String> columns) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("占位符名称不能为空");
+        }
+        this.name = name;
+        this.type = type;
+        this.splicing = Collections.unmodifiableList(splicing);
+        this.width = width;
+        this.height = height;
+        this.columns = Collections.unmodifiableSet(columns);
+    }
+
+    /**
+     * 文本占位符
+     *
+     * @param name     名称
+     * @param splicing 列表值的拼接标签，可省略
+     * @return {@link PlaceholderSpec }
+     */
+    public static PlaceholderSpec text(String name, String... splicing) {
+        return new PlaceholderSpec(name, PlaceholderType.TEXT, Arrays.asList(splicing), 0, 0, Collections.emptySet());
+    }
+
+    /**
+     * 图片占位符
+     *
+     * @param name   名称
+     * @param width  宽度
+     * @param height 高度
+     * @return {@link PlaceholderSpec }
+     */
+    public static PlaceholderSpec pic(String name, double width, double height) {
+        return new PlaceholderSpec(name, PlaceholderType.PIC, Collections.emptyList(), width, height, Collections.emptySet());
+    }
+
+    /**
+     * 动态行占位符
+     *
+     * @param name    名称
+     * @param columns 行数据的列名
+     * @return {@link PlaceholderSpec }
+     */
+    public static PlaceholderSpec rows(String name, String... columns) {
+        return new PlaceholderSpec(name, PlaceholderType.DYNAMIC_ROW, Collections.emptyList(), 0, 0,
+                new LinkedHashSet<>(Arrays.asList(columns)));
+    }
+
+    /**
+     * 根据实体字段及其 {@link Placeholder} 注解生成描述，未标注注解的字段视为文本占位符
+     *
+     * @param field 实体字段
+     * @return {@link PlaceholderSpec }
+     */
+    public static PlaceholderSpec of(Field field) {
+        Placeholder placeholder = field.getAnnotation(Placeholder.class);
+        if (placeholder == null) {
+            return text(field.getName());
+        }
+        switch (placeholder.value()) {
+            case PIC:
+                return pic(field.getName(), placeholder.pic().width(), placeholder.pic().height());
+            case DYNAMIC_ROW:
+                return new PlaceholderSpec(field.getName(), PlaceholderType.DYNAMIC_ROW, Collections.emptyList(), 0, 0,
+                        new LinkedHashSet<>(DynamicRowPlaceholderFiller.getFieldsFromList(field).keySet()));
+            case TEXT:
+                return text(field.getName(), placeholder.splicing().value());
+            default:
+                return new PlaceholderSpec(field.getName(), placeholder.value(), Collections.emptyList(), 0, 0,
+                        Collections.emptySet());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package cc.anqin.doc.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 基于 ByteBuffer 的输入流测试
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+class ByteBufferInputStreamTest {
+
+    @Test
+    void readsWithoutMovingSourceBuffer() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{1, 2, (byte) 0xFF, 4});
+        try (ByteBufferInputStream in = new ByteBufferInputStream(buffer)) {
+            assertEquals(1, in.read());
+            byte[] rest = new byte[8];
+            assertEquals(3, in.read(rest, 0, rest.length));
+            assertArrayEquals(new byte[]{2, (byte) 0xFF, 4}, Arrays.copyOf(rest, 3));
+            assertEquals(-1, in.read());
+            assertEquals(-1, in.read(rest, 0, rest.length));
+        }
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void resetsToMark() throws IOException {
+        ByteBufferInputStream in = new ByteBufferInputStream(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        in.read();
+        in.mark(2);
+        assertEquals(2, in.read());
+        in.reset();
+        assertEquals(2, in.read());
+        assertEquals(1, in.available());
+    }
+
+    @Test
+    void resetWithoutMarkThrowsIOException() {
+        ByteBufferInputStream in = new ByteBufferInputStream(ByteBuffer.wrap(new byte[]{1}));
+        assertThrows(IOException.class, in::reset);
+    }
+}
@@ -0,0 +1,154 @@
+package cc.anqin.doc.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * 文件类型检测测试
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+class FormatDetectorTest {
+
+    private static final String DOCX = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+    @Test
+    void detectsImagesByMagic() {
+        assertEquals("image/png", FormatDetector.detect(bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0)));
+        assertEquals("image/jpeg", FormatDetector.detect(bytes(0xFF, 0xD8, 0xFF, 0xE0, 0, 0x10)));
+        assertEquals("image/gif", FormatDetector.detect(ascii("GIF87a....")));
+        assertEquals("image/gif", FormatDetector.detect(ascii("GIF89a....")));
+        assertEquals("image/webp", FormatDetector.detect(ascii("RIFF\0\0\0\0WEBPVP8 ")));
+        assertEquals("application/pdf", FormatDetector.detect(ascii("%PDF-1.7\n")));
+    }
+
+    @Test
+    void riffWithoutWebpIsNotWebp() {
+        assertNotEquals("image/webp", FormatDetector.detect(ascii("RIFF\0\0\0\0WAVEfmt ")));
+    }
+
+    @Test
+    void detectsStoredDocx() throws IOException {
+        byte[] zip = storedZip("[Content_Types].xml", "_rels/.rels", "word/document.xml");
+        assertEquals(DOCX, FormatDetector.detect(zip));
+        assertEquals("docx", FormatDetector.detectExtension(zip));
+    }
+
+    @Test
+    void detectsPlainZip() throws IOException {
+        assertEquals("application/zip", FormatDetector.detect(storedZip("readme.txt", "word/document.xml")));
+    }
+
+    @Test
+    void detectsDocxWithDataDescriptorWhenWordEntryComesFirst() throws IOException {
+        byte[] zip = deflatedZip("word/document.xml", "[Content_Types].xml");
+        assertEquals(0x08, flags(zip) & 0x08, "ZipOutputStream 写入 DEFLATED 条目时应使用数据描述符");
+        assertEquals(DOCX, FormatDetector.detect(zip));
+    }
+
+    @Test
+    void dataDescriptorStopsWalkWithoutClaimingPlainZip() throws IOException {
+        // 第一个条目是容器标识，但大小记录在数据之后，无法跳到下一个条目，交给 Tika 判断
+        byte[] zip = deflatedZip("[Content_Types].xml", "_rels/.rels", "word/document.xml");
+        String mimeType = FormatDetector.detect(zip);
+        assertNotNull(mimeType);
+        assertNotEquals("application/zip", mimeType);
+    }
+
+    @Test
+    void truncatedZipHeaderDoesNotFail() {
+        assertNotNull(FormatDetector.detect(bytes('P', 'K', 0x03, 0x04, 0x14, 0)));
+    }
+
+    @Test
+    void hugeCompressedSizeDoesNotOverflow() {
+        ByteBuffer header = ByteBuffer.allocate(30 + 19 + 30).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0x04034b50).putShort((short) 20).putShort((short) 0).putShort((short) 0)
+                .putInt(0).putInt(0).putInt(0xFFFFFFFF).putInt(0xFFFFFFFF)
+                .putShort((short) 19).putShort((short) 0)
+                .put("[Content_Types].xml".getBytes(StandardCharsets.US_ASCII));
+        assertNotNull(FormatDetector.detect(header.array()));
+    }
+
+    @Test
+    void streamDetectionDoesNotConsumeInput() throws IOException {
+        byte[] png = bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 1, 2, 3);
+        InputStream in = new BufferedInputStream(new ByteArrayInputStream(png));
+        assertEquals("png", FormatDetector.detectExtension(in));
+        byte[] read = new byte[png.length];
+        assertEquals(png.length, in.read(read));
+        assertArrayEquals(png, read);
+    }
+
+    @Test
+    void mapsMimeTypesToExtensions() {
+        assertEquals("jpg", FormatDetector.extension("image/jpeg"));
+        assertEquals("docx", FormatDetector.extension(DOCX));
+        assertEquals(null, FormatDetector.extension(null));
+    }
+
+    private static byte[] storedZip(String... names) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (String name : names) {
+                byte[] content = name.getBytes(StandardCharsets.UTF_8);
+                CRC32 crc = new CRC32();
+                crc.update(content);
+                ZipEntry entry = new ZipEntry(name);
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(content.length);
+                entry.setCompressedSize(content.length);
+                entry.setCrc(crc.getValue());
+                zip.putNextEntry(entry);
+                zip.write(content);
+                zip.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflatedZip(String... names) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (String name : names) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write(name.getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static int flags(byte[] zip) {
+        return (zip[6] & 0xFF) | (zip[7] & 0xFF) << 8;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
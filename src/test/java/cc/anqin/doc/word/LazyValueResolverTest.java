@@ -0,0 +1,91 @@
+package cc.anqin.doc.word;
+
+import cc.anqin.doc.concurrent.Deadline;
+import cc.anqin.doc.word.annotation.Placeholder;
+import cc.anqin.doc.word.enums.PlaceholderType;
+import cc.anqin.doc.word.placeholder.PlaceholderIndex;
+import cc.anqin.doc.word.schema.PlaceholderSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 延迟取值解析测试
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+class LazyValueResolverTest {
+
+    /** 模板中只有动态行的列占位符，没有列表本身的名称 */
+    private static final PlaceholderIndex INDEX = PlaceholderIndex.of("${", "}", Arrays.asList("name", "price"));
+
+    private static final List<Item> ITEMS = Collections.singletonList(new Item());
+
+    @Test
+    void derivesColumnsFromLazyListFields() throws NoSuchFieldException {
+        assertEquals(new HashSet<>(Arrays.asList("name", "price")), spec("supplied").getColumns());
+        assertEquals(new HashSet<>(Arrays.asList("name", "price")), spec("future").getColumns());
+    }
+
+    @Test
+    void resolvesLazyDynamicRows() throws NoSuchFieldException {
+        Map<String, Object> data = new HashMap<>();
+        data.put("supplied", (Supplier<List<Item>>) () -> ITEMS);
+        data.put("future", CompletableFuture.completedFuture(ITEMS));
+        Map<String, Object> resolved = LazyValueResolver.resolve(INDEX,
+                Arrays.asList(spec("supplied"), spec("future")), data, Deadline.none());
+        assertEquals(ITEMS, resolved.get("supplied"));
+        assertEquals(ITEMS, resolved.get("future"));
+    }
+
+    @Test
+    void resolvesDynamicRowsWithUnknownColumns() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("rows", (Supplier<List<Item>>) () -> ITEMS);
+        Map<String, Object> resolved = LazyValueResolver.resolve(INDEX,
+                Collections.singletonList(PlaceholderSpec.rows("rows")), data, Deadline.none());
+        assertEquals(ITEMS, resolved.get("rows"));
+    }
+
+    @Test
+    void dropsDynamicRowsWhoseColumnsAreAbsent() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("rows", (Supplier<List<Item>>) () -> {
+            throw new IllegalStateException("模板中不存在的占位符不应取值");
+        });
+        Map<String, Object> resolved = LazyValueResolver.resolve(INDEX,
+                Collections.singletonList(PlaceholderSpec.rows("rows", "amount")), data, Deadline.none());
+        assertFalse(resolved.containsKey("rows"));
+    }
+
+    private static PlaceholderSpec spec(String name) throws NoSuchFieldException {
+        return PlaceholderSpec.of(Lazy.class.getDeclaredField(name));
+    }
+
+    static class Item {
+
+        private String name;
+
+        private String price;
+    }
+
+    static class Lazy {
+
+        @Placeholder(PlaceholderType.DYNAMIC_ROW)
+        private Supplier<List<Item>> supplied;
+
+        @Placeholder(PlaceholderType.DYNAMIC_ROW)
+        private CompletableFuture<List<Item>> future;
+    }
+}
@@ -0,0 +1,79 @@
+package cc.anqin.doc.word.schema;
+
+import cc.anqin.doc.word.enums.PlaceholderType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 占位符声明解析测试
+ *
+ * @author Mr.An
+ * @date 2026/10/19
+ */
+class PlaceholderSchemaTest {
+
+    @Test
+    void parsesText() {
+        PlaceholderSchema schema = PlaceholderSchema.parse(properties("name", "text", "tags", "TEXT: 、|，"));
+        assertEquals(Collections.emptyList(), schema.get("name").getSplicing());
+        assertEquals(Arrays.asList("、", "，"), schema.get("tags").getSplicing());
+        assertEquals(PlaceholderType.TEXT, schema.get("tags").getType());
+    }
+
+    @Test
+    void parsesPicSize() {
+        PlaceholderSchema schema = PlaceholderSchema.parse(properties("logo", "pic:120x80", "photo", "Pic: 30X40.5"));
+        assertEquals(PlaceholderType.PIC, schema.get("logo").getType());
+        assertEquals(120, schema.get("logo").getWidth());
+        assertEquals(80, schema.get("logo").getHeight());
+        assertEquals(30, schema.get("photo").getWidth());
+        assertEquals(40.5, schema.get("photo").getHeight());
+    }
+
+    @Test
+    void parsesDynamicRowColumns() {
+        PlaceholderSpec spec = PlaceholderSchema.parse(properties("items", "dynamic_row:name|price|count")).get("items");
+        assertEquals(PlaceholderType.DYNAMIC_ROW, spec.getType());
+        assertEquals(Arrays.asList("name", "price", "count"), new ArrayList<>(spec.getColumns()));
+    }
+
+    @Test
+    void sortsByName() {
+        List<PlaceholderSpec> specs = PlaceholderSchema.parse(properties("b", "text", "c", "text", "a", "text")).getSpecs();
+        List<String> names = new ArrayList<>();
+        specs.forEach(spec -> names.add(spec.getName()));
+        assertEquals(Arrays.asList("a", "b", "c"), names);
+    }
+
+    @Test
+    void rejectsPicWithoutSize() {
+        assertThrows(IllegalArgumentException.class, () -> PlaceholderSchema.parse(properties("logo", "pic")));
+        assertThrows(IllegalArgumentException.class, () -> PlaceholderSchema.parse(properties("logo", "pic:120")));
+    }
+
+    @Test
+    void rejectsUnknownType() {
+        assertThrows(IllegalArgumentException.class, () -> PlaceholderSchema.parse(properties("name", "string")));
+    }
+
+    @Test
+    void rejectsTypeNotAllowedInDeclaration() {
+        assertThrows(IllegalArgumentException.class, () -> PlaceholderSchema.parse(properties("flag", "text_boolean")));
+    }
+
+    private static Properties properties(String... pairs) {
+        Properties properties = new Properties();
+        for (int i = 0; i < pairs.length; i += 2) {
+            properties.setProperty(pairs[i], pairs[i + 1]);
+        }
+        return properties;
+    }
+}